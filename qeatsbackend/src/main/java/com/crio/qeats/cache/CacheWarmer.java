@@ -0,0 +1,122 @@
+
+package com.crio.qeats.cache;
+
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms both cache tiers on startup by replaying the hot keys persisted by the previous run.
+ * Until warm-up is over this reports OUT_OF_SERVICE, which keeps the health (readiness) probe
+ * from going UP on a cold cache.
+ */
+@Component
+@Log4j2
+public class CacheWarmer implements HealthIndicator {
+
+  enum State { NOT_STARTED, IN_PROGRESS, COMPLETED }
+
+  @Autowired
+  private HotKeyRecorder hotKeyRecorder;
+
+  @Autowired
+  private HotKeyLoader hotKeyLoader;
+
+  @Value("${qeats.cache.warmup.threads:8}")
+  private int warmupThreads;
+
+  private volatile State state = State.NOT_STARTED;
+  private volatile int totalKeys;
+  private final AtomicInteger warmedKeys = new AtomicInteger();
+  private final AtomicInteger failedKeys = new AtomicInteger();
+  private volatile long startedAtMillis;
+  private volatile long durationMillis;
+
+  /**
+   * Replays the persisted hot keys in parallel.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    List<HotKey> hotKeys = hotKeyRecorder.load();
+    startedAtMillis = System.currentTimeMillis();
+    totalKeys = hotKeys.size();
+    state = State.IN_PROGRESS;
+    if (hotKeys.isEmpty()) {
+      finish();
+      return;
+    }
+
+    log.info("Warming caches with {} hot keys", hotKeys.size());
+    LocalTime currentTime = LocalTime.now();
+    ExecutorService executor = Executors.newFixedThreadPool(warmupThreads);
+    CompletableFuture<?>[] futures = hotKeys.stream()
+        .map(hotKey -> CompletableFuture.runAsync(() -> warm(hotKey, currentTime), executor))
+        .toArray(CompletableFuture[]::new);
+
+    CompletableFuture.allOf(futures).whenComplete((ignored, e) -> {
+      executor.shutdown();
+      finish();
+    });
+  }
+
+  private void warm(HotKey hotKey, LocalTime currentTime) {
+    try {
+      hotKeyLoader.load(hotKey, currentTime);
+      warmedKeys.incrementAndGet();
+    } catch (RuntimeException e) {
+      failedKeys.incrementAndGet();
+      log.warn("Failed to warm cache for {}", hotKey, e);
+    }
+  }
+
+  private void finish() {
+    durationMillis = System.currentTimeMillis() - startedAtMillis;
+    state = State.COMPLETED;
+    log.info("Cache warm-up finished in {} ms ({} warmed, {} failed)",
+        durationMillis, warmedKeys.get(), failedKeys.get());
+  }
+
+  /**
+   * Returns the progress of the warm-up, as exposed through actuator.
+   */
+  public Map<String, Object> progress() {
+    Map<String, Object> progress = new LinkedHashMap<>();
+    progress.put("state", state);
+    progress.put("totalKeys", totalKeys);
+    progress.put("warmedKeys", warmedKeys.get());
+    progress.put("failedKeys", failedKeys.get());
+    progress.put("durationMillis", durationSoFar());
+    return progress;
+  }
+
+  private long durationSoFar() {
+    switch (state) {
+      case COMPLETED:
+        return durationMillis;
+      case IN_PROGRESS:
+        return System.currentTimeMillis() - startedAtMillis;
+      default:
+        return 0;
+    }
+  }
+
+  @Override
+  public Health health() {
+    Health.Builder builder = state == State.COMPLETED ? Health.up() : Health.outOfService();
+    return builder.withDetails(progress()).build();
+  }
+
+}
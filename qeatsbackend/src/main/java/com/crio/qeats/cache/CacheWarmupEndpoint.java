@@ -0,0 +1,23 @@
+
+package com.crio.qeats.cache;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// Exposes cache warm-up progress and duration at /actuator/cachewarmup.
+@Component
+@Endpoint(id = "cachewarmup")
+public class CacheWarmupEndpoint {
+
+  @Autowired
+  private CacheWarmer cacheWarmer;
+
+  @ReadOperation
+  public Map<String, Object> progress() {
+    return cacheWarmer.progress();
+  }
+
+}
@@ -0,0 +1,82 @@
+
+package com.crio.qeats.cache;
+
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pins the current heavy hitters in the in-process tier and reloads their entries shortly
+ * before they expire, so the hottest requests never see a local miss.
+ */
+@Component
+@Log4j2
+public class HeavyHitterRefresher {
+
+  private static final long REFRESH_AHEAD_IN_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+  @Autowired
+  private HotKeyRecorder hotKeyRecorder;
+
+  @Autowired
+  private InProcessRestaurantCache inProcessRestaurantCache;
+
+  @Autowired
+  private HotKeyLoader hotKeyLoader;
+
+  @Autowired
+  private RestaurantCacheInvalidator restaurantCacheInvalidator;
+
+  @Autowired
+  private ValidityWindows validityWindows;
+
+  @Value("${qeats.cache.heavyhitters.pinned:100}")
+  private int pinnedLimit;
+
+  // Keys seen fewer times than this (after aging) are not worth pinning.
+  @Value("${qeats.cache.heavyhitters.min-hits:10}")
+  private long minHits;
+
+  /**
+   * Re-pins the heavy hitters and refreshes the pinned entries that are about to expire.
+   */
+  @Scheduled(fixedDelayString = "${qeats.cache.heavyhitters.refresh-interval-ms:30000}")
+  public void refresh() {
+    LocalTime currentTime = LocalTime.now();
+    String window = validityWindows.windowOf(currentTime);
+    Map<String, HotKey> hotKeyByCacheKey = new HashMap<>();
+    for (HotKey hotKey : hotKeyRecorder.topKeys(pinnedLimit)) {
+      if (hotKey.getHits() >= minHits) {
+        for (String cacheKey : RestaurantCacheKeys.forHotKey(hotKey, window)) {
+          hotKeyByCacheKey.put(cacheKey, hotKey);
+        }
+      }
+    }
+    inProcessRestaurantCache.pin(hotKeyByCacheKey.keySet());
+
+    Set<HotKey> dueForRefresh = new LinkedHashSet<>();
+    for (String cacheKey : inProcessRestaurantCache.pinnedKeysDueForRefresh(
+        REFRESH_AHEAD_IN_MILLIS)) {
+      dueForRefresh.add(hotKeyByCacheKey.get(cacheKey));
+    }
+
+    for (HotKey hotKey : dueForRefresh) {
+      // Redis would hand the reload the same entry back, so it is dropped from both tiers.
+      restaurantCacheInvalidator.invalidate(RestaurantCacheKeys.forHotKey(hotKey, window));
+      try {
+        hotKeyLoader.load(hotKey, currentTime);
+      } catch (RuntimeException e) {
+        log.warn("Failed to refresh pinned entry for {}", hotKey, e);
+      }
+    }
+  }
+
+}
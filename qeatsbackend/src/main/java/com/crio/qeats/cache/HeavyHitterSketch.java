@@ -0,0 +1,133 @@
+
+package com.crio.qeats.cache;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import lombok.Value;
+
+/**
+ * Streaming heavy-hitter detector with bounded memory.
+ * Frequencies are estimated by a Count-Min sketch over an {@link AtomicLongArray}, so counting
+ * never takes a lock; only the (at most {@code capacity}) heaviest items seen so far are kept as
+ * candidates for the top-K, ordered by their estimate so that the lightest one is replaced in
+ * O(log capacity). The candidates have a single writer: {@link #add} and {@link #decay} must be
+ * called from one thread at a time (see {@link HotKeyRecorder}), while {@link #estimate} and
+ * {@link #topK} can be called from any thread.
+ */
+public class HeavyHitterSketch {
+
+  private static final int DEPTH = 4;
+
+  private static final Comparator<HeavyHitter> LIGHTEST_FIRST =
+      Comparator.comparingLong(HeavyHitter::getEstimate).thenComparing(HeavyHitter::getItem);
+  private static final Comparator<HeavyHitter> HEAVIEST_FIRST = LIGHTEST_FIRST.reversed();
+
+  private final int width;
+  private final int mask;
+  private final AtomicLongArray counters;
+  private final int capacity;
+  // Read by any thread; only the writer updates them.
+  private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+  // Confined to the writer.
+  private final TreeSet<HeavyHitter> ordered = new TreeSet<>(LIGHTEST_FIRST);
+
+  /**
+   * Creates a sketch of {@code DEPTH x width} counters tracking up to {@code capacity} items.
+   * @param width number of counters per row, rounded up to a power of two
+   * @param capacity number of heavy hitters to track
+   */
+  public HeavyHitterSketch(int width, int capacity) {
+    this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+    this.mask = this.width - 1;
+    this.counters = new AtomicLongArray(DEPTH * this.width);
+    this.capacity = capacity;
+  }
+
+  /**
+   * Counts one occurrence of the item.
+   * @return the new frequency estimate of the item
+   */
+  public long add(String item) {
+    int hash1 = item.hashCode();
+    int hash2 = mix(hash1);
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash1, hash2)));
+    }
+
+    Long previous = candidates.get(item);
+    if (previous != null) {
+      ordered.remove(new HeavyHitter(item, previous));
+    } else if (candidates.size() >= capacity) {
+      if (capacity == 0 || estimate <= ordered.first().getEstimate()) {
+        return estimate;
+      }
+      candidates.remove(ordered.pollFirst().getItem());
+    }
+    candidates.put(item, estimate);
+    ordered.add(new HeavyHitter(item, estimate));
+    return estimate;
+  }
+
+  /**
+   * Returns the frequency estimate of the item. Never underestimates.
+   */
+  public long estimate(String item) {
+    int hash1 = item.hashCode();
+    int hash2 = mix(hash1);
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, counters.get(index(row, hash1, hash2)));
+    }
+    return estimate;
+  }
+
+  /**
+   * Returns up to {@code k} heavy hitters, heaviest first.
+   */
+  public List<HeavyHitter> topK(int k) {
+    return candidates.entrySet().stream()
+        .map(candidate -> new HeavyHitter(candidate.getKey(), candidate.getValue()))
+        .sorted(HEAVIEST_FIRST)
+        .limit(k)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Halves every counter, so that old traffic gradually stops counting.
+   */
+  public void decay() {
+    for (int i = 0; i < counters.length(); i++) {
+      counters.getAndUpdate(i, count -> count >> 1);
+    }
+    ordered.clear();
+    candidates.replaceAll((item, count) -> count >> 1);
+    candidates.values().removeIf(count -> count == 0);
+    candidates.forEach((item, count) -> ordered.add(new HeavyHitter(item, count)));
+  }
+
+  private int index(int row, int hash1, int hash2) {
+    return row * width + ((hash1 + row * hash2) & mask);
+  }
+
+  private static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash | 1;
+  }
+
+  @Value
+  public static class HeavyHitter {
+    String item;
+    long estimate;
+  }
+
+}
@@ -0,0 +1,25 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.cache.HeavyHitterSketch.HeavyHitter;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// Exposes the current top-K cells, search terms and keys at /actuator/heavyhitters.
+@Component
+@Endpoint(id = "heavyhitters")
+public class HeavyHittersEndpoint {
+
+  @Autowired
+  private HotKeyRecorder hotKeyRecorder;
+
+  @ReadOperation
+  public Map<String, List<HeavyHitter>> heavyHitters() {
+    return hotKeyRecorder.heavyHitters();
+  }
+
+}
@@ -0,0 +1,20 @@
+
+package com.crio.qeats.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A popular request shape: the geohash cell a request fell in and its (optional) search term.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotKey {
+
+  private String cell;
+
+  private String searchFor;
+
+  private long hits;
+
+}
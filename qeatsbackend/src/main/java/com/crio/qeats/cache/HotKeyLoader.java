@@ -0,0 +1,33 @@
+
+package com.crio.qeats.cache;
+
+import ch.hsr.geohash.GeoHash;
+import ch.hsr.geohash.WGS84Point;
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.crio.qeats.services.RestaurantService;
+import java.time.LocalTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replays a hot key through the restaurant service from the center of its cell, which fills the
+ * in-process and Redis tiers on its way to the database.
+ */
+@Component
+public class HotKeyLoader {
+
+  @Autowired
+  private RestaurantService restaurantService;
+
+  public void load(HotKey hotKey, LocalTime currentTime) {
+    WGS84Point center = GeoHash.fromGeohashString(hotKey.getCell()).getBoundingBoxCenterPoint();
+    GetRestaurantsRequest request = new GetRestaurantsRequest(center.getLatitude(),
+        center.getLongitude(), hotKey.getSearchFor());
+    if (hotKey.getSearchFor() == null) {
+      restaurantService.findAllRestaurantsCloseBy(request, currentTime);
+    } else {
+      restaurantService.findRestaurantsBySearchQuery(request, currentTime);
+    }
+  }
+
+}
@@ -0,0 +1,180 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.cache.HeavyHitterSketch.HeavyHitter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the most frequent geohash cells, search terms and (cell, search term) pairs with
+ * bounded-memory heavy-hitter sketches. The hottest pairs are persisted periodically to a local
+ * file, so that the next process can warm its caches from it on startup.
+ * Request threads only hand what they saw to a lock-free queue, and a scheduled task drains it
+ * into the sketches, so the sketches have a single writer. Requests that find the queue full are
+ * not counted, which a sample of the traffic can afford.
+ */
+@Component
+@Log4j2
+public class HotKeyRecorder {
+
+  private static final String KEY_SEPARATOR = "\t";
+
+  private static final int SKETCH_WIDTH = 4096;
+  private static final int PENDING_CAPACITY = 16_384;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Value("${qeats.cache.hotkeys.file:qeats_hot_keys.json}")
+  private String hotKeysFile;
+
+  @Value("${qeats.cache.hotkeys.limit:500}")
+  private int hotKeysLimit;
+
+  @Value("${qeats.cache.heavyhitters.top-k:100}")
+  private int topK;
+
+  private HeavyHitterSketch cells;
+  private HeavyHitterSketch searchTerms;
+  private HeavyHitterSketch keys;
+  private final Queue<String[]> pending = new ConcurrentLinkedQueue<>();
+  // Bounds the queue, whose own size() walks it.
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final AtomicBoolean decayDue = new AtomicBoolean();
+
+  @PostConstruct
+  public void initSketches() {
+    cells = new HeavyHitterSketch(SKETCH_WIDTH, topK);
+    searchTerms = new HeavyHitterSketch(SKETCH_WIDTH, topK);
+    keys = new HeavyHitterSketch(SKETCH_WIDTH, hotKeysLimit);
+  }
+
+  /**
+   * Records one request for the given cell and (nullable) search term. It is counted once the
+   * queue is next drained.
+   */
+  public void record(String cell, String searchFor) {
+    if (pendingCount.incrementAndGet() > PENDING_CAPACITY) {
+      pendingCount.decrementAndGet();
+      return;
+    }
+    pending.offer(new String[] {cell, searchFor});
+  }
+
+  /**
+   * Counts the requests recorded since the previous drain, then ages the sketches if
+   * {@link #persist} asked for it. This is the only thread that writes to the sketches.
+   */
+  @Scheduled(fixedDelayString = "${qeats.cache.hotkeys.drain-interval-ms:100}")
+  public void drain() {
+    String[] request;
+    while ((request = pending.poll()) != null) {
+      pendingCount.decrementAndGet();
+      count(request[0], request[1]);
+    }
+    if (decayDue.compareAndSet(true, false)) {
+      cells.decay();
+      searchTerms.decay();
+      keys.decay();
+    }
+  }
+
+  private void count(String cell, String searchFor) {
+    String search = searchFor == null ? "" : searchFor.trim();
+    cells.add(cell);
+    if (!search.isEmpty()) {
+      searchTerms.add(search.toLowerCase());
+    }
+    keys.add(cell + KEY_SEPARATOR + search);
+  }
+
+  /**
+   * Returns up to {@code limit} of the hottest (cell, search term) pairs, hottest first.
+   */
+  public List<HotKey> topKeys(int limit) {
+    return keys.topK(limit).stream()
+        .map(heavyHitter -> toHotKey(heavyHitter.getItem(), heavyHitter.getEstimate()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the current top-K of every tracked dimension.
+   */
+  public Map<String, List<HeavyHitter>> heavyHitters() {
+    Map<String, List<HeavyHitter>> heavyHitters = new LinkedHashMap<>();
+    heavyHitters.put("cells", cells.topK(topK));
+    heavyHitters.put("searchTerms", searchTerms.topK(topK));
+    heavyHitters.put("keys", keys.topK(topK));
+    return heavyHitters;
+  }
+
+  /**
+   * Writes the current hot keys to the hot-key file and has all counts aged on the next drain,
+   * so that the file follows recent traffic. The previous file is kept as-is if nothing was
+   * recorded.
+   */
+  @Scheduled(fixedDelayString = "${qeats.cache.hotkeys.persist-interval-ms:60000}")
+  public void persist() {
+    List<HotKey> hotKeys = topKeys(hotKeysLimit);
+    if (hotKeys.isEmpty()) {
+      return;
+    }
+
+    Path target = Paths.get(hotKeysFile);
+    Path temp = Paths.get(hotKeysFile + ".tmp");
+    try {
+      objectMapper.writeValue(temp.toFile(), hotKeys);
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      log.info("Persisted {} hot keys to {}", hotKeys.size(), target.toAbsolutePath());
+    } catch (IOException e) {
+      log.error("Failed to persist hot keys to {}", target.toAbsolutePath(), e);
+    }
+
+    decayDue.set(true);
+  }
+
+  /**
+   * Loads the hot keys persisted by a previous run, or an empty list if there are none.
+   */
+  public List<HotKey> load() {
+    Path path = Paths.get(hotKeysFile);
+    if (!Files.isReadable(path)) {
+      return Collections.emptyList();
+    }
+
+    try {
+      return objectMapper.readValue(path.toFile(), new TypeReference<List<HotKey>>() {
+      });
+    } catch (IOException e) {
+      log.error("Ignoring unreadable hot key file {}", path.toAbsolutePath(), e);
+      return new ArrayList<>();
+    }
+  }
+
+  private static HotKey toHotKey(String key, long count) {
+    int separator = key.indexOf(KEY_SEPARATOR);
+    String searchFor = key.substring(separator + 1);
+    return new HotKey(key.substring(0, separator), searchFor.isEmpty() ? null : searchFor, count);
+  }
+
+}
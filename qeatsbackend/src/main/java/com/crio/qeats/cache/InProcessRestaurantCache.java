@@ -0,0 +1,135 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.globals.GlobalConstants;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process cache tier that sits in front of Redis.
+ * Entries are keyed exactly like their Redis counterparts, so both tiers can be populated
+ * (and flushed) together. Pinned keys live outside the size-bounded cache, so heavy hitters are
+ * never evicted by colder traffic; they still expire, unless refreshed before that.
+ */
+@Component
+public class InProcessRestaurantCache {
+
+  private static final long EXPIRY_IN_MILLIS =
+      TimeUnit.SECONDS.toMillis(GlobalConstants.LOCAL_CACHE_ENTRY_EXPIRY_IN_SECONDS);
+
+  private static final PinnedEntry EMPTY = new PinnedEntry(null, 0);
+
+  private final Cache<String, List<Restaurant>> cache = CacheBuilder.newBuilder()
+      .maximumSize(GlobalConstants.LOCAL_CACHE_MAX_ENTRIES)
+      .expireAfterWrite(GlobalConstants.LOCAL_CACHE_ENTRY_EXPIRY_IN_SECONDS, TimeUnit.SECONDS)
+      .build();
+
+  private final Map<String, PinnedEntry> pinned = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the cached list, or null if the key is not present. The list is shared and
+   * unmodifiable.
+   */
+  public List<Restaurant> get(String key) {
+    PinnedEntry entry = pinned.get(key);
+    List<Restaurant> restaurants = entry != null
+        ? entry.restaurantsIfFresh(System.currentTimeMillis()) : cache.getIfPresent(key);
+    return restaurants;
+  }
+
+  public void put(String key, List<Restaurant> restaurants) {
+    List<Restaurant> copy = Collections.unmodifiableList(new ArrayList<>(restaurants));
+    if (pinned.computeIfPresent(key,
+        (k, entry) -> new PinnedEntry(copy, System.currentTimeMillis())) == null) {
+      cache.put(key, copy);
+    }
+  }
+
+  /**
+   * Removes the key from the tier. A pinned key stays pinned, with no value.
+   */
+  public void invalidate(String key) {
+    cache.invalidate(key);
+    evictPinned(key);
+  }
+
+  /**
+   * Makes {@code keys} the set of pinned keys. Newly pinned keys keep their cached value, and
+   * unpinned ones go back to the size-bounded cache.
+   */
+  public void pin(Collection<String> keys) {
+    Set<String> keysToPin = new HashSet<>(keys);
+    for (String key : new ArrayList<>(pinned.keySet())) {
+      if (!keysToPin.contains(key)) {
+        PinnedEntry entry = pinned.remove(key);
+        if (entry != null && entry.restaurants != null) {
+          cache.put(key, entry.restaurants);
+        }
+      }
+    }
+    for (String key : keysToPin) {
+      pinned.computeIfAbsent(key, k -> {
+        List<Restaurant> restaurants = cache.getIfPresent(k);
+        cache.invalidate(k);
+        return restaurants == null ? EMPTY : new PinnedEntry(restaurants,
+            System.currentTimeMillis());
+      });
+    }
+  }
+
+  /**
+   * Returns the pinned keys that are missing, or that expire within {@code refreshAheadMillis}.
+   */
+  public Set<String> pinnedKeysDueForRefresh(long refreshAheadMillis) {
+    long refreshBefore = System.currentTimeMillis() + refreshAheadMillis - EXPIRY_IN_MILLIS;
+    return pinned.entrySet().stream()
+        .filter(e -> e.getValue().loadedAtMillis <= refreshBefore)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Drops the value of a pinned key, so that the next lookup reloads it; the key stays pinned.
+   */
+  public void evictPinned(String key) {
+    pinned.computeIfPresent(key, (k, entry) -> EMPTY);
+  }
+
+  public long size() {
+    return cache.size() + pinned.size();
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+    pinned.replaceAll((k, entry) -> EMPTY);
+  }
+
+  private static final class PinnedEntry {
+
+    private final List<Restaurant> restaurants;
+    private final long loadedAtMillis;
+
+    private PinnedEntry(List<Restaurant> restaurants, long loadedAtMillis) {
+      this.restaurants = restaurants;
+      this.loadedAtMillis = loadedAtMillis;
+    }
+
+    private List<Restaurant> restaurantsIfFresh(long nowMillis) {
+      return nowMillis - loadedAtMillis < EXPIRY_IN_MILLIS ? restaurants : null;
+    }
+
+  }
+
+}
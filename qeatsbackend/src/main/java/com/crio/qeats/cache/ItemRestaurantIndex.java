@@ -0,0 +1,262 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.models.MenuEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inverted index from the item ids of the menus to the restaurants serving them, so that item
+ * searches never load menu documents. Restaurants are numbered densely and every item maps to a
+ * sorted int array of restaurant numbers, which is replaced, never modified, on every change.
+ * Lookups are lock-free. The index is built once the application is ready and reports
+ * OUT_OF_SERVICE until then. Menus saved or deleted through this service update the index right
+ * away; it is also rebuilt from the menus collection periodically, for changes made elsewhere.
+ */
+@Component
+@Log4j2
+public class ItemRestaurantIndex implements HealthIndicator {
+
+  private static final int[] NO_RESTAURANTS = new int[0];
+  private static final String[] NO_ITEMS = new String[0];
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  private final Object rebuildLock = new Object();
+
+  private volatile Index index;
+
+  // Changes made while a rebuild scans the menus, replayed onto the rebuilt index before it is
+  // swapped in. Guarded by this.
+  private Map<String, Set<String>> pendingChanges;
+
+  /**
+   * Returns the restaurant ids of the menus containing any of the items, each once. Never waits
+   * for the index to be built; fails instead if it has not been yet.
+   */
+  public List<String> findRestaurantIds(Collection<String> itemIds) {
+    Index current = index;
+    if (current == null) {
+      throw new IllegalStateException("The item index has not been built yet");
+    }
+
+    BitSet restaurants = new BitSet();
+    for (String itemId : itemIds) {
+      for (int restaurant : current.restaurantsByItem.getOrDefault(itemId, NO_RESTAURANTS)) {
+        restaurants.set(restaurant);
+      }
+    }
+
+    // Read after the arrays, so every restaurant number found above is already in there.
+    String[] restaurantIds = current.restaurantIds;
+    List<String> found = new ArrayList<>(restaurants.cardinality());
+    for (int restaurant = restaurants.nextSetBit(0); restaurant >= 0;
+        restaurant = restaurants.nextSetBit(restaurant + 1)) {
+      found.add(restaurantIds[restaurant]);
+    }
+    return found;
+  }
+
+  /**
+   * Replaces the items indexed for the menu's restaurant with those of the menu. Never waits for
+   * a rebuild; a change made during one is also applied to the rebuilt index.
+   */
+  public void update(MenuEntity menuEntity) {
+    apply(menuEntity.getRestaurantId(), itemIdsOf(menuEntity));
+  }
+
+  public void remove(String restaurantId) {
+    apply(restaurantId, Collections.emptySet());
+  }
+
+  private synchronized void apply(String restaurantId, Set<String> itemIds) {
+    if (index != null) {
+      index.put(restaurantId, itemIds);
+    }
+    if (pendingChanges != null) {
+      pendingChanges.put(restaurantId, itemIds);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    rebuild();
+  }
+
+  /**
+   * Rebuilds the index from the menus collection into a new one, which is swapped in once the
+   * scan is over. Neither lookups nor updates wait for the scan.
+   */
+  @Scheduled(fixedDelayString = "${qeats.index.items.rebuild-interval-ms:600000}",
+      initialDelayString = "${qeats.index.items.rebuild-interval-ms:600000}")
+  public void rebuild() {
+    Query query = new Query();
+    query.fields().include("restaurantId").include("items.itemId");
+    try (CloseableIterator<MenuEntity> menuEntities =
+        mongoTemplate.stream(query, MenuEntity.class)) {
+      rebuild(menuEntities);
+    } catch (DataAccessException e) {
+      log.warn("Failed to rebuild the item index, keeping the previous one", e);
+    }
+  }
+
+  void rebuild(Iterator<MenuEntity> menuEntities) {
+    synchronized (rebuildLock) {
+      startRecordingChanges();
+      Index rebuilt = null;
+      try {
+        Index scanned = new Index();
+        while (menuEntities.hasNext()) {
+          MenuEntity menuEntity = menuEntities.next();
+          scanned.put(menuEntity.getRestaurantId(), itemIdsOf(menuEntity));
+        }
+        rebuilt = scanned;
+      } finally {
+        swapIn(rebuilt);
+      }
+      log.info("Indexed {} items of {} restaurants", rebuilt.restaurantsByItem.size(),
+          rebuilt.restaurantCount);
+    }
+  }
+
+  private synchronized void startRecordingChanges() {
+    pendingChanges = new HashMap<>();
+  }
+
+  // A null index means the scan failed, and the current index stays.
+  private synchronized void swapIn(Index rebuilt) {
+    if (rebuilt != null) {
+      pendingChanges.forEach(rebuilt::put);
+      index = rebuilt;
+    }
+    pendingChanges = null;
+  }
+
+  @Override
+  public Health health() {
+    Index current = index;
+    if (current == null) {
+      return Health.outOfService().build();
+    }
+    return Health.up()
+        .withDetail("items", current.restaurantsByItem.size())
+        .withDetail("restaurants", current.restaurantCount)
+        .build();
+  }
+
+  private static Set<String> itemIdsOf(MenuEntity menuEntity) {
+    Set<String> itemIds = new HashSet<>();
+    if (menuEntity.getItems() != null) {
+      for (Item item : menuEntity.getItems()) {
+        if (item.getItemId() != null) {
+          itemIds.add(item.getItemId());
+        }
+      }
+    }
+    return itemIds;
+  }
+
+  // Written only by the rebuild that creates it, then only under the monitor of the enclosing
+  // index once swapped in; read concurrently.
+  private static final class Index {
+
+    private final Map<String, int[]> restaurantsByItem = new ConcurrentHashMap<>();
+    private final Map<String, Integer> restaurantNumbers = new HashMap<>();
+    private final Map<Integer, String[]> itemsByRestaurant = new HashMap<>();
+    private volatile String[] restaurantIds = new String[64];
+    private int restaurantCount;
+
+    private void put(String restaurantId, Set<String> itemIds) {
+      int restaurant = numberOf(restaurantId);
+      String[] previousItemIds = itemsByRestaurant.getOrDefault(restaurant, NO_ITEMS);
+      for (String itemId : previousItemIds) {
+        if (!itemIds.contains(itemId)) {
+          removeRestaurant(itemId, restaurant);
+        }
+      }
+      Set<String> previous = new HashSet<>(Arrays.asList(previousItemIds));
+      for (String itemId : itemIds) {
+        if (!previous.contains(itemId)) {
+          addRestaurant(itemId, restaurant);
+        }
+      }
+      itemsByRestaurant.put(restaurant, itemIds.toArray(NO_ITEMS));
+    }
+
+    // Numbers are never reused, so a restaurant that comes back keeps its number.
+    private int numberOf(String restaurantId) {
+      Integer restaurant = restaurantNumbers.get(restaurantId);
+      if (restaurant != null) {
+        return restaurant;
+      }
+
+      restaurant = restaurantCount++;
+      String[] ids = restaurantIds;
+      if (restaurant == ids.length) {
+        ids = Arrays.copyOf(ids, ids.length * 2);
+      }
+      ids[restaurant] = restaurantId;
+      restaurantIds = ids;
+      restaurantNumbers.put(restaurantId, restaurant);
+      return restaurant;
+    }
+
+    private void addRestaurant(String itemId, int restaurant) {
+      int[] restaurants = restaurantsByItem.getOrDefault(itemId, NO_RESTAURANTS);
+      int position = Arrays.binarySearch(restaurants, restaurant);
+      if (position >= 0) {
+        return;
+      }
+      position = -position - 1;
+      int[] updated = new int[restaurants.length + 1];
+      System.arraycopy(restaurants, 0, updated, 0, position);
+      updated[position] = restaurant;
+      System.arraycopy(restaurants, position, updated, position + 1,
+          restaurants.length - position);
+      restaurantsByItem.put(itemId, updated);
+    }
+
+    private void removeRestaurant(String itemId, int restaurant) {
+      int[] restaurants = restaurantsByItem.getOrDefault(itemId, NO_RESTAURANTS);
+      int position = Arrays.binarySearch(restaurants, restaurant);
+      if (position < 0) {
+        return;
+      }
+      if (restaurants.length == 1) {
+        restaurantsByItem.remove(itemId);
+        return;
+      }
+      int[] updated = new int[restaurants.length - 1];
+      System.arraycopy(restaurants, 0, updated, 0, position);
+      System.arraycopy(restaurants, position + 1, updated, position,
+          restaurants.length - position - 1);
+      restaurantsByItem.put(itemId, updated);
+    }
+
+  }
+
+}
@@ -0,0 +1,17 @@
+
+package com.crio.qeats.cache;
+
+import lombok.Value;
+
+// A serialized response body together with its ETag and, for large bodies, its gzipped form.
+@Value
+public class MaterializedResponse {
+
+  byte[] body;
+
+  // Null when the body is below the compression threshold.
+  byte[] gzippedBody;
+
+  String etag;
+
+}
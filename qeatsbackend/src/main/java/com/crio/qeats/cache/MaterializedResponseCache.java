@@ -0,0 +1,149 @@
+
+package com.crio.qeats.cache;
+
+import ch.hsr.geohash.GeoHash;
+import ch.hsr.geohash.WGS84Point;
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.services.RestaurantService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized close-by responses for the busiest cells, ready to be written out as-is.
+ * A response only changes at the boundaries of the {@link ValidityWindows}, so all of them stay
+ * valid until the next one. Right after a boundary the hot cells are evicted from both cache
+ * tiers and materialized again. Bodies above the compression threshold are also kept gzipped,
+ * so they are never compressed per request.
+ */
+@Component
+@Log4j2
+public class MaterializedResponseCache {
+
+  @Autowired
+  private HotKeyRecorder hotKeyRecorder;
+
+  @Autowired
+  private RestaurantService restaurantService;
+
+  @Autowired
+  private RestaurantCacheInvalidator restaurantCacheInvalidator;
+
+  @Autowired
+  private ValidityWindows validityWindows;
+
+  @Autowired
+  private RestaurantJsonFragments restaurantJsonFragments;
+
+  @Value("${qeats.cache.hotkeys.limit:500}")
+  private int hotKeysLimit;
+
+  @Value("${qeats.cache.materialized.cells:300}")
+  private int materializedCells;
+
+  // Same threshold as for the responses compressed on the fly by the servlet container.
+  @Value("${server.compression.min-response-size:2048}")
+  private int gzipMinBytes;
+
+  private volatile Map<String, MaterializedResponse> responses = Collections.emptyMap();
+  private volatile long validUntilMillis;
+
+  /**
+   * Returns the response for requests without a search term in the given cell, or null if the
+   * cell is not materialized for the current minute.
+   */
+  public MaterializedResponse get(String cell) {
+    if (System.currentTimeMillis() >= validUntilMillis) {
+      return null;
+    }
+    return responses.get(cell);
+  }
+
+  /**
+   * Runs at the start of every minute, which is the granularity of opening times and of the
+   * peak-hour switches. Everything is recomputed once a boundary has been crossed; otherwise
+   * only cells that just became hot are added.
+   */
+  @Scheduled(cron = "${qeats.cache.materialized.cron:0 * * * * *}")
+  public void refresh() {
+    List<String> hotCells = hotKeyRecorder.topKeys(hotKeysLimit).stream()
+        .filter(hotKey -> hotKey.getSearchFor() == null)
+        .map(HotKey::getCell)
+        .limit(materializedCells)
+        .collect(Collectors.toList());
+    if (hotCells.isEmpty()) {
+      responses = Collections.emptyMap();
+      return;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    boolean boundaryCrossed = System.currentTimeMillis() >= validUntilMillis;
+    if (boundaryCrossed) {
+      restaurantCacheInvalidator.invalidate(hotCells.stream()
+          .map(RestaurantCacheKeys::closeBy)
+          .collect(Collectors.toList()));
+    }
+
+    Map<String, MaterializedResponse> current =
+        boundaryCrossed ? Collections.emptyMap() : responses;
+    Map<String, MaterializedResponse> next = new HashMap<>();
+    for (String cell : hotCells) {
+      MaterializedResponse response = current.get(cell);
+      if (response == null) {
+        response = materialize(cell, now.toLocalTime());
+      }
+      if (response != null) {
+        next.put(cell, response);
+      }
+    }
+
+    // Readers check validity first, so publish the responses before the new deadline.
+    responses = next;
+    if (boundaryCrossed) {
+      validityWindows.reload();
+      validUntilMillis = validityWindows.nextBoundaryMillis(now);
+      log.info("Materialized {} responses, valid until {}", next.size(),
+          Instant.ofEpochMilli(validUntilMillis));
+    }
+  }
+
+  private MaterializedResponse materialize(String cell, LocalTime currentTime) {
+    WGS84Point center = GeoHash.fromGeohashString(cell).getBoundingBoxCenterPoint();
+    try {
+      GetRestaurantsResponse response = restaurantService.findAllRestaurantsCloseBy(
+          new GetRestaurantsRequest(center.getLatitude(), center.getLongitude()), currentTime);
+      byte[] body = restaurantJsonFragments.toBytes(response);
+      return new MaterializedResponse(body, body.length >= gzipMinBytes ? gzip(body) : null,
+          restaurantJsonFragments.etag(response));
+    } catch (RuntimeException e) {
+      log.warn("Failed to materialize response for cell {}", cell, e);
+      return null;
+    }
+  }
+
+  private static byte[] gzip(byte[] body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+}
@@ -0,0 +1,98 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.configs.RedisConfiguration;
+import com.crio.qeats.globals.GlobalConstants;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Serialized menu responses, per restaurant, in an in-process tier in front of Redis.
+ * The bytes are written out as-is, so a hit costs neither a Mongo read nor Jackson. Redis errors
+ * count as misses.
+ */
+@Component
+@Log4j2
+public class MenuCache {
+
+  private static final String KEY_PREFIX = "menu:";
+
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  private final Cache<String, byte[]> cache = CacheBuilder.newBuilder()
+      .maximumSize(GlobalConstants.LOCAL_CACHE_MAX_ENTRIES)
+      .expireAfterWrite(GlobalConstants.LOCAL_CACHE_ENTRY_EXPIRY_IN_SECONDS, TimeUnit.SECONDS)
+      .build();
+
+  /**
+   * Returns the cached bytes of the restaurant's menu, loading and caching them on a miss.
+   * The returned array must not be modified. Null loads are not cached.
+   */
+  public byte[] get(String restaurantId, Supplier<byte[]> loader) {
+    String key = key(restaurantId);
+    byte[] json = cache.getIfPresent(key);
+    if (json != null) {
+      return json;
+    }
+
+    boolean redisAvailable = redisConfiguration.isCacheAvailable();
+    if (redisAvailable) {
+      json = readFromRedis(key);
+    }
+    if (json == null) {
+      json = loader.get();
+      if (json == null) {
+        return null;
+      }
+      if (redisAvailable) {
+        writeToRedis(key, json);
+      }
+    }
+    cache.put(key, json);
+    return json;
+  }
+
+  public void invalidate(String restaurantId) {
+    String key = key(restaurantId);
+    cache.invalidate(key);
+    if (redisConfiguration.isCacheAvailable()) {
+      try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+        jedis.del(key);
+      } catch (JedisException e) {
+        log.warn("Failed to invalidate {} in Redis", key, e);
+      }
+    }
+  }
+
+  private byte[] readFromRedis(String key) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      return jedis.get(key.getBytes(StandardCharsets.UTF_8));
+    } catch (JedisException e) {
+      log.warn("Failed to read {} from Redis", key, e);
+      return null;
+    }
+  }
+
+  private void writeToRedis(String key, byte[] json) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      jedis.setex(key.getBytes(StandardCharsets.UTF_8),
+          GlobalConstants.REDIS_ENTRY_EXPIRY_IN_SECONDS, json);
+    } catch (JedisException e) {
+      log.warn("Failed to write {} to Redis", key, e);
+    }
+  }
+
+  private static String key(String restaurantId) {
+    return KEY_PREFIX + restaurantId;
+  }
+
+}
@@ -0,0 +1,48 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.models.MenuEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the cached menu of a restaurant, and reindexes its items, whenever its menu is saved or
+ * deleted through this service. Other restaurants' menus stay cached.
+ */
+@Component
+public class MenuChangeListener extends AbstractMongoEventListener<MenuEntity> {
+
+  @Autowired
+  private MenuCache menuCache;
+
+  @Autowired
+  private ItemRestaurantIndex itemRestaurantIndex;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Override
+  public void onAfterSave(AfterSaveEvent<MenuEntity> event) {
+    menuCache.invalidate(event.getSource().getRestaurantId());
+    itemRestaurantIndex.update(event.getSource());
+  }
+
+  // Delete events only carry the query, so the restaurants are looked up before the documents
+  // are gone.
+  @Override
+  public void onBeforeDelete(BeforeDeleteEvent<MenuEntity> event) {
+    Query query = new BasicQuery(event.getSource());
+    query.fields().include("restaurantId");
+    for (MenuEntity menuEntity : mongoTemplate.find(query, MenuEntity.class)) {
+      menuCache.invalidate(menuEntity.getRestaurantId());
+      itemRestaurantIndex.remove(menuEntity.getRestaurantId());
+    }
+  }
+
+}
@@ -0,0 +1,28 @@
+package com.crio.qeats.cache;
+
+/**
+ * Redis keys of what is kept about orders.
+ */
+public class OrderCacheKeys {
+
+  // Hash of the number of orders placed per restaurant.
+  public static final String RESTAURANT_ORDER_COUNTS = "orders:count:restaurant";
+
+  private OrderCacheKeys() { /* constants */ }
+
+  // Marks an order as counted in RESTAURANT_ORDER_COUNTS.
+  public static String counted(String orderId) {
+    return "orders:counted:" + orderId;
+  }
+
+  // The cached order history of a user. Tagged, so that it shares a slot with its generation.
+  public static String history(String userId) {
+    return "orders:user:{" + userId + "}";
+  }
+
+  // Bumped whenever the cached order history of the user is dropped.
+  public static String historyGeneration(String userId) {
+    return history(userId) + ":generation";
+  }
+
+}
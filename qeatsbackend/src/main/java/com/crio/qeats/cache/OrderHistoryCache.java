@@ -0,0 +1,116 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.configs.RedisConfiguration;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.utils.RedisScript;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Serialized first pages of order histories, in one Redis hash per user with a field per page
+ * size, so that a new order drops all of them with a single DEL. Later pages are not cached:
+ * they are read far less often, and cost the same as a first page anyway. There is no
+ * in-process tier, since an entry must go away on every instance as soon as the user orders.
+ * Every invalidation also bumps a generation per user, and a page is only cached if the
+ * generation did not change while it was read, so that a page read before an order is never
+ * cached after the order dropped the history. Redis errors count as misses.
+ */
+@Component
+@Log4j2
+public class OrderHistoryCache {
+
+  private static final RedisScript PUT = RedisScript.fromResources("redis/order_history_put.lua");
+
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  /**
+   * Returns the cached bytes of the first page of the user's history, or null if not cached.
+   */
+  public byte[] get(String userId, int limit) {
+    if (!redisConfiguration.isCacheAvailable()) {
+      return null;
+    }
+
+    String key = OrderCacheKeys.history(userId);
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      return jedis.hget(bytes(key), bytes(String.valueOf(limit)));
+    } catch (JedisException e) {
+      log.warn("Failed to read {} from Redis", key, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the generation of the user's history, to be read before the history itself and
+   * handed to {@link #put}, or null if it cannot be read, in which case nothing is cached.
+   */
+  public String generation(String userId) {
+    if (!redisConfiguration.isCacheAvailable()) {
+      return null;
+    }
+
+    String key = OrderCacheKeys.historyGeneration(userId);
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      String generation = jedis.get(key);
+      return generation == null ? "0" : generation;
+    } catch (JedisException e) {
+      log.warn("Failed to read {} from Redis", key, e);
+      return null;
+    }
+  }
+
+  /**
+   * Caches the first page of the user's history, unless the history was invalidated after the
+   * given generation was read.
+   */
+  public void put(String userId, int limit, byte[] json, String generation) {
+    if (generation == null || !redisConfiguration.isCacheAvailable()) {
+      return;
+    }
+
+    String key = OrderCacheKeys.history(userId);
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      PUT.eval(jedis, Arrays.asList(key, OrderCacheKeys.historyGeneration(userId)),
+          Arrays.asList(generation, String.valueOf(limit),
+              new String(json, StandardCharsets.UTF_8),
+              String.valueOf(GlobalConstants.REDIS_ENTRY_EXPIRY_IN_SECONDS)));
+    } catch (JedisException e) {
+      log.warn("Failed to write {} to Redis", key, e);
+    }
+  }
+
+  // The generation is bumped before the history is dropped, so a page read in between is not
+  // cached either.
+  public void invalidate(Collection<String> userIds) {
+    if (userIds.isEmpty() || !redisConfiguration.isCacheAvailable()) {
+      return;
+    }
+
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      Pipeline pipeline = jedis.pipelined();
+      for (String userId : userIds) {
+        String generation = OrderCacheKeys.historyGeneration(userId);
+        pipeline.incr(generation);
+        pipeline.expire(generation, GlobalConstants.REDIS_ENTRY_EXPIRY_IN_SECONDS);
+        pipeline.del(OrderCacheKeys.history(userId));
+      }
+      pipeline.sync();
+    } catch (JedisException e) {
+      log.warn("Failed to invalidate the order histories of {} in Redis", userIds, e);
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,53 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.crio.qeats.globals.GlobalConstants;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * The last ETag sent for each /restaurants request, so that a matching If-None-Match can be
+ * answered before the response is computed.
+ * The key includes the minute, since which restaurants are open changes with it. Entries expire
+ * with the in-process tier the responses are read from, so they are never staler than it is.
+ * Restaurants changed through this service drop every entry.
+ */
+@Component
+public class ResponseEtagCache {
+
+  private final Cache<String, String> etags = CacheBuilder.newBuilder()
+      .maximumSize(GlobalConstants.LOCAL_CACHE_MAX_ENTRIES)
+      .expireAfterWrite(GlobalConstants.LOCAL_CACHE_ENTRY_EXPIRY_IN_SECONDS, TimeUnit.SECONDS)
+      .build();
+
+  /**
+   * Returns the key of the request, for responses in the given representation at the time.
+   */
+  public static String key(GetRestaurantsRequest request, String representation,
+      LocalTime currentTime) {
+    return String.join("|", String.valueOf(request.getLatitude()),
+        String.valueOf(request.getLongitude()), String.valueOf(request.getSearchFor()),
+        String.valueOf(request.getFields()), representation,
+        String.valueOf(currentTime.getHour() * 60 + currentTime.getMinute()));
+  }
+
+  /**
+   * Returns the ETag last sent for the key, or null.
+   */
+  public String get(String key) {
+    return etags.getIfPresent(key);
+  }
+
+  public void put(String key, String etag) {
+    etags.put(key, etag);
+  }
+
+  public void invalidateAll() {
+    etags.invalidateAll();
+  }
+
+}
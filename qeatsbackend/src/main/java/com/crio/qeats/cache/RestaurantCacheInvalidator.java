@@ -0,0 +1,40 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.configs.RedisConfiguration;
+import java.util.Collection;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Drops entries from both cache tiers, so that the next lookup reloads them from the database.
+ */
+@Component
+@Log4j2
+public class RestaurantCacheInvalidator {
+
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  @Autowired
+  private InProcessRestaurantCache inProcessRestaurantCache;
+
+  public void invalidate(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    keys.forEach(inProcessRestaurantCache::invalidate);
+    if (redisConfiguration.isCacheAvailable()) {
+      try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+        jedis.del(keys.toArray(new String[0]));
+      } catch (JedisException e) {
+        log.warn("Failed to invalidate {} in Redis", keys, e);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,71 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.dto.RestaurantField;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keys under which restaurant lists are stored in both cache tiers.
+ */
+public class RestaurantCacheKeys {
+
+  public static final String NAME = "name";
+  public static final String ATTRIBUTES = "attributes";
+  public static final String ITEM_NAME = "itemName";
+  public static final String ITEM_ATTRIBUTES = "itemAttributes";
+
+  private static final List<String> SEARCH_BRANCHES =
+      Arrays.asList(NAME, ATTRIBUTES, ITEM_NAME, ITEM_ATTRIBUTES);
+
+  private RestaurantCacheKeys() { /* constants */ }
+
+  public static String closeBy(String cell) {
+    return cell;
+  }
+
+  // Projected lists are stored apart from the full ones, one entry per distinct field set.
+  public static String closeBy(String cell, Set<RestaurantField> fields) {
+    return cell + ":fields:" + RestaurantField.format(fields);
+  }
+
+  // Everything open within the serving radius of any point of the cell, for batches.
+  public static String closeToCell(String cell, String window) {
+    return cell + ":cell:" + window;
+  }
+
+  /**
+   * Search results depend on the time of the request, so they are kept per validity window
+   * (see {@link ValidityWindows#windowOf}), within which they cannot change.
+   */
+  public static String search(String cell, String branch, String searchFor, String window) {
+    return cell + ":" + branch + ":" + searchFor.trim().toLowerCase() + ":" + window;
+  }
+
+  /**
+   * Returns every cache key that serving the given hot key in the given window fills.
+   */
+  public static List<String> forHotKey(HotKey hotKey, String window) {
+    return forRequest(hotKey.getCell(), hotKey.getSearchFor(), null, window);
+  }
+
+  /**
+   * Returns every cache key that serving a request for the given cell, (nullable) search term
+   * and (nullable) field projection in the given window reads.
+   */
+  public static List<String> forRequest(String cell, String searchFor,
+      Set<RestaurantField> fields, String window) {
+    List<String> keys = new ArrayList<>();
+    if (searchFor == null || searchFor.isEmpty()) {
+      keys.add(fields == null ? closeBy(cell) : closeBy(cell, fields));
+    } else {
+      for (String branch : SEARCH_BRANCHES) {
+        keys.add(search(cell, branch, searchFor, window));
+      }
+    }
+    return keys;
+  }
+
+}
@@ -0,0 +1,51 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.configs.RedisConfiguration;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * Tells whether a request can be answered from the cache tiers alone, so that it can be kept
+ * off the database bulkhead.
+ */
+@Component
+@Log4j2
+public class RestaurantCacheProbe {
+
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  @Autowired
+  private InProcessRestaurantCache inProcessRestaurantCache;
+
+  /**
+   * Returns whether every one of the keys is present in one of the tiers. Errors count as a
+   * miss, which only costs the request its place on the cheaper bulkhead. A request that reads
+   * no keys goes to the database, so it never counts as cached.
+   */
+  public boolean isCached(List<String> keys) {
+    if (keys.isEmpty()) {
+      return false;
+    }
+    if (keys.stream().allMatch(key -> inProcessRestaurantCache.get(key) != null)) {
+      return true;
+    }
+
+    JedisPool jedisPool = redisConfiguration.getJedisPool();
+    if (jedisPool == null) {
+      return false;
+    }
+    try (Jedis jedis = jedisPool.getResource()) {
+      return jedis.exists(keys.toArray(new String[0])) == keys.size();
+    } catch (RuntimeException e) {
+      log.warn("Failed to probe the cache for {}", keys, e);
+      return false;
+    }
+  }
+
+}
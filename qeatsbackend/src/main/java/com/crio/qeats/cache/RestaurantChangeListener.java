@@ -0,0 +1,47 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.models.RestaurantEntity;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the JSON fragment of a restaurant, and the ETags of the responses that may list it,
+ * whenever it is saved or deleted through this service. Its opening times may have changed too,
+ * so the validity windows are reloaded.
+ */
+@Component
+public class RestaurantChangeListener extends AbstractMongoEventListener<RestaurantEntity> {
+
+  @Autowired
+  private RestaurantJsonFragments restaurantJsonFragments;
+
+  @Autowired
+  private ResponseEtagCache responseEtagCache;
+
+  @Autowired
+  private ValidityWindows validityWindows;
+
+  @Override
+  public void onAfterSave(AfterSaveEvent<RestaurantEntity> event) {
+    restaurantJsonFragments.invalidate(event.getSource().getRestaurantId());
+    responseEtagCache.invalidateAll();
+    validityWindows.reload();
+  }
+
+  @Override
+  public void onAfterDelete(AfterDeleteEvent<RestaurantEntity> event) {
+    Document deleted = event.getSource();
+    Object id = deleted.get("_id");
+    if (id != null) {
+      restaurantJsonFragments.invalidateById(id.toString());
+    }
+    responseEtagCache.invalidateAll();
+    validityWindows.reload();
+  }
+
+}
@@ -0,0 +1,181 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.exchanges.ProjectedRestaurantsResponse;
+import com.crio.qeats.globals.GlobalConstants;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized JSON of every restaurant, kept as immutable byte fragments.
+ * A {@link GetRestaurantsResponse} is written by copying the fragments of its restaurants between
+ * a fixed prefix and suffix, so Jackson only runs when a restaurant is seen for the first time or
+ * after it changed. Each fragment also carries a hash of its bytes, from which the ETag of a
+ * response is derived without serializing it. Fragments are kept for up to
+ * {@link GlobalConstants#JSON_FRAGMENTS_MAX_ENTRIES} restaurants, the least recently used
+ * dropped first.
+ */
+@Component
+public class RestaurantJsonFragments {
+
+  private static final byte[] RESPONSE_PREFIX =
+      "{\"restaurants\":[".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] RESPONSE_SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] NULL_RESPONSE =
+      "{\"restaurants\":null}".getBytes(StandardCharsets.UTF_8);
+  private static final int SEPARATOR = ',';
+  private static final HashFunction FRAGMENT_HASH = Hashing.murmur3_128();
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Cache<String, Fragment> fragments = CacheBuilder.newBuilder()
+      .maximumSize(GlobalConstants.JSON_FRAGMENTS_MAX_ENTRIES)
+      .build();
+
+  /**
+   * Returns the serialized JSON of the restaurant. The returned array must not be modified.
+   */
+  public byte[] fragment(Restaurant restaurant) {
+    return fragmentOf(restaurant).json;
+  }
+
+  /**
+   * Returns a strong ETag for the response, which changes whenever the JSON written by
+   * {@link #writeResponse} would.
+   */
+  public String etag(GetRestaurantsResponse response) {
+    List<Restaurant> restaurants = response.getRestaurants();
+    if (restaurants == null) {
+      return "\"null\"";
+    }
+
+    long hash = restaurants.size();
+    if (response instanceof ProjectedRestaurantsResponse) {
+      // Projected restaurants have no fragments; their value hashes cover the same content.
+      hash = hash * HASH_MULTIPLIER
+          + RestaurantField.format(((ProjectedRestaurantsResponse) response).getFields())
+              .hashCode();
+      for (Restaurant restaurant : restaurants) {
+        hash = hash * HASH_MULTIPLIER + restaurant.hashCode();
+      }
+    } else {
+      for (Restaurant restaurant : restaurants) {
+        hash = hash * HASH_MULTIPLIER + fragmentOf(restaurant).hash;
+      }
+    }
+    return "\"" + Long.toHexString(hash) + "\"";
+  }
+
+  /**
+   * Writes the response as JSON, byte-identical to what Jackson would produce for it.
+   */
+  public void writeResponse(GetRestaurantsResponse response, OutputStream out) throws IOException {
+    List<Restaurant> restaurants = response.getRestaurants();
+    if (restaurants == null) {
+      out.write(NULL_RESPONSE);
+      return;
+    }
+
+    out.write(RESPONSE_PREFIX);
+    for (int i = 0; i < restaurants.size(); i++) {
+      if (i > 0) {
+        out.write(SEPARATOR);
+      }
+      out.write(fragment(restaurants.get(i)));
+    }
+    out.write(RESPONSE_SUFFIX);
+  }
+
+  public byte[] toBytes(GetRestaurantsResponse response) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writeResponse(response, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  public void invalidate(String restaurantId) {
+    fragments.invalidate(restaurantId);
+  }
+
+  /**
+   * Drops the fragment of the restaurant stored under the given Mongo id.
+   */
+  public void invalidateById(String id) {
+    fragments.asMap().values().removeIf(fragment -> id.equals(fragment.source.getId()));
+  }
+
+  private Fragment fragmentOf(Restaurant restaurant) {
+    String restaurantId = restaurant.getRestaurantId();
+    if (restaurantId == null) {
+      return new Fragment(restaurant, serialize(restaurant));
+    }
+
+    Fragment fragment = fragments.getIfPresent(restaurantId);
+    if (fragment != null && fragment.source == restaurant) {
+      return fragment;
+    }
+    if (fragment != null && fragment.isOf(restaurant)) {
+      // Later lookups of this snapshot then match by identity alone.
+      fragment = fragment.withSource(restaurant);
+    } else {
+      fragment = new Fragment(restaurant, serialize(restaurant));
+    }
+    fragments.put(restaurantId, fragment);
+    return fragment;
+  }
+
+  private byte[] serialize(Restaurant restaurant) {
+    try {
+      return objectMapper.writeValueAsBytes(restaurant);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static final class Fragment {
+
+    private final Restaurant source;
+    private final byte[] json;
+    private final long hash;
+
+    private Fragment(Restaurant source, byte[] json) {
+      this(source, json, FRAGMENT_HASH.hashBytes(json).asLong());
+    }
+
+    private Fragment(Restaurant source, byte[] json, long hash) {
+      this.source = source;
+      this.json = json;
+      this.hash = hash;
+    }
+
+    private Fragment withSource(Restaurant restaurant) {
+      return new Fragment(restaurant, json, hash);
+    }
+
+    // Cached snapshots are shared, so only fresh reads from Redis or the database get here. The
+    // hashes are computed once per snapshot, and fields are only compared when they match.
+    private boolean isOf(Restaurant restaurant) {
+      return source.contentHash() == restaurant.contentHash() && source.equals(restaurant);
+    }
+
+  }
+
+}
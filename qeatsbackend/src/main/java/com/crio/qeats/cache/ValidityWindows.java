@@ -0,0 +1,103 @@
+
+package com.crio.qeats.cache;
+
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.services.RestaurantServiceImpl;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits the day at every minute where some response may change: a restaurant opens or closes,
+ * or the serving radius switches between peak and normal hours. Within one window the open
+ * restaurants and the radius are fixed, so results keyed by their window stay valid for all of
+ * it. Until the opening times have been loaded, only the peak-hour switches are known.
+ */
+@Component
+@Log4j2
+public class ValidityWindows {
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  private static final NavigableSet<LocalTime> PEAK_HOUR_SWITCHES = peakHourSwitches();
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  private volatile NavigableSet<LocalTime> boundaries = PEAK_HOUR_SWITCHES;
+
+  /**
+   * Returns the window the time falls in, as the radius tier and the boundary it started at,
+   * e.g. "peak@19:00".
+   */
+  public String windowOf(LocalTime time) {
+    NavigableSet<LocalTime> current = boundaries;
+    LocalTime start = current.floor(time);
+    if (start == null) {
+      // Before the first boundary of the day, still in the last window of the previous one.
+      start = current.last();
+    }
+    return (RestaurantServiceImpl.isPeakHour(time) ? "peak" : "normal") + "@" + start;
+  }
+
+  /**
+   * Returns the epoch millis of the first boundary after now.
+   */
+  public long nextBoundaryMillis(LocalDateTime now) {
+    NavigableSet<LocalTime> current = boundaries;
+    LocalTime next = current.higher(now.toLocalTime());
+    LocalDateTime nextBoundary = next != null
+        ? now.toLocalDate().atTime(next)
+        : now.toLocalDate().plusDays(1).atTime(current.first());
+    return nextBoundary.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Reads the distinct opening and closing times again. Runs once the application is up, at
+   * every boundary, and whenever a restaurant is saved or deleted through this service.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void reload() {
+    NavigableSet<LocalTime> loaded = new TreeSet<>(PEAK_HOUR_SWITCHES);
+    try {
+      for (String field : new String[] {"opensAt", "closesAt"}) {
+        for (String time : mongoTemplate.findDistinct(new Query(), field,
+            RestaurantEntity.class, String.class)) {
+          try {
+            loaded.add(LocalTime.parse(time));
+          } catch (DateTimeParseException e) {
+            log.warn("Ignoring malformed {} {}", field, time);
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to load opening times, keeping the previous windows", e);
+      return;
+    }
+    boundaries = Collections.unmodifiableNavigableSet(loaded);
+  }
+
+  private static NavigableSet<LocalTime> peakHourSwitches() {
+    NavigableSet<LocalTime> switches = new TreeSet<>();
+    for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+      LocalTime time = LocalTime.MIN.plusMinutes(minute);
+      if (RestaurantServiceImpl.isPeakHour(time)
+          != RestaurantServiceImpl.isPeakHour(time.minusMinutes(1))) {
+        switches.add(time);
+      }
+    }
+    return Collections.unmodifiableNavigableSet(switches);
+  }
+
+}
@@ -0,0 +1,34 @@
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.BatchLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+// Restaurants looked up by id from concurrent requests share one $in query per batch.
+@Configuration
+public class BatchLoaderConfiguration {
+
+  @Bean(destroyMethod = "shutdown")
+  public BatchLoader<String, RestaurantEntity> restaurantEntityLoader(MongoTemplate mongoTemplate,
+      @Qualifier("batchLoaderExecutor") ExecutorService batchLoaderExecutor,
+      MeterRegistry meterRegistry,
+      @Value("${qeats.batchloader.restaurants.max-wait-micros:200}") long maxWaitMicros,
+      @Value("${qeats.batchloader.restaurants.max-batch-size:2000}") int maxBatchSize) {
+    return new BatchLoader<>("restaurants",
+        ids -> mongoTemplate.find(new Query(Criteria.where("id").in(ids)),
+            RestaurantEntity.class),
+        RestaurantEntity::getId, TimeUnit.MICROSECONDS.toNanos(maxWaitMicros), maxBatchSize,
+        batchLoaderExecutor, meterRegistry);
+  }
+
+}
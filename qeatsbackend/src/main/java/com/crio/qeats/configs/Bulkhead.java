@@ -0,0 +1,189 @@
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.exceptions.BulkheadUnavailableException;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A bounded executor that isolates one kind of work from the others. Work is rejected once the
+ * bulkhead is full and abandoned once it exceeds its timeout; either way the returned future
+ * fails with a {@link BulkheadUnavailableException}. Abandoned work that is still running has its
+ * thread interrupted, so that it can stop early.
+ */
+public class Bulkhead {
+
+  private final String name;
+  private final Executor executor;
+  private final long timeoutMillis;
+  private final ScheduledThreadPoolExecutor timer;
+
+  public Bulkhead(String name, Executor executor, long timeoutMillis) {
+    this.name = name;
+    this.executor = executor;
+    this.timeoutMillis = timeoutMillis;
+    this.timer = new ScheduledThreadPoolExecutor(1, threadFactory(name + "-bulkhead-timer"));
+    this.timer.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Creates a bulkhead running on at most {@code threads} threads, with at most
+   * {@code queueCapacity} tasks waiting for one.
+   */
+  public static Bulkhead bounded(String name, int threads, int queueCapacity,
+      long timeoutMillis) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory(name + "-bulkhead"),
+        new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return new Bulkhead(name, executor, timeoutMillis);
+  }
+
+  /**
+   * Same limits as {@link #bounded}, but every task gets its own virtual thread. Tasks beyond
+   * {@code threads} wait for a permit on their virtual thread, which costs no platform thread.
+   */
+  public static Bulkhead virtual(String name, int threads, int queueCapacity,
+      long timeoutMillis) {
+    return new Bulkhead(name, new BoundedExecutor(
+        VirtualThreads.newThreadPerTaskExecutor(name + "-bulkhead-"), threads, queueCapacity),
+        timeoutMillis);
+  }
+
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    AtomicReference<Thread> runner = new AtomicReference<>();
+    try {
+      executor.execute(() -> {
+        runner.set(Thread.currentThread());
+        try {
+          // Work that timed out while queued is dropped, since nobody waits for it any more.
+          if (!result.isDone()) {
+            result.complete(supplier.get());
+          }
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+        } finally {
+          // The interrupt of a timeout must not leak into the next task of a pooled thread.
+          synchronized (runner) {
+            runner.set(null);
+            Thread.interrupted();
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(
+          new BulkheadUnavailableException("The " + name + " bulkhead is full"));
+      return result;
+    }
+
+    ScheduledFuture<?> timeout = timer.schedule(() -> {
+      if (result.completeExceptionally(new BulkheadUnavailableException("The " + name
+          + " bulkhead timed out after " + timeoutMillis + " ms"))) {
+        synchronized (runner) {
+          Thread thread = runner.get();
+          if (thread != null) {
+            thread.interrupt();
+          }
+        }
+      }
+    }, timeoutMillis, TimeUnit.MILLISECONDS);
+    result.whenComplete((value, e) -> timeout.cancel(false));
+    return result;
+  }
+
+  // Picked up by Spring as the destroy method of the bean.
+  public void shutdown() {
+    timer.shutdownNow();
+    if (executor instanceof ExecutorService) {
+      ((ExecutorService) executor).shutdown();
+    }
+  }
+
+  // Admits at most threads + queueCapacity tasks, and runs at most threads of them at once.
+  private static final class BoundedExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final Semaphore running;
+    private final int capacity;
+    private final AtomicInteger admitted = new AtomicInteger();
+
+    private BoundedExecutor(ExecutorService delegate, int threads, int queueCapacity) {
+      this.delegate = delegate;
+      this.running = new Semaphore(threads);
+      this.capacity = threads + queueCapacity;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+      if (admitted.incrementAndGet() > capacity) {
+        admitted.decrementAndGet();
+        throw new RejectedExecutionException("Bulkhead is full");
+      }
+      try {
+        delegate.execute(() -> {
+          running.acquireUninterruptibly();
+          try {
+            task.run();
+          } finally {
+            running.release();
+            admitted.decrementAndGet();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        admitted.decrementAndGet();
+        throw e;
+      }
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+
+  }
+
+  private static ThreadFactory threadFactory(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+}
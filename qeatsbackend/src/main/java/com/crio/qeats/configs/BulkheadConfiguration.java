@@ -0,0 +1,36 @@
+
+package com.crio.qeats.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Requests whose restaurant lists are already cached run on their own bulkhead, so they keep
+// being served when the database is slow and its bulkhead is saturated.
+@Configuration
+public class BulkheadConfiguration {
+
+  @Bean
+  public Bulkhead cacheBulkhead(ExecutionMode executionMode,
+      @Value("${qeats.bulkhead.cache.threads:32}") int threads,
+      @Value("${qeats.bulkhead.cache.queue:512}") int queueCapacity,
+      @Value("${qeats.bulkhead.cache.timeout-ms:500}") long timeoutMillis) {
+    return bulkhead(executionMode, "cache", threads, queueCapacity, timeoutMillis);
+  }
+
+  @Bean
+  public Bulkhead databaseBulkhead(ExecutionMode executionMode,
+      @Value("${qeats.bulkhead.database.threads:16}") int threads,
+      @Value("${qeats.bulkhead.database.queue:64}") int queueCapacity,
+      @Value("${qeats.bulkhead.database.timeout-ms:3000}") long timeoutMillis) {
+    return bulkhead(executionMode, "database", threads, queueCapacity, timeoutMillis);
+  }
+
+  private static Bulkhead bulkhead(ExecutionMode executionMode, String name, int threads,
+      int queueCapacity, long timeoutMillis) {
+    return executionMode == ExecutionMode.VIRTUAL
+        ? Bulkhead.virtual(name, threads, queueCapacity, timeoutMillis)
+        : Bulkhead.bounded(name, threads, queueCapacity, timeoutMillis);
+  }
+
+}
@@ -0,0 +1,38 @@
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.events.EventBus;
+import com.crio.qeats.events.EventHandler;
+import com.crio.qeats.events.PostOrderEvent;
+import com.crio.qeats.events.RingBufferEventBus;
+import com.crio.qeats.globals.GlobalConstants;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Post-order side effects run off the request path, each handler on a thread of its own.
+@Configuration
+public class EventBusConfiguration {
+
+  public static final String IN_PROCESS = "in-process";
+
+  @Bean(destroyMethod = "close")
+  public EventBus<PostOrderEvent> postOrderEventBus(
+      List<EventHandler<PostOrderEvent>> handlers,
+      @Value("${qeats.events.transport:in-process}") String transport,
+      @Value("${qeats.events.post-order.ring-size:8192}") int ringSize) {
+    if (!IN_PROCESS.equals(transport)) {
+      throw new IllegalArgumentException("Unknown event transport " + transport);
+    }
+
+    EventBus<PostOrderEvent> eventBus =
+        new RingBufferEventBus<>(GlobalConstants.ROUTING_KEY, ringSize, PostOrderEvent::new);
+    for (EventHandler<PostOrderEvent> handler : handlers) {
+      eventBus.subscribe(handler.getClass().getSimpleName(), handler);
+    }
+    eventBus.start();
+    return eventBus;
+  }
+
+}
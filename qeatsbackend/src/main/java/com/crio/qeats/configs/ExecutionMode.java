@@ -0,0 +1,17 @@
+
+package com.crio.qeats.configs;
+
+/**
+ * What request handling and repository fan-out run on, set with {@code qeats.execution.mode}.
+ */
+public enum ExecutionMode {
+
+  // Bounded pools of platform threads.
+  PLATFORM,
+
+  // A new virtual thread per task; concurrency is only bounded where a resource needs it.
+  // Experimental: not load-tested yet against the real Redis and Mongo clients, whose blocking
+  // inside synchronized code may pin carrier threads.
+  VIRTUAL
+
+}
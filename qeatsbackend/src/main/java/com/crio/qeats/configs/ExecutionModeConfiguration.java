@@ -0,0 +1,107 @@
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.utils.ChunkedLookup;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Switches request handling and search fan-out to virtual threads when
+ * {@code qeats.execution.mode=virtual} and the JDK supports them. Falls back to platform
+ * threads, with a warning, on older JDKs.
+ */
+@Configuration
+@Log4j2
+public class ExecutionModeConfiguration {
+
+  @Bean
+  public ExecutionMode executionMode(
+      @Value("${qeats.execution.mode:platform}") String mode) {
+    ExecutionMode executionMode = ExecutionMode.valueOf(mode.trim().toUpperCase());
+    if (executionMode == ExecutionMode.VIRTUAL && !VirtualThreads.isSupported()) {
+      log.warn("qeats.execution.mode=virtual needs JDK 21 or later; running on {} with platform "
+          + "threads", System.getProperty("java.version"));
+      return ExecutionMode.PLATFORM;
+    }
+    log.info("Execution mode: {}", executionMode);
+    return executionMode;
+  }
+
+  /**
+   * Runs Tomcat's request processing on virtual threads, instead of its bounded worker pool.
+   */
+  @Bean
+  public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer(
+      ExecutionMode executionMode) {
+    return factory -> {
+      if (executionMode == ExecutionMode.VIRTUAL) {
+        factory.addConnectorCustomizers(connector -> {
+          ProtocolHandler protocolHandler = connector.getProtocolHandler();
+          if (protocolHandler instanceof AbstractProtocol) {
+            ((AbstractProtocol<?>) protocolHandler).setExecutor(
+                VirtualThreads.newThreadPerTaskExecutor("tomcat-handler-"));
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Runs the four lookups of a multithreaded search. Shared by all requests, rather than a new
+   * pool per request.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService searchExecutor(ExecutionMode executionMode,
+      @Value("${qeats.execution.search-threads:16}") int searchThreads) {
+    return executionMode == ExecutionMode.VIRTUAL
+        ? VirtualThreads.newThreadPerTaskExecutor("search-")
+        : Executors.newFixedThreadPool(searchThreads);
+  }
+
+  /**
+   * Runs the chunks of large id lookups. Kept apart from the search executor, whose tasks wait
+   * on these chunks and could otherwise take every thread of a bounded pool.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService lookupExecutor(ExecutionMode executionMode,
+      @Value("${qeats.execution.lookup-threads:16}") int lookupThreads) {
+    return executionMode == ExecutionMode.VIRTUAL
+        ? VirtualThreads.newThreadPerTaskExecutor("lookup-")
+        : Executors.newFixedThreadPool(lookupThreads);
+  }
+
+  @Bean
+  public ChunkedLookup chunkedLookup(@Qualifier("lookupExecutor") ExecutorService lookupExecutor,
+      @Value("${qeats.lookup.chunk-size:500}") int chunkSize,
+      @Value("${qeats.lookup.max-concurrency:4}") int maxConcurrency) {
+    return new ChunkedLookup(lookupExecutor, chunkSize, maxConcurrency);
+  }
+
+  /**
+   * Runs the batches of the batch loaders. Callers, including lookup chunks, block on these
+   * batches, so they get threads of their own. Batches beyond the queue are rejected, which
+   * fails their callers rather than letting them wait behind an ever longer queue.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService batchLoaderExecutor(ExecutionMode executionMode,
+      @Value("${qeats.execution.batch-loader-threads:4}") int batchLoaderThreads,
+      @Value("${qeats.execution.batch-loader-queue:64}") int batchLoaderQueue) {
+    return executionMode == ExecutionMode.VIRTUAL
+        ? VirtualThreads.newThreadPerTaskExecutor("batch-loader-")
+        : new ThreadPoolExecutor(batchLoaderThreads, batchLoaderThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(batchLoaderQueue), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+}
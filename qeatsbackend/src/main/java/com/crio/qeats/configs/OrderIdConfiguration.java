@@ -0,0 +1,27 @@
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.utils.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Order ids are generated by each instance on its own, under a node id unique to the instance.
+// Nothing can tell two instances apart reliably enough to pick it for them, so the prod profile
+// requires it; local runs default to 0.
+@Configuration
+public class OrderIdConfiguration {
+
+  @Bean
+  public SnowflakeIdGenerator orderIdGenerator(
+      @Value("${qeats.orders.id.node-id:-1}") int nodeId,
+      @Value("${qeats.orders.id.max-clock-skew-ms:1000}") long maxClockSkewMillis) {
+    if (nodeId < 0) {
+      throw new IllegalStateException("qeats.orders.id.node-id must be set to a number between 0"
+          + " and " + SnowflakeIdGenerator.MAX_NODE_ID + ", distinct for every instance, e.g."
+          + " through QEATS_ORDERS_ID_NODE_ID");
+    }
+    return new SnowflakeIdGenerator(nodeId, maxClockSkewMillis);
+  }
+
+}
@@ -0,0 +1,24 @@
+
+package com.crio.qeats.configs;
+
+import com.crio.qeats.utils.MappedJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Paths;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Placed orders are journaled locally before they are acknowledged, and stored in Mongo later.
+@Configuration
+public class OrderJournalConfiguration {
+
+  @Bean(destroyMethod = "close")
+  public MappedJournal orderJournal(MeterRegistry meterRegistry,
+      @Value("${qeats.orders.journal.dir:orders-journal}") String directory,
+      @Value("${qeats.orders.journal.segment-bytes:67108864}") int segmentBytes)
+      throws IOException {
+    return new MappedJournal("orders", Paths.get(directory), segmentBytes, meterRegistry);
+  }
+
+}
@@ -0,0 +1,74 @@
+
+package com.crio.qeats.configs;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.reactive.RedisReactiveCommands;
+import io.lettuce.core.codec.StringCodec;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link RedisConfiguration}, for the reactive profile. The
+ * connection is opened on first use and opened again after a failure, so the application starts
+ * (and keeps serving from the database) while Redis is down.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveRedisConnection {
+
+  private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(500);
+
+  @Value("${spring.redis.port:6379}")
+  private int redisPort;
+
+  private RedisClient redisClient;
+
+  private final AtomicReference<CompletableFuture<StatefulRedisConnection<String, String>>>
+      connection = new AtomicReference<>();
+
+  @PostConstruct
+  public void initClient() {
+    redisClient = RedisClient.create();
+    redisClient.setOptions(ClientOptions.builder()
+        .socketOptions(SocketOptions.builder().connectTimeout(CONNECT_TIMEOUT).build())
+        .build());
+  }
+
+  public Mono<RedisReactiveCommands<String, String>> commands() {
+    CompletableFuture<StatefulRedisConnection<String, String>> current = connection.get();
+    if (current == null || current.isCompletedExceptionally()) {
+      CompletableFuture<StatefulRedisConnection<String, String>> next = redisClient
+          .connectAsync(StringCodec.UTF8, RedisURI.create("localhost", redisPort))
+          .toCompletableFuture();
+      if (connection.compareAndSet(current, next)) {
+        current = next;
+      } else {
+        // Another caller reconnected first; use its connection and drop this one.
+        next.thenAccept(StatefulRedisConnection::closeAsync);
+        current = connection.get();
+      }
+    }
+    return Mono.fromFuture(current).map(StatefulRedisConnection::reactive);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    CompletableFuture<StatefulRedisConnection<String, String>> current = connection.get();
+    if (current != null) {
+      current.thenAccept(StatefulRedisConnection::close);
+    }
+    redisClient.shutdown();
+  }
+
+}
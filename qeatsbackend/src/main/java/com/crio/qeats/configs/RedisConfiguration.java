@@ -1,8 +1,10 @@
 
 package com.crio.qeats.configs;
 
+import com.crio.qeats.cache.InProcessRestaurantCache;
 import java.time.Duration;
 import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import redis.clients.jedis.Jedis;
@@ -22,9 +24,17 @@ public class RedisConfiguration {
   public static final String ROUTING_KEY = "qeats.postorder";
 
 
+  private static final int MAX_CONNECTIONS = 128;
+
   private int redisPort;
   private JedisPool jedisPool;
 
+  @Autowired(required = false)
+  private ExecutionMode executionMode;
+
+  @Autowired(required = false)
+  private InProcessRestaurantCache inProcessRestaurantCache;
+
 
   @Value("${spring.redis.port}")
   public void setRedisPort(int port) {
@@ -32,13 +42,17 @@ public class RedisConfiguration {
     redisPort = port;
   }
 
-  private static JedisPoolConfig buildPoolConfig() {
+  // Borrowing and returning do not PING: broken connections are dropped by Jedis when they
+  // fail, and idle ones are checked by the evictor. With virtual threads the pool is kept full,
+  // so connections are created by the evictor instead of by request threads, which would pin
+  // their carrier inside commons-pool's synchronized create path.
+  private JedisPoolConfig buildPoolConfig() {
     final JedisPoolConfig poolConfig = new JedisPoolConfig();
-    poolConfig.setMaxTotal(128);
-    poolConfig.setMaxIdle(128);
-    poolConfig.setMinIdle(16);
-    poolConfig.setTestOnBorrow(true);
-    poolConfig.setTestOnReturn(true);
+    poolConfig.setMaxTotal(MAX_CONNECTIONS);
+    poolConfig.setMaxIdle(MAX_CONNECTIONS);
+    poolConfig.setMinIdle(executionMode == ExecutionMode.VIRTUAL ? MAX_CONNECTIONS : 16);
+    poolConfig.setTestOnBorrow(false);
+    poolConfig.setTestOnReturn(false);
     poolConfig.setTestWhileIdle(true);
     poolConfig.setMinEvictableIdleTimeMillis(Duration.ofSeconds(60).toMillis());
     poolConfig.setTimeBetweenEvictionRunsMillis(Duration.ofSeconds(30).toMillis());
@@ -82,16 +96,10 @@ public class RedisConfiguration {
    * TIP: This would generally mean checking via {@link JedisPool}
    * @return true / false if cache is available or not.
    */
+  // Only checks that the pool is open, without borrowing a connection: callers treat Redis
+  // errors as cache misses, so a dead server costs them nothing more than a miss.
   public boolean isCacheAvailable() {
-    if (jedisPool == null) {
-      return false;
-    }
-
-    try (Jedis jedis = this.getJedisPool().getResource()) {
-      return true;
-    } catch (Exception e) {
-      return false;
-    }
+    return jedisPool != null && !jedisPool.isClosed();
   }
 
   /**
@@ -99,6 +107,10 @@ public class RedisConfiguration {
    * TIP: This is useful if cache is stale or while performing tests.
    */
   public void destroyCache() {
+    // The in-process tier mirrors Redis, so it goes stale along with it.
+    if (inProcessRestaurantCache != null) {
+      inProcessRestaurantCache.invalidateAll();
+    }
     if (jedisPool != null) {
       jedisPool.getResource().flushAll();
       jedisPool.destroy();
@@ -0,0 +1,26 @@
+package com.crio.qeats.configs;
+
+import com.crio.qeats.cache.RestaurantJsonFragments;
+import com.crio.qeats.converters.GetRestaurantsResponseConverter;
+import com.crio.qeats.converters.GetRestaurantsResponseProtobufConverter;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  @Autowired
+  private RestaurantJsonFragments restaurantJsonFragments;
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // Ahead of Jackson, so restaurant lists are written from their cached fragments.
+    converters.add(0, new GetRestaurantsResponseConverter(restaurantJsonFragments));
+    // Only picked when the client asks for it, since JSON comes first.
+    converters.add(1, new GetRestaurantsResponseProtobufConverter());
+  }
+
+}
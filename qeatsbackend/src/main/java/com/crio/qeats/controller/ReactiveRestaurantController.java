@@ -0,0 +1,67 @@
+
+package com.crio.qeats.controller;
+
+import com.crio.qeats.cache.HotKeyRecorder;
+import com.crio.qeats.cache.RestaurantJsonFragments;
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.services.ReactiveRestaurantService;
+import com.crio.qeats.utils.GeoUtils;
+import java.time.LocalTime;
+import javax.validation.Valid;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the contract of {@link RestaurantController#getRestaurants} on WebFlux, for the
+ * reactive profile. No thread waits on Mongo or Redis. Responses are JSON only, with the same
+ * ETags as the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(RestaurantController.RESTAURANT_API_ENDPOINT)
+@Log4j2
+public class ReactiveRestaurantController {
+
+  @Autowired
+  private ReactiveRestaurantService reactiveRestaurantService;
+
+  @Autowired
+  private HotKeyRecorder hotKeyRecorder;
+
+  @Autowired
+  private RestaurantJsonFragments restaurantJsonFragments;
+
+  @GetMapping(RestaurantController.RESTAURANTS_API)
+  public Mono<ResponseEntity<GetRestaurantsResponse>> getRestaurants(
+      @Valid GetRestaurantsRequest getRestaurantsRequest) {
+
+    log.info("getRestaurants called with {}", getRestaurantsRequest);
+
+    String cell = GeoUtils.toGeoHashCell(getRestaurantsRequest.getLatitude(),
+        getRestaurantsRequest.getLongitude());
+    hotKeyRecorder.record(cell, getRestaurantsRequest.getSearchFor());
+
+    LocalTime currentTime = LocalTime.now();
+    Mono<GetRestaurantsResponse> response;
+    if (getRestaurantsRequest.getSearchFor() != null
+        && !getRestaurantsRequest.getSearchFor().isEmpty()) {
+      response = reactiveRestaurantService.findRestaurantsBySearchQuery(getRestaurantsRequest,
+          currentTime);
+    } else {
+      response = reactiveRestaurantService.findAllRestaurantsCloseBy(getRestaurantsRequest,
+          currentTime);
+    }
+
+    return response.map(getRestaurantsResponse -> ResponseEntity.ok()
+        .eTag(restaurantJsonFragments.etag(getRestaurantsResponse))
+        .body(getRestaurantsResponse));
+  }
+
+}
@@ -6,32 +6,81 @@
 
 package com.crio.qeats.controller;
 
+import com.crio.qeats.cache.HotKeyRecorder;
+import com.crio.qeats.cache.MaterializedResponse;
+import com.crio.qeats.cache.MaterializedResponseCache;
+import com.crio.qeats.cache.ResponseEtagCache;
+import com.crio.qeats.cache.RestaurantCacheKeys;
+import com.crio.qeats.cache.RestaurantCacheProbe;
+import com.crio.qeats.cache.RestaurantJsonFragments;
+import com.crio.qeats.cache.ValidityWindows;
+import com.crio.qeats.configs.Bulkhead;
+import com.crio.qeats.converters.GetRestaurantsResponseProtobufConverter;
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Order;
 import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
+import com.crio.qeats.dto.SearchTier;
+import com.crio.qeats.exchanges.AddCartRequest;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+import com.crio.qeats.exchanges.ClearCartRequest;
+import com.crio.qeats.exchanges.GetCartRequest;
+import com.crio.qeats.exchanges.GetMenuRequest;
+import com.crio.qeats.exchanges.GetOrdersRequest;
+import com.crio.qeats.exchanges.GetRestaurantsBatchRequest;
+import com.crio.qeats.exchanges.GetRestaurantsBatchResponse;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.exchanges.PostOrderRequest;
+import com.crio.qeats.exchanges.ProjectedRestaurantsResponse;
+import com.crio.qeats.services.CartService;
+import com.crio.qeats.services.MenuService;
+import com.crio.qeats.services.OrderService;
 import com.crio.qeats.services.RestaurantService;
+import com.crio.qeats.utils.GeoUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.validation.Valid;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-// import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
-// import org.springframework.web.bind.annotation.PostMapping;
-// import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 // import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+// Replaced by ReactiveRestaurantController when running with the reactive profile.
 @RestController
+@Profile("!reactive")
 @RequestMapping(RestaurantController.RESTAURANT_API_ENDPOINT)
 @Log4j2
 public class RestaurantController {
 
   public static final String RESTAURANT_API_ENDPOINT = "/qeats/v1";
   public static final String RESTAURANTS_API = "/restaurants";
+  public static final String RESTAURANTS_BATCH_API = "/restaurants/batch";
   public static final String MENU_API = "/menu";
   public static final String CART_API = "/cart";
   public static final String CART_ITEM_API = "/cart/item";
@@ -42,6 +91,44 @@ public class RestaurantController {
   @Autowired
   private RestaurantService restaurantService;
 
+  @Autowired
+  private MenuService menuService;
+
+  @Autowired
+  private CartService cartService;
+
+  @Autowired
+  private OrderService orderService;
+
+  @Autowired
+  private HotKeyRecorder hotKeyRecorder;
+
+  @Autowired
+  private MaterializedResponseCache materializedResponseCache;
+
+  @Autowired
+  private RestaurantJsonFragments restaurantJsonFragments;
+
+  @Autowired
+  private RestaurantCacheProbe restaurantCacheProbe;
+
+  @Autowired
+  private ResponseEtagCache responseEtagCache;
+
+  @Autowired
+  private ValidityWindows validityWindows;
+
+  @Autowired
+  private Bulkhead cacheBulkhead;
+
+  @Autowired
+  private Bulkhead databaseBulkhead;
+
+  @Value("${qeats.search.events.timeout-ms:30000}")
+  private long searchEventsTimeoutMillis;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
 
   // TODO: CRIO_TASK_MODULE_MULTITHREADING
   //  Improve the performance of this GetRestaurants API
@@ -110,35 +197,312 @@ public class RestaurantController {
   // Eg:
   // curl -X GET "http://localhost:8081/qeats/v1/restaurants?latitude=28.4900591&longitude=77.536386&searchFor=tamil"
 
+  // Responses carry an ETag derived from their content; a matching If-None-Match gets a 304
+  // and the body is never written. When the ETag last sent for the same request still matches,
+  // the 304 is sent without computing the response. Large bodies are gzipped by the container,
+  // or ahead of time for materialized cells. Clients that prefer application/x-protobuf get the
+  // same response encoded as protobuf, under a different ETag.
+  // The request thread is released while the response is computed: requests that the cache
+  // tiers can answer run on the cache bulkhead, the others on the database bulkhead, so a slow
+  // database cannot starve cache hits. A full or timed-out bulkhead answers with a 503.
   @GetMapping(RESTAURANTS_API)
-  public ResponseEntity<GetRestaurantsResponse> getRestaurants(
-      @Valid GetRestaurantsRequest getRestaurantsRequest) {
+  public CompletableFuture<ResponseEntity<?>> getRestaurants(
+      @Valid GetRestaurantsRequest getRestaurantsRequest,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
     log.info("getRestaurants called with {}", getRestaurantsRequest);
-    GetRestaurantsResponse getRestaurantsResponse;
 
+    String cell = GeoUtils.toGeoHashCell(getRestaurantsRequest.getLatitude(),
+        getRestaurantsRequest.getLongitude());
+    hotKeyRecorder.record(cell, getRestaurantsRequest.getSearchFor());
+
+    LocalTime currentTime = LocalTime.now();
+    Supplier<GetRestaurantsResponse> query;
     // Check if a search query is provided
     if (getRestaurantsRequest.getSearchFor() != null && !getRestaurantsRequest.getSearchFor().isEmpty()) {
         // Use the findRestaurantsBySearchQuery method for searching
-        getRestaurantsResponse = restaurantService
-            .findRestaurantsBySearchQuery(getRestaurantsRequest, LocalTime.now());
+        query = () -> restaurantService
+            .findRestaurantsBySearchQuery(getRestaurantsRequest, currentTime);
     } else {
+        // Hot cells are served straight from their materialized bytes.
+        MaterializedResponse materializedResponse =
+            prefersProtobuf(accept) || getRestaurantsRequest.getFields() != null
+                ? null : materializedResponseCache.get(cell);
+        if (materializedResponse != null) {
+          return CompletableFuture.completedFuture(
+              materializedResponseEntity(materializedResponse, acceptEncoding));
+        }
+
         // Use the findAllRestaurantsCloseBy method for the default behavior
-        getRestaurantsResponse = restaurantService
-            .findAllRestaurantsCloseBy(getRestaurantsRequest, LocalTime.now());
+        query = () -> restaurantService
+            .findAllRestaurantsCloseBy(getRestaurantsRequest, currentTime);
+    }
+
+    String etagKey = ResponseEtagCache.key(getRestaurantsRequest,
+        prefersProtobuf(accept) ? "pb" : "json", currentTime);
+    String lastEtag = responseEtagCache.get(etagKey);
+    if (lastEtag != null && matchesIfNoneMatch(ifNoneMatch, lastEtag)) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(lastEtag)
+          .varyBy(HttpHeaders.ACCEPT)
+          .build());
+    }
+
+    List<String> cacheKeys = RestaurantCacheKeys.forRequest(cell,
+        getRestaurantsRequest.getSearchFor(),
+        RestaurantField.parse(getRestaurantsRequest.getFields()),
+        validityWindows.windowOf(currentTime));
+    return cacheBulkhead.supplyAsync(() -> restaurantCacheProbe.isCached(cacheKeys))
+        .thenCompose(cached -> (cached ? cacheBulkhead : databaseBulkhead).supplyAsync(query))
+        .thenApply(getRestaurantsResponse -> {
+          log.info("getRestaurants returned {}", getRestaurantsResponse);
+
+          String etag = restaurantJsonFragments.etag(getRestaurantsResponse);
+          if (prefersProtobuf(accept)) {
+            etag = variantEtag(etag, "pb");
+          }
+          responseEtagCache.put(etagKey, etag);
+          return ResponseEntity.ok()
+              .eTag(etag)
+              .varyBy(HttpHeaders.ACCEPT)
+              .body(getRestaurantsResponse);
+        });
+  }
+
+  /**
+   * Answers many locations in one call, each as {@link #getRestaurants} would, in request order.
+   * The batch reads the open restaurants once and runs on the database bulkhead. Batches are not
+   * counted as hot keys, so that a few large callers do not decide what gets pinned.
+   * Eg:
+   * curl -X POST -H "Content-Type: application/json" -d '{"requests":[{"latitude":28.4900591,"longitude":77.536386}]}' "http://localhost:8081/qeats/v1/restaurants/batch"
+   */
+  @PostMapping(RESTAURANTS_BATCH_API)
+  public CompletableFuture<ResponseEntity<GetRestaurantsBatchResponse>> getRestaurantsBatch(
+      @Valid @RequestBody GetRestaurantsBatchRequest getRestaurantsBatchRequest) {
+
+    log.info("getRestaurantsBatch called with {} requests",
+        getRestaurantsBatchRequest.getRequests().size());
+
+    LocalTime currentTime = LocalTime.now();
+    return databaseBulkhead.supplyAsync(() -> restaurantService
+            .findAllRestaurantsCloseBy(getRestaurantsBatchRequest.getRequests(), currentTime))
+        .thenApply(responses -> ResponseEntity.ok(new GetRestaurantsBatchResponse(responses)));
+  }
+
+  private static ResponseEntity<byte[]> materializedResponseEntity(
+      MaterializedResponse materializedResponse, String acceptEncoding) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON_UTF8)
+        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    String etag = materializedResponse.getEtag();
+    if (materializedResponse.getGzippedBody() != null && acceptsGzip(acceptEncoding)) {
+      // The gzipped bytes are a different representation, so they get their own strong ETag.
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+          .eTag(variantEtag(etag, "gzip"))
+          .body(materializedResponse.getGzippedBody());
+    }
+    return builder.eTag(etag).body(materializedResponse.getBody());
+  }
+
+  // Whether the Accept-Encoding header allows gzip: listed, or covered by "*", with a non-zero
+  // quality.
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
     }
 
-    log.info("getRestaurants returned {}", getRestaurantsResponse);
+    Boolean wildcard = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim().toLowerCase();
+      boolean accepted = quality(parts) > 0;
+      if (name.equals("gzip") || name.equals("x-gzip")) {
+        return accepted;
+      }
+      if (name.equals("*")) {
+        wildcard = accepted;
+      }
+    }
+    return wildcard != null && wildcard;
+  }
 
-    if(getRestaurantsResponse != null && !getRestaurantsResponse.getRestaurants().isEmpty()) {
-        List<Restaurant> restaurants = getRestaurantsResponse.getRestaurants();
-        for(int i = 0; i < restaurants.size(); i++) {
-            restaurants.get(i).setName(restaurants.get(i).getName().replace("é", "?"));
+  private static double quality(String[] codingParts) {
+    for (int i = 1; i < codingParts.length; i++) {
+      String parameter = codingParts[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
         }
-        getRestaurantsResponse.setRestaurants(restaurants);
+      }
+    }
+    return 1;
+  }
+
+  // Weak comparison, as Spring makes for the ETag of a ResponseEntity; "*" matches anything.
+  private static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
     }
 
-    return ResponseEntity.ok().body(getRestaurantsResponse);
+    String strongEtag = etag.startsWith("W/") ? etag.substring(2) : etag;
+    for (String candidate : ifNoneMatch.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(strongEtag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String variantEtag(String etag, String variant) {
+    return etag.substring(0, etag.length() - 1) + "-" + variant + "\"";
+  }
+
+  // Whether content negotiation will pick protobuf over JSON for this Accept header.
+  private static boolean prefersProtobuf(String accept) {
+    if (accept == null) {
+      return false;
+    }
+
+    List<MediaType> mediaTypes;
+    try {
+      mediaTypes = MediaType.parseMediaTypes(accept);
+    } catch (InvalidMediaTypeException e) {
+      return false;
+    }
+    MediaType.sortBySpecificityAndQuality(mediaTypes);
+    for (MediaType mediaType : mediaTypes) {
+      // JSON wins whenever both match, as its converter comes first.
+      if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+        return false;
+      }
+      if (mediaType.includes(GetRestaurantsResponseProtobufConverter.APPLICATION_PROTOBUF)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Same contract as {@link #getRestaurants}, but the restaurants are written out one by one as
+   * they come out of the filter pipeline, instead of being collected into a response first.
+   * Meant for wide searches in dense areas.
+   * Eg:
+   * curl -X GET "http://localhost:8081/qeats/v1/restaurants?latitude=28.4900591&longitude=77.536386&stream=true"
+   */
+  @GetMapping(value = RESTAURANTS_API, params = "stream=true")
+  public ResponseEntity<StreamingResponseBody> streamRestaurants(
+      @Valid GetRestaurantsRequest getRestaurantsRequest) {
+
+    log.info("streamRestaurants called with {}", getRestaurantsRequest);
+
+    String cell = GeoUtils.toGeoHashCell(getRestaurantsRequest.getLatitude(),
+        getRestaurantsRequest.getLongitude());
+    hotKeyRecorder.record(cell, getRestaurantsRequest.getSearchFor());
+
+    LocalTime currentTime = LocalTime.now();
+    boolean search = getRestaurantsRequest.getSearchFor() != null
+        && !getRestaurantsRequest.getSearchFor().isEmpty();
+
+    StreamingResponseBody body = outputStream -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("restaurants");
+        Consumer<Restaurant> writer = restaurantWriter(generator,
+            RestaurantField.parse(getRestaurantsRequest.getFields()));
+        try {
+          if (search) {
+            restaurantService.streamRestaurantsBySearchQuery(getRestaurantsRequest, currentTime,
+                writer);
+          } else {
+            restaurantService.streamAllRestaurantsCloseBy(getRestaurantsRequest, currentTime,
+                writer);
+          }
+        } catch (UncheckedIOException e) {
+          throw e.getCause();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+      }
+    };
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(body);
+  }
+
+  /**
+   * Search as server-sent events: one event per {@link SearchTier}, named after the tier, with a
+   * {@link GetRestaurantsResponse} as its data. Each tier is sent as soon as its lookup
+   * completes, so cheap name matches arrive without waiting for the item lookups; clients order
+   * the tiers by their names. The stream ends once every tier has been sent.
+   * Only clients asking for text/event-stream get here: the mapping has no params condition,
+   * which would rank it above {@link #getRestaurants} for any Accept header, including none.
+   * Eg:
+   * curl -N -H "Accept: text/event-stream" "http://localhost:8081/qeats/v1/restaurants?latitude=28.4900591&longitude=77.536386&searchFor=tamil"
+   */
+  @GetMapping(value = RESTAURANTS_API, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter searchRestaurantsByTier(@Valid GetRestaurantsRequest getRestaurantsRequest) {
+
+    log.info("searchRestaurantsByTier called with {}", getRestaurantsRequest);
+
+    if (getRestaurantsRequest.getSearchFor() == null
+        || getRestaurantsRequest.getSearchFor().isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "searchFor is required for an event stream");
+    }
+
+    String cell = GeoUtils.toGeoHashCell(getRestaurantsRequest.getLatitude(),
+        getRestaurantsRequest.getLongitude());
+    hotKeyRecorder.record(cell, getRestaurantsRequest.getSearchFor());
+
+    SseEmitter emitter = new SseEmitter(searchEventsTimeoutMillis);
+    restaurantService.streamRestaurantsBySearchQueryByTier(getRestaurantsRequest,
+        LocalTime.now(), (tier, getRestaurantsResponse) -> {
+          try {
+            emitter.send(SseEmitter.event()
+                .name(tier.getName())
+                .data(getRestaurantsResponse, MediaType.APPLICATION_JSON_UTF8));
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        })
+        .whenComplete((ignored, e) -> {
+          if (e == null) {
+            emitter.complete();
+          } else {
+            log.warn("searchRestaurantsByTier failed for {}", getRestaurantsRequest, e);
+            emitter.completeWithError(e);
+          }
+        });
+    return emitter;
+  }
+
+  // Flushes after the first restaurant, so it reaches the client without waiting for the rest.
+  private static Consumer<Restaurant> restaurantWriter(JsonGenerator generator,
+      Set<RestaurantField> fields) {
+    boolean[] flushed = {false};
+    return restaurant -> {
+      try {
+        if (fields == null) {
+          generator.writeObject(restaurant);
+        } else {
+          ProjectedRestaurantsResponse.Serializer.writeRestaurant(restaurant, fields, generator);
+        }
+        if (!flushed[0]) {
+          generator.flush();
+          flushed[0] = true;
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
   }
 
   // TIP(MODULE_MENUAPI): Model Implementation for getting menu given a restaurantId.
@@ -174,16 +538,150 @@ public class RestaurantController {
   // Eg:
   // curl -X GET "http://localhost:8081/qeats/v1/menu?restaurantId=11"
 
+  // Menus are served from their cached JSON; a restaurant without a menu gets a 404.
+  @GetMapping(MENU_API)
+  public ResponseEntity<byte[]> getMenu(@Valid GetMenuRequest getMenuRequest) {
 
+    log.info("getMenu called with {}", getMenuRequest);
 
+    byte[] menuJson = menuService.findMenuJson(getMenuRequest.getRestaurantId());
+    if (menuJson == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(menuJson);
+  }
 
+  // Get the cart of the given user; a user without one gets a new, empty cart.
+  // API URI: /qeats/v1/cart?userId=Bunny
+  // Method: GET
+  // Query Params: userId
+  // Success Output:
+  // HTTP Code: 200
+  // {
+  //  "id": "1",
+  //  "restaurantId": "10",
+  //  "userId": "Bunny",
+  //  "items": [ ... ],
+  //  "total": 225
+  // }
+  // Eg:
+  // curl -X GET "http://localhost:8081/qeats/v1/cart?userId=Bunny"
+  @GetMapping(CART_API)
+  public ResponseEntity<Cart> getCart(@Valid GetCartRequest getCartRequest) {
 
+    log.info("getCart called with {}", getCartRequest);
 
+    return ResponseEntity.ok(cartService.findOrCreateCart(getCartRequest.getUserId()));
+  }
 
+  // Add an item of the restaurant's menu to the cart, or remove one instance of it with DELETE.
+  // API URI: /qeats/v1/cart/item
+  // Method: POST, DELETE
+  // Body: {"cartId": "1", "itemId": "1", "restaurantId": "10"}
+  // Success Output:
+  // HTTP Code: 200
+  // {
+  //  "cart": { ... },
+  //  "cartResponseType": 0
+  // }
+  // A cart holding items of another restaurant is returned unchanged, with cartResponseType 102.
+  // Error Response:
+  // HTTP Code: 400 for an item that is not on the restaurant's menu, 404 for an unknown cart.
+  // Eg:
+  // curl -X POST -H "Content-Type: application/json" -d '{"cartId":"1","itemId":"1","restaurantId":"10"}' "http://localhost:8081/qeats/v1/cart/item"
+  @PostMapping(CART_ITEM_API)
+  public ResponseEntity<CartModifiedResponse> addItem(
+      @Valid @RequestBody AddCartRequest addCartRequest) {
 
+    log.info("addItem called with {}", addCartRequest);
 
+    return ResponseEntity.ok(cartService.addItemToCart(addCartRequest.getItemId(),
+        addCartRequest.getCartId(), addCartRequest.getRestaurantId()));
+  }
 
+  @DeleteMapping(CART_ITEM_API)
+  public ResponseEntity<CartModifiedResponse> removeItem(
+      @Valid @RequestBody AddCartRequest deleteCartRequest) {
 
+    log.info("removeItem called with {}", deleteCartRequest);
 
-}
+    return ResponseEntity.ok(cartService.removeItemFromCart(deleteCartRequest.getItemId(),
+        deleteCartRequest.getCartId(), deleteCartRequest.getRestaurantId()));
+  }
+
+  // Remove all items from the cart.
+  // API URI: /qeats/v1/cart/clear
+  // Method: PUT
+  // Body: {"cartId": "1"}
+  // Eg:
+  // curl -X PUT -H "Content-Type: application/json" -d '{"cartId":"1"}' "http://localhost:8081/qeats/v1/cart/clear"
+  @PutMapping(CART_CLEAR_API)
+  public ResponseEntity<CartModifiedResponse> clearCart(
+      @Valid @RequestBody ClearCartRequest clearCartRequest) {
+
+    log.info("clearCart called with {}", clearCartRequest);
+
+    return ResponseEntity.ok(cartService.clearCart(clearCartRequest.getCartId()));
+  }
+
+  // Place an order for the items of the cart, which is emptied.
+  // API URI: /qeats/v1/order
+  // Method: POST
+  // Body: {"cartId": "1"}
+  // Success Output:
+  // HTTP Code: 200, once the order is journaled; it reaches the orders collection shortly after.
+  // {
+  //  "id": "00ece4e9a8001000",
+  //  "restaurantId": "10",
+  //  "userId": "Bunny",
+  //  "items": [ ... ],
+  //  "total": 225,
+  //  "placedAt": 1562198500000
+  // }
+  // Error Response:
+  // HTTP Code: 400 for an empty cart, 404 for an unknown cart.
+  // Eg:
+  // curl -X POST -H "Content-Type: application/json" -d '{"cartId":"1"}' "http://localhost:8081/qeats/v1/order"
+  @PostMapping(POST_ORDER_API)
+  public ResponseEntity<Order> placeOrder(
+      @Valid @RequestBody PostOrderRequest postOrderRequest) {
+
+    log.info("placeOrder called with {}", postOrderRequest);
+
+    return ResponseEntity.ok(orderService.placeOrder(postOrderRequest.getCartId()));
+  }
 
+  // Get the order history of the user, newest first, one page at a time.
+  // API URI: /qeats/v1/orders?userId=Bunny&limit=20&after=MTU2MjE5ODUwMDAwMDowMGVj...
+  // Method: GET
+  // Query Params: userId, limit(optional, 1 to 100, default 20), after(optional)
+  // Success Output:
+  // HTTP Code: 200
+  // {
+  //  "orders": [
+  //    {
+  //      "id": "00ece4e9a8001000",
+  //      "restaurantId": "10",
+  //      "total": 225,
+  //      "placedAt": 1562198500000
+  //    }
+  //  ],
+  //  "nextCursor": "MTU2MjE5ODUwMDAwMDowMGVjZTRlOWE4MDAxMDAw"
+  // }
+  // Pass nextCursor as after to get the next page; it is null on the last one. Orders show up
+  // once stored, shortly after they are placed.
+  // Error Response:
+  // HTTP Code: 400 for a limit out of range or a cursor that was not returned by this API.
+  // Eg:
+  // curl -X GET "http://localhost:8081/qeats/v1/orders?userId=Bunny&limit=20"
+  @GetMapping(GET_ORDERS_API)
+  public ResponseEntity<byte[]> getOrders(@Valid GetOrdersRequest getOrdersRequest) {
+
+    log.info("getOrders called with {}", getOrdersRequest);
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8)
+        .body(orderService.findOrderHistoryJson(getOrdersRequest.getUserId(),
+            getOrdersRequest.getAfter(), getOrdersRequest.getLimit()));
+  }
+
+}
@@ -0,0 +1,53 @@
+
+package com.crio.qeats.converters;
+
+import com.crio.qeats.cache.RestaurantJsonFragments;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes full {@link GetRestaurantsResponse} bodies as JSON by concatenating the pre-serialized
+ * fragments of its restaurants straight into the response stream.
+ */
+public class GetRestaurantsResponseConverter
+    extends AbstractHttpMessageConverter<GetRestaurantsResponse> {
+
+  private final RestaurantJsonFragments restaurantJsonFragments;
+
+  public GetRestaurantsResponseConverter(RestaurantJsonFragments restaurantJsonFragments) {
+    super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON,
+        new MediaType("application", "*+json"));
+    this.restaurantJsonFragments = restaurantJsonFragments;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    // Projected responses only carry some fields, so they are left to their own serializer.
+    return GetRestaurantsResponse.class == clazz;
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected GetRestaurantsResponse readInternal(Class<? extends GetRestaurantsResponse> clazz,
+      HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("GetRestaurantsResponse is write-only",
+        inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(GetRestaurantsResponse response, HttpOutputMessage outputMessage)
+      throws IOException {
+    restaurantJsonFragments.writeResponse(response, outputMessage.getBody());
+  }
+
+}
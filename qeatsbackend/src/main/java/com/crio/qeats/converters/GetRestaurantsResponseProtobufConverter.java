@@ -0,0 +1,51 @@
+
+package com.crio.qeats.converters;
+
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes {@link GetRestaurantsResponse} bodies as protobuf for clients that ask for
+ * {@code application/x-protobuf}; see {@code proto/restaurants.proto}.
+ */
+public class GetRestaurantsResponseProtobufConverter
+    extends AbstractHttpMessageConverter<GetRestaurantsResponse> {
+
+  public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+  public GetRestaurantsResponseProtobufConverter() {
+    super(APPLICATION_PROTOBUF);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return GetRestaurantsResponse.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected GetRestaurantsResponse readInternal(Class<? extends GetRestaurantsResponse> clazz,
+      HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("GetRestaurantsResponse is write-only",
+        inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(GetRestaurantsResponse response, HttpOutputMessage outputMessage)
+      throws IOException {
+    CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+    RestaurantProtobufEncoder.writeTo(response, output);
+    output.flush();
+  }
+
+}
@@ -0,0 +1,115 @@
+
+package com.crio.qeats.converters;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.exchanges.ProjectedRestaurantsResponse;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Encodes restaurant responses as the messages in {@code proto/restaurants.proto}, field by
+ * field. Default values are omitted, as proto3 does, and so are the fields a projected response
+ * leaves out.
+ */
+public final class RestaurantProtobufEncoder {
+
+  private static final int RESPONSE_RESTAURANTS = 1;
+
+  private static final int RESTAURANT_ID = 1;
+  private static final int NAME = 2;
+  private static final int CITY = 3;
+  private static final int IMAGE_URL = 4;
+  private static final int LATITUDE = 5;
+  private static final int LONGITUDE = 6;
+  private static final int OPENS_AT = 7;
+  private static final int CLOSES_AT = 8;
+  private static final int ATTRIBUTES = 9;
+
+  // The schema numbers the fields in RestaurantField order, starting at 1.
+  private static final RestaurantField[] FIELDS_BY_NUMBER = RestaurantField.values();
+
+  private RestaurantProtobufEncoder() { /* static helpers only */ }
+
+  public static void writeTo(GetRestaurantsResponse response, CodedOutputStream output)
+      throws IOException {
+    List<Restaurant> restaurants = response.getRestaurants();
+    if (restaurants == null) {
+      return;
+    }
+    Set<RestaurantField> fields = response instanceof ProjectedRestaurantsResponse
+        ? ((ProjectedRestaurantsResponse) response).getFields() : null;
+    for (Restaurant restaurant : restaurants) {
+      output.writeTag(RESPONSE_RESTAURANTS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      output.writeUInt32NoTag(restaurantSize(restaurant, fields));
+      writeRestaurant(restaurant, fields, output);
+    }
+  }
+
+  private static void writeRestaurant(Restaurant restaurant, Set<RestaurantField> fields,
+      CodedOutputStream output) throws IOException {
+    writeString(output, fields, RESTAURANT_ID, restaurant.getRestaurantId());
+    writeString(output, fields, NAME, restaurant.getName());
+    writeString(output, fields, CITY, restaurant.getCity());
+    writeString(output, fields, IMAGE_URL, restaurant.getImageUrl());
+    writeDouble(output, fields, LATITUDE, restaurant.getLatitude());
+    writeDouble(output, fields, LONGITUDE, restaurant.getLongitude());
+    writeString(output, fields, OPENS_AT, restaurant.getOpensAt());
+    writeString(output, fields, CLOSES_AT, restaurant.getClosesAt());
+    if (includes(fields, ATTRIBUTES)) {
+      for (String attribute : restaurant.getAttributes()) {
+        output.writeString(ATTRIBUTES, attribute);
+      }
+    }
+  }
+
+  private static int restaurantSize(Restaurant restaurant, Set<RestaurantField> fields) {
+    int size = stringSize(fields, RESTAURANT_ID, restaurant.getRestaurantId())
+        + stringSize(fields, NAME, restaurant.getName())
+        + stringSize(fields, CITY, restaurant.getCity())
+        + stringSize(fields, IMAGE_URL, restaurant.getImageUrl())
+        + doubleSize(fields, LATITUDE, restaurant.getLatitude())
+        + doubleSize(fields, LONGITUDE, restaurant.getLongitude())
+        + stringSize(fields, OPENS_AT, restaurant.getOpensAt())
+        + stringSize(fields, CLOSES_AT, restaurant.getClosesAt());
+    if (includes(fields, ATTRIBUTES)) {
+      for (String attribute : restaurant.getAttributes()) {
+        size += CodedOutputStream.computeStringSize(ATTRIBUTES, attribute);
+      }
+    }
+    return size;
+  }
+
+  private static void writeString(CodedOutputStream output, Set<RestaurantField> fields,
+      int field, String value) throws IOException {
+    if (includes(fields, field) && value != null && !value.isEmpty()) {
+      output.writeString(field, value);
+    }
+  }
+
+  private static void writeDouble(CodedOutputStream output, Set<RestaurantField> fields,
+      int field, double value) throws IOException {
+    if (includes(fields, field) && value != 0) {
+      output.writeDouble(field, value);
+    }
+  }
+
+  private static int stringSize(Set<RestaurantField> fields, int field, String value) {
+    return !includes(fields, field) || value == null || value.isEmpty()
+        ? 0 : CodedOutputStream.computeStringSize(field, value);
+  }
+
+  private static int doubleSize(Set<RestaurantField> fields, int field, double value) {
+    return !includes(fields, field) || value == 0
+        ? 0 : CodedOutputStream.computeDoubleSize(field, value);
+  }
+
+  private static boolean includes(Set<RestaurantField> fields, int field) {
+    return fields == null || fields.contains(FIELDS_BY_NUMBER[field - 1]);
+  }
+
+}
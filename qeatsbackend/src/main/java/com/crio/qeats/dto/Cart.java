@@ -0,0 +1,38 @@
+
+package com.crio.qeats.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// {
+//  "id": "1",
+//  "restaurantId": "10",
+//  "userId": "Bunny",
+//  "items": [ ... ],
+//  "total": 225
+// }
+// The restaurantId is empty while the cart holds no items.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Cart {
+
+  @NotNull
+  private String id;
+
+  @NotNull
+  private String restaurantId = "";
+
+  @NotNull
+  private String userId;
+
+  @NotNull
+  private List<Item> items = new ArrayList<>();
+
+  private int total;
+
+}
@@ -0,0 +1,22 @@
+
+package com.crio.qeats.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Menu {
+
+  @NotNull
+  private String restaurantId;
+
+  @NotNull
+  private List<Item> items = new ArrayList<>();
+
+}
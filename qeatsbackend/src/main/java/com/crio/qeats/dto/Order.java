@@ -0,0 +1,41 @@
+
+package com.crio.qeats.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// {
+//  "id": "00ece4e9a8001000",
+//  "restaurantId": "10",
+//  "userId": "Bunny",
+//  "items": [ ... ],
+//  "total": 225,
+//  "placedAt": 1562198500000
+// }
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Order {
+
+  @NotNull
+  private String id;
+
+  @NotNull
+  private String restaurantId;
+
+  @NotNull
+  private String userId;
+
+  @NotNull
+  private List<Item> items = new ArrayList<>();
+
+  private int total;
+
+  // Epoch millis at which the order was accepted.
+  private long placedAt;
+
+}
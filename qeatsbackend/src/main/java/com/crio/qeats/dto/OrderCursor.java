@@ -0,0 +1,59 @@
+
+package com.crio.qeats.dto;
+
+import com.crio.qeats.exceptions.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+import org.bson.types.ObjectId;
+
+/**
+ * Position in an order history, just past the given order. Histories run newest first, ties on
+ * placedAt broken by id, so the next page holds the orders that sort after this one. Clients
+ * get it as an opaque string.
+ */
+@Value
+public class OrderCursor {
+
+  private static final char SEPARATOR = ':';
+
+  private final long placedAt;
+  private final String id;
+
+  public static OrderCursor after(OrderSummary order) {
+    return new OrderCursor(order.getPlacedAt(), order.getId());
+  }
+
+  /**
+   * Decodes a cursor returned by {@link #encode}.
+   * @throws InvalidCursorException if the string is not such a cursor
+   */
+  public static OrderCursor decode(String cursor) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = decoded.indexOf(SEPARATOR);
+      if (separator <= 0 || !isOrderId(decoded.substring(separator + 1))) {
+        throw new InvalidCursorException("Malformed cursor " + cursor);
+      }
+      return new OrderCursor(Long.parseLong(decoded.substring(0, separator)),
+          decoded.substring(separator + 1));
+    } catch (IllegalArgumentException e) {
+      // Also covers NumberFormatException.
+      throw new InvalidCursorException("Malformed cursor " + cursor);
+    }
+  }
+
+  // Ids of the id generator, or ObjectIds of the orders placed before it was introduced.
+  private static boolean isOrderId(String id) {
+    return id.length() == 16
+        && id.chars().allMatch(c -> c >= '0' && c <= '9' || c >= 'a' && c <= 'f')
+        || ObjectId.isValid(id);
+  }
+
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((placedAt + String.valueOf(SEPARATOR) + id)
+            .getBytes(StandardCharsets.UTF_8));
+  }
+
+}
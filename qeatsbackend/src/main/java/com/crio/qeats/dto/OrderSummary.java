@@ -0,0 +1,22 @@
+
+package com.crio.qeats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// An order as listed in the order history, without its items.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+  private String id;
+
+  private String restaurantId;
+
+  private int total;
+
+  private long placedAt;
+
+}
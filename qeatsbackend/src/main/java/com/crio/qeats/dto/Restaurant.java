@@ -7,15 +7,20 @@
 
 package com.crio.qeats.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import javax.validation.constraints.NotNull;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.experimental.FieldDefaults;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
+import lombok.experimental.NonFinal;
 
 // TODO: CRIO_TASK_MODULE_SERIALIZATION
 //  Implement Restaurant class.
@@ -35,10 +40,9 @@ import lombok.experimental.FieldDefaults;
 //  ]
 // }
 
-@FieldDefaults(level = AccessLevel.PRIVATE)
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
+// Restaurants are immutable snapshots, shared as-is by the cache tiers and across requests.
+// Derive modified copies with toBuilder().
+@Value
 public class Restaurant {
 
   @JsonIgnore
@@ -69,7 +73,56 @@ public class Restaurant {
   String closesAt;
 
   @NotNull
-  List<String> attributes = new ArrayList<>();;
-    
-}
+  List<String> attributes;
+
+  // Cached by contentHash(); 0 until then.
+  @JsonIgnore
+  @NonFinal
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  int contentHash;
+
+  @Builder(toBuilder = true)
+  public Restaurant(String id, String restaurantId, String name, String city, String imageUrl,
+      double latitude, double longitude, String opensAt, String closesAt,
+      List<String> attributes) {
+    this.id = id;
+    this.restaurantId = restaurantId;
+    this.name = name;
+    this.city = city;
+    this.imageUrl = imageUrl;
+    this.latitude = latitude;
+    this.longitude = longitude;
+    this.opensAt = opensAt;
+    this.closesAt = closesAt;
+    this.attributes = attributes == null ? Collections.emptyList()
+        : Collections.unmodifiableList(new ArrayList<>(attributes));
+  }
+
+  // The id is never serialized, so a deserialized restaurant does not have one.
+  @JsonCreator
+  private Restaurant(@JsonProperty("restaurantId") String restaurantId,
+      @JsonProperty("name") String name, @JsonProperty("city") String city,
+      @JsonProperty("imageUrl") String imageUrl, @JsonProperty("latitude") double latitude,
+      @JsonProperty("longitude") double longitude, @JsonProperty("opensAt") String opensAt,
+      @JsonProperty("closesAt") String closesAt,
+      @JsonProperty("attributes") List<String> attributes) {
+    this(null, restaurantId, name, city, imageUrl, latitude, longitude, opensAt, closesAt,
+        attributes);
+  }
+
+  /**
+   * Returns the hash code of the restaurant, computed once per instance.
+   */
+  public int contentHash() {
+    // Racy like String.hashCode: every thread computes the same value.
+    int hash = contentHash;
+    if (hash == 0) {
+      hash = hashCode();
+      contentHash = hash;
+    }
+    return hash;
+  }
 
+}
@@ -0,0 +1,126 @@
+
+package com.crio.qeats.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// The restaurant fields a client can pick with the fields= parameter. Names are the JSON
+// property names, which are also the Mongo field names.
+public enum RestaurantField {
+
+  RESTAURANT_ID("restaurantId") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeStringField(getName(), restaurant.getRestaurantId());
+    }
+  },
+  NAME("name") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeStringField(getName(), restaurant.getName());
+    }
+  },
+  CITY("city") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeStringField(getName(), restaurant.getCity());
+    }
+  },
+  IMAGE_URL("imageUrl") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeStringField(getName(), restaurant.getImageUrl());
+    }
+  },
+  LATITUDE("latitude") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeNumberField(getName(), restaurant.getLatitude());
+    }
+  },
+  LONGITUDE("longitude") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeNumberField(getName(), restaurant.getLongitude());
+    }
+  },
+  OPENS_AT("opensAt") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeStringField(getName(), restaurant.getOpensAt());
+    }
+  },
+  CLOSES_AT("closesAt") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeStringField(getName(), restaurant.getClosesAt());
+    }
+  },
+  ATTRIBUTES("attributes") {
+    @Override
+    public void write(Restaurant restaurant, JsonGenerator generator) throws IOException {
+      generator.writeArrayFieldStart(getName());
+      for (String attribute : restaurant.getAttributes()) {
+        generator.writeString(attribute);
+      }
+      generator.writeEndArray();
+    }
+  };
+
+  // Matches a comma-separated list of field names, for validating the fields= parameter.
+  public static final String LIST_PATTERN = "^(restaurantId|name|city|imageUrl|latitude"
+      + "|longitude|opensAt|closesAt|attributes)(,(restaurantId|name|city|imageUrl|latitude"
+      + "|longitude|opensAt|closesAt|attributes))*$";
+
+  private final String name;
+
+  RestaurantField(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Writes this field of the restaurant as a property of the current JSON object.
+   */
+  public abstract void write(Restaurant restaurant, JsonGenerator generator) throws IOException;
+
+  /**
+   * Parses a comma-separated list of field names, or returns null (all fields) for a null list.
+   * @throws IllegalArgumentException on an unknown field name
+   */
+  public static Set<RestaurantField> parse(String fields) {
+    if (fields == null) {
+      return null;
+    }
+
+    Set<RestaurantField> parsed = EnumSet.noneOf(RestaurantField.class);
+    for (String name : fields.split(",")) {
+      parsed.add(fromName(name.trim()));
+    }
+    return parsed;
+  }
+
+  /**
+   * Formats the fields as a canonical comma-separated list, in declaration order.
+   */
+  public static String format(Set<RestaurantField> fields) {
+    return fields.stream().sorted().map(RestaurantField::getName)
+        .collect(Collectors.joining(","));
+  }
+
+  private static RestaurantField fromName(String name) {
+    for (RestaurantField field : values()) {
+      if (field.name.equals(name)) {
+        return field;
+      }
+    }
+    throw new IllegalArgumentException("Unknown restaurant field " + name);
+  }
+
+}
@@ -0,0 +1,22 @@
+package com.crio.qeats.dto;
+
+// The groups of search results, in the order the list search returns them. Names are the event
+// names of the server-sent-events search.
+public enum SearchTier {
+
+  EXACT_NAME("exact-name"),
+  ATTRIBUTES("attributes"),
+  ITEM_NAME("item-name"),
+  ITEM_ATTRIBUTES("item-attributes");
+
+  private final String name;
+
+  SearchTier(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+}
@@ -0,0 +1,32 @@
+
+package com.crio.qeats.events;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Delivers every published event to each subscribed handler. This is the seam for the transport:
+ * {@link RingBufferEventBus} keeps events in process, and a bus backed by an external broker
+ * would implement the same contract.
+ */
+public interface EventBus<E> extends AutoCloseable {
+
+  /**
+   * Subscribes the handler; only allowed before {@link #start}.
+   */
+  void subscribe(String name, EventHandler<? super E> handler);
+
+  void start();
+
+  /**
+   * Publishes an event, filled in by the translator from the argument. Events may be
+   * preallocated and reused, so the translator must set every field.
+   */
+  <A> void publish(BiConsumer<? super E, A> translator, A argument);
+
+  /**
+   * Stops the handlers once they have handled every event published so far.
+   */
+  @Override
+  void close();
+
+}
@@ -0,0 +1,14 @@
+
+package com.crio.qeats.events;
+
+/**
+ * Consumes the events of a bus, in order, on a thread of its own. Events arrive in batches of
+ * whatever was published since the previous batch, so that handlers can coalesce their side
+ * effects and apply them once per batch, at {@code endOfBatch}.
+ * The event may be reused once the call returns, so it must not be kept.
+ */
+public interface EventHandler<E> {
+
+  void onEvent(E event, long sequence, boolean endOfBatch);
+
+}
@@ -0,0 +1,32 @@
+
+package com.crio.qeats.events;
+
+import com.crio.qeats.cache.OrderHistoryCache;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Drops the cached order history of the users whose orders were just stored, with one DEL per
+// batch.
+@Component
+public class OrderHistoryInvalidator implements EventHandler<PostOrderEvent> {
+
+  @Autowired
+  private OrderHistoryCache orderHistoryCache;
+
+  private final Set<String> userIds = new LinkedHashSet<>();
+
+  @Override
+  public void onEvent(PostOrderEvent event, long sequence, boolean endOfBatch) {
+    userIds.add(event.getUserId());
+    if (endOfBatch) {
+      try {
+        orderHistoryCache.invalidate(userIds);
+      } finally {
+        userIds.clear();
+      }
+    }
+  }
+
+}
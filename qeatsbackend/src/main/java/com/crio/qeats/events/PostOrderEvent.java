@@ -0,0 +1,23 @@
+package com.crio.qeats.events;
+
+import com.crio.qeats.dto.Order;
+import lombok.Data;
+
+// Published once an order is stored, again for orders replayed from the journal, so handlers
+// must be idempotent. Instances are preallocated in the ring and reused.
+@Data
+public class PostOrderEvent {
+
+  private String orderId;
+  private String userId;
+  private String restaurantId;
+  private int total;
+
+  public void set(Order order) {
+    this.orderId = order.getId();
+    this.userId = order.getUserId();
+    this.restaurantId = order.getRestaurantId();
+    this.total = order.getTotal();
+  }
+
+}
@@ -0,0 +1,68 @@
+package com.crio.qeats.events;
+
+import com.crio.qeats.cache.OrderCacheKeys;
+import com.crio.qeats.configs.RedisConfiguration;
+import com.crio.qeats.utils.RedisScript;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+
+/**
+ * Counts the orders of every restaurant in a Redis hash, all orders of a batch in one script
+ * call. Each order leaves a marker for a day, long enough to outlive any journal replay, so an
+ * order published again is not counted again. Also counts all orders as
+ * {@code qeats.orders.placed}.
+ */
+@Component
+public class RestaurantOrderCounter implements EventHandler<PostOrderEvent> {
+
+  private static final RedisScript COUNT = RedisScript.fromResources("redis/order_count.lua");
+  private static final long MARKER_TTL_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private final List<String> keys = new ArrayList<>();
+  private final List<String> args = new ArrayList<>();
+  private Counter ordersPlaced;
+
+  @PostConstruct
+  public void registerMeters() {
+    ordersPlaced = Counter.builder("qeats.orders.placed")
+        .description("Orders placed").register(meterRegistry);
+  }
+
+  @Override
+  public void onEvent(PostOrderEvent event, long sequence, boolean endOfBatch) {
+    if (keys.isEmpty()) {
+      keys.add(OrderCacheKeys.RESTAURANT_ORDER_COUNTS);
+      args.add(String.valueOf(MARKER_TTL_SECONDS));
+    }
+    keys.add(OrderCacheKeys.counted(event.getOrderId()));
+    args.add(event.getRestaurantId());
+    if (endOfBatch) {
+      try {
+        flush();
+      } finally {
+        keys.clear();
+        args.clear();
+      }
+    }
+  }
+
+  private void flush() {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      ordersPlaced.increment((Long) COUNT.eval(jedis, keys, args));
+    }
+  }
+
+}
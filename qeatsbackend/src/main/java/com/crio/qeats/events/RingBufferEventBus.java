@@ -0,0 +1,201 @@
+
+package com.crio.qeats.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * An in-process event bus over a ring of preallocated events, in the manner of the LMAX
+ * Disruptor. Publishers claim a sequence with a compare-and-set on the cursor, fill in the event
+ * of its slot and mark the slot published; no lock is taken. Every handler follows the ring on a
+ * thread of its own, handling all published events it has not seen yet as one batch. A publisher
+ * that would overwrite an event some handler has not handled yet waits for it, so a slow handler
+ * slows publishers down rather than losing events.
+ */
+@Log4j2
+public class RingBufferEventBus<E> implements EventBus<E> {
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static final int SPINS_BEFORE_PARKING = 100;
+
+  private final String name;
+  private final int mask;
+  private final Object[] events;
+  // The sequence last published in each slot, -1 until the first lap.
+  private final AtomicLongArray published;
+  // The last claimed sequence.
+  private final AtomicLong cursor = new AtomicLong(-1);
+  private final List<Subscriber> subscribers = new ArrayList<>();
+
+  private volatile boolean running;
+  // Lowest subscriber sequence a publisher has seen; written racily, so it may lag behind.
+  private volatile long cachedGatingSequence = -1;
+
+  public RingBufferEventBus(String name, int size, Supplier<E> eventFactory) {
+    if (Integer.bitCount(size) != 1) {
+      throw new IllegalArgumentException("Ring size must be a power of two: " + size);
+    }
+    this.name = name;
+    this.mask = size - 1;
+    this.events = new Object[size];
+    this.published = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      events[i] = eventFactory.get();
+      published.set(i, -1);
+    }
+  }
+
+  @Override
+  public void subscribe(String handlerName, EventHandler<? super E> handler) {
+    if (running) {
+      throw new IllegalStateException("Handlers must subscribe before the bus starts");
+    }
+    subscribers.add(new Subscriber(handlerName, handler));
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    for (Subscriber subscriber : subscribers) {
+      Thread thread = new Thread(subscriber, name + "-" + subscriber.name);
+      thread.setDaemon(true);
+      subscriber.thread = thread;
+      thread.start();
+    }
+  }
+
+  @Override
+  public <A> void publish(BiConsumer<? super E, A> translator, A argument) {
+    if (!running) {
+      throw new IllegalStateException("Event bus " + name + " is not running");
+    }
+    long sequence = claim();
+    translator.accept(event(sequence), argument);
+    published.lazySet(index(sequence), sequence);
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.thread != null) {
+        try {
+          subscriber.thread.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of published events the slowest handler has not handled yet.
+   */
+  public long backlog() {
+    return cursor.get() - minimumSubscriberSequence();
+  }
+
+  private long claim() {
+    int spins = 0;
+    while (true) {
+      long current = cursor.get();
+      long next = current + 1;
+      long wrapPoint = next - events.length;
+      if (wrapPoint > cachedGatingSequence) {
+        long gatingSequence = minimumSubscriberSequence();
+        if (wrapPoint > gatingSequence) {
+          // The ring is full: wait for the slowest handler.
+          if (++spins > SPINS_BEFORE_PARKING) {
+            LockSupport.parkNanos(1);
+          }
+          continue;
+        }
+        cachedGatingSequence = gatingSequence;
+      }
+      if (cursor.compareAndSet(current, next)) {
+        return next;
+      }
+    }
+  }
+
+  private long minimumSubscriberSequence() {
+    long minimum = cursor.get();
+    for (Subscriber subscriber : subscribers) {
+      minimum = Math.min(minimum, subscriber.sequence.get());
+    }
+    return minimum;
+  }
+
+  @SuppressWarnings("unchecked")
+  private E event(long sequence) {
+    return (E) events[index(sequence)];
+  }
+
+  private int index(long sequence) {
+    return (int) sequence & mask;
+  }
+
+  // Returns the highest sequence from {@code from} on up to which every slot is published, or
+  // from - 1 if {@code from} itself is not.
+  private long highestPublished(long from) {
+    long claimed = cursor.get();
+    long sequence = from;
+    while (sequence <= claimed && published.get(index(sequence)) == sequence) {
+      sequence++;
+    }
+    return sequence - 1;
+  }
+
+  private final class Subscriber implements Runnable {
+
+    private final String name;
+    private final EventHandler<? super E> handler;
+    // The last sequence handled.
+    private final AtomicLong sequence = new AtomicLong(-1);
+    private Thread thread;
+
+    private Subscriber(String name, EventHandler<? super E> handler) {
+      this.name = name;
+      this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+      int idleSpins = 0;
+      while (true) {
+        long next = sequence.get() + 1;
+        long available = highestPublished(next);
+        if (available < next) {
+          if (!running && cursor.get() < next) {
+            return;
+          }
+          if (++idleSpins > SPINS_BEFORE_PARKING) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+          }
+          continue;
+        }
+
+        idleSpins = 0;
+        for (long current = next; current <= available; current++) {
+          try {
+            handler.onEvent(event(current), current, current == available);
+          } catch (RuntimeException e) {
+            log.warn("Handler {} of {} failed on event #{}", name, RingBufferEventBus.this.name,
+                current, e);
+          }
+        }
+        sequence.lazySet(available);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,15 @@
+
+package com.crio.qeats.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a bulkhead turns work away, because it is full or the work took too long.
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadUnavailableException extends RuntimeException {
+
+  public BulkheadUnavailableException(String message) {
+    super(message);
+  }
+
+}
@@ -0,0 +1,19 @@
+
+package com.crio.qeats.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class CartNotFoundException extends QEatsException {
+
+  public CartNotFoundException(String message) {
+    super(message);
+  }
+
+  @Override
+  public int getErrorType() {
+    return CART_NOT_FOUND;
+  }
+
+}
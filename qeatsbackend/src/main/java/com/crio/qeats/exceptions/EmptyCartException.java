@@ -0,0 +1,19 @@
+
+package com.crio.qeats.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class EmptyCartException extends QEatsException {
+
+  public EmptyCartException(String message) {
+    super(message);
+  }
+
+  @Override
+  public int getErrorType() {
+    return EMPTY_CART;
+  }
+
+}
@@ -0,0 +1,19 @@
+
+package com.crio.qeats.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ItemNotFoundInRestaurantMenuException extends QEatsException {
+
+  public ItemNotFoundInRestaurantMenuException(String message) {
+    super(message);
+  }
+
+  @Override
+  public int getErrorType() {
+    return ITEM_NOT_FOUND_IN_RESTAURANT_MENU;
+  }
+
+}
@@ -0,0 +1,27 @@
+
+package com.crio.qeats.exceptions;
+
+import com.crio.qeats.dto.Cart;
+
+// Not thrown out of the API: the cart is returned unchanged, with this error type, so that the
+// client can offer to clear it first.
+public class ItemNotFromSameRestaurantException extends QEatsException {
+
+  private final Cart cart;
+
+  public ItemNotFromSameRestaurantException(String message, Cart cart) {
+    super(message);
+    this.cart = cart;
+  }
+
+  // The cart as it was when the item was turned away.
+  public Cart getCart() {
+    return cart;
+  }
+
+  @Override
+  public int getErrorType() {
+    return ITEM_NOT_FROM_SAME_RESTAURANT;
+  }
+
+}
@@ -0,0 +1,20 @@
+
+package com.crio.qeats.exceptions;
+
+import java.util.List;
+
+// Thrown when orders are stored under ids that other, different orders already have.
+public class OrderIdConflictException extends RuntimeException {
+
+  private final List<String> orderIds;
+
+  public OrderIdConflictException(List<String> orderIds) {
+    super("Order ids already used by other orders: " + orderIds);
+    this.orderIds = orderIds;
+  }
+
+  public List<String> getOrderIds() {
+    return orderIds;
+  }
+
+}
@@ -0,0 +1,29 @@
+
+package com.crio.qeats.exchanges;
+
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body of both POST and DELETE /qeats/v1/cart/item.
+// {
+//  "cartId": "1",
+//  "itemId": "1",
+//  "restaurantId": "10"
+// }
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddCartRequest {
+
+  @NotNull
+  private String cartId;
+
+  @NotNull
+  private String itemId;
+
+  @NotNull
+  private String restaurantId;
+
+}
@@ -0,0 +1,20 @@
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.dto.Cart;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The cart after the change, and 0 as cartResponseType; or the unchanged cart and the error type
+// of the reason it was left alone, e.g. 102 for an item from another restaurant.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartModifiedResponse {
+
+  private Cart cart;
+
+  private int cartResponseType;
+
+}
@@ -0,0 +1,18 @@
+
+package com.crio.qeats.exchanges;
+
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Deserializes the query params of /qeats/v1/cart?userId=Bunny.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetCartRequest {
+
+  @NotNull
+  private String userId;
+
+}
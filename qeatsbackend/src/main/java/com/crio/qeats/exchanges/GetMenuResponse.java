@@ -0,0 +1,33 @@
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.dto.Menu;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// {
+//  "menu": {
+//    "restaurantId": "11",
+//    "items": [
+//      {
+//        "id": "1",
+//        "itemId": "10",
+//        "name": "Idly",
+//        "imageUrl": "www.google.com",
+//        "attributes": [
+//          "South Indian"
+//        ],
+//        "price": 45
+//      }
+//    ]
+//  }
+// }
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetMenuResponse {
+
+  private Menu menu;
+
+}
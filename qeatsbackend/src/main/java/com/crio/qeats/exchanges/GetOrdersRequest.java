@@ -0,0 +1,30 @@
+
+package com.crio.qeats.exchanges;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Deserializes the query params of /qeats/v1/orders?userId=Bunny&limit=20&after=MTU2M...
+// after is the nextCursor of the previous page, and absent for the first one.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetOrdersRequest {
+
+  public static final int DEFAULT_LIMIT = 20;
+  public static final int MAX_LIMIT = 100;
+
+  @NotNull
+  private String userId;
+
+  @Min(1)
+  @Max(MAX_LIMIT)
+  private int limit = DEFAULT_LIMIT;
+
+  private String after;
+
+}
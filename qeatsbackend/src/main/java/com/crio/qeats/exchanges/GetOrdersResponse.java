@@ -0,0 +1,32 @@
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.dto.OrderSummary;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// {
+//  "orders": [
+//    {
+//      "id": "00ece4e9a8001000",
+//      "restaurantId": "10",
+//      "total": 225,
+//      "placedAt": 1562198500000
+//    }
+//  ],
+//  "nextCursor": "MTU2MjE5ODUwMDAwMDowMGVjZTRlOWE4MDAxMDAw"
+// }
+// nextCursor is null on the last page.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetOrdersResponse {
+
+  private List<OrderSummary> orders = new ArrayList<>();
+
+  private String nextCursor;
+
+}
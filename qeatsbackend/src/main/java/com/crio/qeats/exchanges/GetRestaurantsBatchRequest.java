@@ -0,0 +1,44 @@
+
+package com.crio.qeats.exchanges;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body of POST /qeats/v1/restaurants/batch: one entry per location, each validated like the
+// query params of GET /qeats/v1/restaurants.
+// {
+//  "requests": [
+//    { "latitude": 28.4900591, "longitude": 77.536386 },
+//    { "latitude": 28.4901, "longitude": 77.5364, "fields": "restaurantId,name" }
+//  ]
+// }
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetRestaurantsBatchRequest {
+
+  public static final int MAX_REQUESTS = 5000;
+  // Each search is several queries of its own, so far fewer of them are taken.
+  public static final int MAX_SEARCHES = 50;
+
+  @Valid
+  @NotEmpty
+  @Size(max = MAX_REQUESTS)
+  private List<GetRestaurantsRequest> requests;
+
+  @JsonIgnore
+  @AssertTrue(message = "at most " + MAX_SEARCHES + " requests may search")
+  public boolean isSearchCountAllowed() {
+    return requests == null || requests.stream()
+        .filter(request -> request.getSearchFor() != null && !request.getSearchFor().isEmpty())
+        .count() <= MAX_SEARCHES;
+  }
+
+}
@@ -0,0 +1,17 @@
+
+package com.crio.qeats.exchanges;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One response per entry of the GetRestaurantsBatchRequest, in the same order.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetRestaurantsBatchResponse {
+
+  private List<GetRestaurantsResponse> responses;
+
+}
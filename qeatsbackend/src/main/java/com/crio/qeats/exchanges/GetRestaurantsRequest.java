@@ -6,9 +6,11 @@
 
 package com.crio.qeats.exchanges;
 
+import com.crio.qeats.dto.RestaurantField;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -34,6 +36,11 @@ public class GetRestaurantsRequest {
     
     String searchFor;
 
+    // Optional comma-separated list of the restaurant fields to return, e.g.
+    // fields=restaurantId,name,latitude,longitude. All fields are returned when absent.
+    @Pattern(regexp = RestaurantField.LIST_PATTERN)
+    String fields;
+
     public GetRestaurantsRequest() {}
 
     public GetRestaurantsRequest(@NotNull @Max(90) @Min(-90) Double latitude,
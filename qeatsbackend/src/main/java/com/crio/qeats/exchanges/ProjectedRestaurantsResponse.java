@@ -0,0 +1,60 @@
+
+package com.crio.qeats.exchanges;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+// A GetRestaurantsResponse for a request with fields=, serialized with only those fields of each
+// restaurant.
+@Getter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+@JsonSerialize(using = ProjectedRestaurantsResponse.Serializer.class)
+public class ProjectedRestaurantsResponse extends GetRestaurantsResponse {
+
+  private final Set<RestaurantField> fields;
+
+  public ProjectedRestaurantsResponse(List<Restaurant> restaurants, Set<RestaurantField> fields) {
+    super(restaurants);
+    this.fields = fields;
+  }
+
+  public static class Serializer extends JsonSerializer<ProjectedRestaurantsResponse> {
+
+    @Override
+    public void serialize(ProjectedRestaurantsResponse response, JsonGenerator generator,
+        SerializerProvider serializers) throws IOException {
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("restaurants");
+      for (Restaurant restaurant : response.getRestaurants()) {
+        writeRestaurant(restaurant, response.getFields(), generator);
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+
+    /**
+     * Writes one restaurant as a JSON object with only the given fields.
+     */
+    public static void writeRestaurant(Restaurant restaurant, Set<RestaurantField> fields,
+        JsonGenerator generator) throws IOException {
+      generator.writeStartObject();
+      for (RestaurantField field : fields) {
+        field.write(restaurant, generator);
+      }
+      generator.writeEndObject();
+    }
+
+  }
+
+}
@@ -6,6 +6,16 @@ public class GlobalConstants {
   // Amount of time after which the redis entries should expire.
   public static final int REDIS_ENTRY_EXPIRY_IN_SECONDS = 3600;
 
+  // Geohash precision used to bucket locations into cache cells (~150m x 150m).
+  public static final int GEOHASH_PRECISION = 7;
+
+  // Amount of time after which entries of the in-process cache tier should expire.
+  public static final int LOCAL_CACHE_ENTRY_EXPIRY_IN_SECONDS = 300;
+  public static final int LOCAL_CACHE_MAX_ENTRIES = 10_000;
+
+  // Restaurants whose serialized JSON is kept in-process; the least recently used go first.
+  public static final int JSON_FRAGMENTS_MAX_ENTRIES = 100_000;
+
   // TIP(MODULE_RABBITMQ): RabbitMQ related configs.
   public static final String EXCHANGE_NAME = "rabbitmq-exchange";
   public static final String QUEUE_NAME = "rabbitmq-queue";
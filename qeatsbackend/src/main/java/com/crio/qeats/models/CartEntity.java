@@ -0,0 +1,40 @@
+
+package com.crio.qeats.models;
+
+import com.crio.qeats.dto.Item;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Durable copy of the carts, written behind the live ones in Redis.
+@Data
+@Document(collection = "carts")
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartEntity {
+
+  @Id
+  private String id;
+
+  @NotNull
+  private String restaurantId;
+
+  @NotNull
+  @Indexed(unique = true)
+  private String userId;
+
+  @NotNull
+  private List<Item> items = new ArrayList<>();
+
+  private int total;
+
+  // Of the Redis copy this was written from; a write behind never replaces a later version.
+  private long version;
+
+}
@@ -0,0 +1,42 @@
+
+package com.crio.qeats.models;
+
+import com.crio.qeats.dto.Item;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// user_history serves order histories in the order they are paged in, newest first.
+@Data
+@Document(collection = "orders")
+@CompoundIndex(name = OrderEntity.USER_HISTORY_INDEX,
+    def = "{'userId': 1, 'placedAt': -1, '_id': -1}")
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEntity {
+
+  public static final String USER_HISTORY_INDEX = "user_history";
+
+  @Id
+  private String id;
+
+  @NotNull
+  private String restaurantId;
+
+  @NotNull
+  private String userId;
+
+  @NotNull
+  private List<Item> items = new ArrayList<>();
+
+  private int total;
+
+  private long placedAt;
+
+}
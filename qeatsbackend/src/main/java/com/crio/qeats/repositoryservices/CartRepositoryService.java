@@ -0,0 +1,61 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+
+public interface CartRepositoryService {
+
+  /**
+   * Get the cart of the given user, creating an empty one if the user has none.
+   * @param userId id of the user
+   * @return the user's cart
+   */
+  Cart findOrCreateCart(String userId);
+
+  /**
+   * Get the cart with the given id.
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart findCartById(String cartId);
+
+  /**
+   * Add the item to the cart, which from then on belongs to the given restaurant.
+   * @return the cart with the item added
+   * @throws CartNotFoundException if there is no such cart
+   * @throws ItemNotFromSameRestaurantException if the cart holds items of another restaurant
+   */
+  Cart addItem(Item item, String cartId, String restaurantId);
+
+  /**
+   * Remove one instance of the item from the cart; the cart is left as is if it has none.
+   * @return the cart with the item removed
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart removeItem(String itemId, String cartId);
+
+  /**
+   * Remove all items from the cart.
+   * @return the emptied cart
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart clearCart(String cartId);
+
+  /**
+   * Empty the cart and return the items it held, atomically: the same items are never checked
+   * out twice, and items added right after stay in the cart.
+   * @return the cart as it was before it was emptied
+   * @throws CartNotFoundException if there is no such cart
+   */
+  Cart checkoutCart(String cartId);
+
+  /**
+   * Put back the items of a checkout whose order could not be placed. Carts that got items since
+   * the checkout keep those instead.
+   * @param cart the cart returned by the checkout
+   */
+  void restoreCart(Cart cart);
+
+}
@@ -0,0 +1,230 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.configs.RedisConfiguration;
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+import com.crio.qeats.models.CartEntity;
+import com.crio.qeats.repositories.CartRepository;
+import com.crio.qeats.utils.RedisScript;
+import com.crio.qeats.utils.StripedLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+/**
+ * Carts live in Redis, and every change to one is a single script call, applied atomically by
+ * Redis. Changed carts are written behind to Mongo by {@link CartWriteBehind}, which is only read
+ * to bring back carts that Redis no longer has.
+ * Only bringing a cart back from Mongo, or creating a user's first cart, takes a stripe of a
+ * {@link StripedLock} within this instance. Double taps and devices of the same user then do it
+ * once instead of each reading Mongo; changes to a cart Redis has never take the lock, as the
+ * scripts are atomic already.
+ */
+@Service
+@Log4j2
+public class CartRepositoryServiceImpl implements CartRepositoryService {
+
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  // Refreshed on every change; carts untouched for that long are left to Mongo.
+  @Value("${qeats.cart.ttl-seconds:604800}")
+  private int cartTtlSeconds;
+
+  @Value("${qeats.cart.lock.stripes:0}")
+  private int cartLockStripes;
+
+  private StripedLock cartLock;
+  private Counter mongoReads;
+
+  @PostConstruct
+  public void createCartLock() {
+    cartLock = new StripedLock("cart", cartLockStripes, meterRegistry);
+    mongoReads = Counter.builder("qeats.cart.mongo.reads")
+        .description("Carts looked up in Mongo because Redis did not have them")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public Cart findOrCreateCart(String userId) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      Cart cached = cachedCart(jedis, mappedCartId(jedis, userId));
+      if (cached != null) {
+        return cached;
+      }
+    }
+    return cartLock.call(RedisCarts.userKey(userId), () -> loadOrCreateCart(userId));
+  }
+
+  private Cart loadOrCreateCart(String userId) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      // Another request of the user may have done it while this one waited for the lock.
+      String cartId = mappedCartId(jedis, userId);
+      Cart cached = cachedCart(jedis, cartId);
+      if (cached != null) {
+        return cached;
+      }
+
+      mongoReads.increment();
+      Optional<CartEntity> stored = cartRepository.findCartByUserId(userId);
+      Cart cart = stored.map(CartRepositoryServiceImpl::toCart)
+          .orElseGet(() -> new Cart(new ObjectId().toHexString(), "", userId,
+              new ArrayList<>(), 0));
+      Object reply = load(jedis, cart, stored.map(CartEntity::getVersion).orElse(0L),
+          !stored.isPresent(), cartId);
+      if (RedisCarts.status(reply) == RedisCarts.OTHER_CART) {
+        // A concurrent request created the user's cart first.
+        String winnerId = (String) ((List<?>) reply).get(1);
+        return findCartById(winnerId);
+      }
+      return RedisCarts.toCart(cart.getId(), reply);
+    }
+  }
+
+  // The mapping lives as long as the cart is in use, like the cart itself.
+  private String mappedCartId(Jedis jedis, String userId) {
+    Pipeline pipeline = jedis.pipelined();
+    Response<String> cartId = pipeline.get(RedisCarts.userKey(userId));
+    pipeline.expire(RedisCarts.userKey(userId), cartTtlSeconds);
+    pipeline.sync();
+    return cartId.get();
+  }
+
+  private static Cart cachedCart(Jedis jedis, String cartId) {
+    if (cartId == null) {
+      return null;
+    }
+    Object reply = RedisCarts.GET.eval(jedis, RedisCarts.keys(cartId), new ArrayList<>());
+    return RedisCarts.status(reply) == RedisCarts.DONE ? RedisCarts.toCart(cartId, reply) : null;
+  }
+
+  @Override
+  public Cart findCartById(String cartId) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      return RedisCarts.toCart(cartId, evalCached(jedis, RedisCarts.GET, cartId));
+    }
+  }
+
+  @Override
+  public Cart addItem(Item item, String cartId, String restaurantId) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      Object reply = evalCached(jedis, RedisCarts.ADD_ITEM, cartId, cartId, restaurantId,
+          RedisCarts.toJson(item), String.valueOf(item.getPrice()),
+          String.valueOf(cartTtlSeconds));
+      Cart cart = RedisCarts.toCart(cartId, reply);
+      if (RedisCarts.status(reply) == RedisCarts.OTHER_RESTAURANT) {
+        throw new ItemNotFromSameRestaurantException("Cart " + cartId
+            + " holds items of restaurant " + cart.getRestaurantId(), cart);
+      }
+      return cart;
+    }
+  }
+
+  @Override
+  public Cart removeItem(String itemId, String cartId) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      return RedisCarts.toCart(cartId, evalCached(jedis, RedisCarts.REMOVE_ITEM, cartId,
+          cartId, itemId, String.valueOf(cartTtlSeconds)));
+    }
+  }
+
+  @Override
+  public Cart clearCart(String cartId) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      return RedisCarts.toCart(cartId, evalCached(jedis, RedisCarts.CLEAR, cartId, cartId,
+          String.valueOf(cartTtlSeconds)));
+    }
+  }
+
+  @Override
+  public Cart checkoutCart(String cartId) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      return RedisCarts.toCart(cartId, evalCached(jedis, RedisCarts.CHECKOUT, cartId, cartId,
+          String.valueOf(cartTtlSeconds)));
+    }
+  }
+
+  @Override
+  public void restoreCart(Cart cart) {
+    List<String> args = new ArrayList<>(Arrays.asList(cart.getId(), cart.getRestaurantId(),
+        String.valueOf(cart.getTotal()), String.valueOf(cartTtlSeconds)));
+    for (Item item : cart.getItems()) {
+      args.add(RedisCarts.toJson(item));
+    }
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      evalCached(jedis, RedisCarts.RESTORE, cart.getId(), args.toArray(new String[0]));
+    }
+  }
+
+  // Runs the script against the cart, first bringing the cart back from Mongo if Redis does not
+  // have it.
+  private Object evalCached(Jedis jedis, RedisScript script, String cartId, String... args) {
+    Object reply = script.eval(jedis, RedisCarts.keys(cartId), Arrays.asList(args));
+    if (RedisCarts.status(reply) != RedisCarts.NOT_CACHED) {
+      return reply;
+    }
+
+    cartLock.run(cartId, () -> loadFromMongo(jedis, cartId));
+    reply = script.eval(jedis, RedisCarts.keys(cartId), Arrays.asList(args));
+    if (RedisCarts.status(reply) == RedisCarts.NOT_CACHED) {
+      throw new CartNotFoundException("Cart " + cartId + " could not be loaded");
+    }
+    return reply;
+  }
+
+  private void loadFromMongo(Jedis jedis, String cartId) {
+    // Another request may have brought it back while this one waited for the lock.
+    if (cachedCart(jedis, cartId) != null) {
+      return;
+    }
+
+    mongoReads.increment();
+    CartEntity stored = cartRepository.findById(cartId)
+        .orElseThrow(() -> new CartNotFoundException("No cart with id " + cartId));
+    log.info("Loading cart {} back into Redis", cartId);
+    load(jedis, toCart(stored), stored.getVersion(), false, cartId);
+  }
+
+  private Object load(Jedis jedis, Cart cart, long version, boolean created,
+      String mappedCartId) {
+    List<String> keys = new ArrayList<>(RedisCarts.keys(cart.getId()));
+    keys.add(RedisCarts.userKey(cart.getUserId()));
+
+    List<String> args = new ArrayList<>(Arrays.asList(cart.getId(), cart.getUserId(),
+        cart.getRestaurantId(), String.valueOf(cart.getTotal()),
+        String.valueOf(cartTtlSeconds), created ? "1" : "0",
+        mappedCartId == null ? "" : mappedCartId, String.valueOf(version)));
+    for (Item item : cart.getItems()) {
+      args.add(RedisCarts.toJson(item));
+    }
+    return RedisCarts.LOAD.eval(jedis, keys, args);
+  }
+
+  private static Cart toCart(CartEntity cartEntity) {
+    return new Cart(cartEntity.getId(),
+        cartEntity.getRestaurantId() == null ? "" : cartEntity.getRestaurantId(),
+        cartEntity.getUserId(), cartEntity.getItems(), cartEntity.getTotal());
+  }
+
+}
@@ -0,0 +1,170 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.configs.RedisConfiguration;
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.models.CartEntity;
+import com.google.common.collect.Lists;
+import com.mongodb.BulkWriteError;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Writes the carts changed in Redis to the Mongo carts collection.
+ * Every change adds its cart to a set, so a user's cart is written once per run however often it
+ * changed in between, with the state it has by then. The set is scanned a batch at a time, and
+ * each batch is moved into a processing set that keeps it until Mongo has it, so carts are not
+ * lost when Redis or Mongo fail mid-run. Batches are written in unordered bulk upserts; whatever
+ * a run left in the processing set goes back into the dirty set at the start of the next one.
+ * With several instances that may write a cart twice, which its version makes harmless.
+ * Every change also bumps the version of the cart, and an upsert only replaces an older version,
+ * so a slower writer holding an earlier snapshot cannot overwrite a later one.
+ */
+@Component
+@Log4j2
+public class CartWriteBehind {
+
+  private static final int DUPLICATE_KEY = 11000;
+
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Value("${qeats.cart.write-behind.batch-size:500}")
+  private int batchSize;
+
+  @Scheduled(fixedDelayString = "${qeats.cart.write-behind.interval-ms:1000}")
+  public void flush() {
+    if (!redisConfiguration.isCacheAvailable()) {
+      return;
+    }
+
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      RedisCarts.REQUEUE_DIRTY.eval(jedis, dirtySetKeys(), Collections.emptyList());
+      ScanParams scanParams = new ScanParams().count(batchSize);
+      String cursor = ScanParams.SCAN_POINTER_START;
+      do {
+        ScanResult<String> page = jedis.sscan(RedisCarts.DIRTY_KEY, cursor, scanParams);
+        cursor = page.getStringCursor();
+        // COUNT is only a hint; small sets come back whole.
+        for (List<String> scanned : Lists.partition(page.getResult(), batchSize)) {
+          write(jedis, takeDirty(jedis, scanned));
+        }
+      } while (!cursor.equals(ScanParams.SCAN_POINTER_START));
+    } catch (JedisException e) {
+      log.warn("Failed to write carts behind", e);
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  private static List<String> dirtySetKeys() {
+    return Arrays.asList(RedisCarts.DIRTY_KEY, RedisCarts.PROCESSING_KEY);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> takeDirty(Jedis jedis, List<String> cartIds) {
+    return cartIds.isEmpty() ? cartIds
+        : (List<String>) RedisCarts.TAKE_DIRTY.eval(jedis, dirtySetKeys(), cartIds);
+  }
+
+  private void write(Jedis jedis, List<String> cartIds) {
+    if (cartIds.isEmpty()) {
+      return;
+    }
+
+    Pipeline pipeline = jedis.pipelined();
+    List<Response<List<String>>> hashes = new ArrayList<>(cartIds.size());
+    List<Response<List<String>>> items = new ArrayList<>(cartIds.size());
+    for (String cartId : cartIds) {
+      hashes.add(pipeline.hmget(RedisCarts.cartKey(cartId), "userId", "restaurantId", "total",
+          "version"));
+      items.add(pipeline.lrange(RedisCarts.itemsKey(cartId), 0, -1));
+    }
+    pipeline.sync();
+
+    BulkOperations bulkOperations =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CartEntity.class);
+    List<String> upserted = new ArrayList<>(cartIds.size());
+    for (int i = 0; i < cartIds.size(); i++) {
+      List<String> hash = hashes.get(i).get();
+      if (hash.get(0) == null) {
+        // Expired since it changed; Mongo keeps the last state written.
+        continue;
+      }
+      Cart cart = RedisCarts.toCart(cartIds.get(i), hash.get(0), hash.get(1), hash.get(2),
+          items.get(i).get());
+      long version = hash.get(3) == null ? 0 : Long.parseLong(hash.get(3));
+      bulkOperations.upsert(olderThan(cart.getId(), version),
+          new Update()
+              .set("userId", cart.getUserId())
+              .set("restaurantId", cart.getRestaurantId())
+              .set("items", cart.getItems())
+              .set("total", cart.getTotal())
+              .set("version", version));
+      upserted.add(cart.getId());
+    }
+    List<String> failed = new ArrayList<>();
+    if (!upserted.isEmpty()) {
+      try {
+        bulkOperations.execute();
+      } catch (BulkOperationException e) {
+        for (BulkWriteError error : e.getErrors()) {
+          // The filter missed an existing cart, so the upsert tried to insert its id again: Mongo
+          // already holds this version or a later one.
+          if (error.getCode() != DUPLICATE_KEY) {
+            failed.add(upserted.get(error.getIndex()));
+          }
+        }
+        if (!failed.isEmpty()) {
+          log.warn("Failed to write {} carts to Mongo, retrying on the next run", failed.size(),
+              e);
+        }
+      } catch (RuntimeException e) {
+        log.warn("Failed to write {} carts to Mongo, retrying on the next run", upserted.size(),
+            e);
+        failed.addAll(upserted);
+      }
+    }
+
+    // Failed carts stay in the processing set until the next run requeues them.
+    List<String> done = new ArrayList<>(cartIds);
+    done.removeAll(failed);
+    if (!done.isEmpty()) {
+      jedis.srem(RedisCarts.PROCESSING_KEY, done.toArray(new String[0]));
+    }
+  }
+
+  // Carts written before versions existed have none, and any version replaces them.
+  private static Query olderThan(String cartId, long version) {
+    return Query.query(Criteria.where("_id").is(cartId).orOperator(
+        Criteria.where("version").lt(version),
+        Criteria.where("version").exists(false)));
+  }
+
+}
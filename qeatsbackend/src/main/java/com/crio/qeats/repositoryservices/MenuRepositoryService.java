@@ -0,0 +1,15 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Menu;
+
+public interface MenuRepositoryService {
+
+  /**
+   * Get the menu of the given restaurant.
+   * @param restaurantId id of the restaurant
+   * @return the menu, or null if the restaurant has none
+   */
+  Menu findMenu(String restaurantId);
+
+}
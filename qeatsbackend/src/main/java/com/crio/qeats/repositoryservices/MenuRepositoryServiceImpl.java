@@ -0,0 +1,22 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.repositories.MenuRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MenuRepositoryServiceImpl implements MenuRepositoryService {
+
+  @Autowired
+  private MenuRepository menuRepository;
+
+  @Override
+  public Menu findMenu(String restaurantId) {
+    return menuRepository.findMenuByRestaurantId(restaurantId)
+        .map(menuEntity -> new Menu(menuEntity.getRestaurantId(), menuEntity.getItems()))
+        .orElse(null);
+  }
+
+}
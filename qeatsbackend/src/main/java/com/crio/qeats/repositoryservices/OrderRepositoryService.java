@@ -0,0 +1,32 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.dto.OrderCursor;
+import com.crio.qeats.dto.OrderSummary;
+import com.crio.qeats.exceptions.OrderIdConflictException;
+import java.util.List;
+
+public interface OrderRepositoryService {
+
+  /**
+   * Store the orders. Orders that are stored already are left as they are, so a batch can be
+   * stored again after a failure.
+   * @param orders orders to store
+   * @throws OrderIdConflictException if another order is stored under the id of one of them;
+   *     the other orders are stored
+   */
+  void saveAll(List<Order> orders);
+
+  /**
+   * Get one page of the user's order history, newest first.
+   * Each page is a range scan of the user_history index starting at the cursor, so deep pages
+   * cost the same as the first one.
+   * @param userId id of the user
+   * @param after position of the last order of the previous page; null for the first page
+   * @param limit maximum number of orders to return
+   * @return the orders after the cursor, at most limit of them
+   */
+  List<OrderSummary> findOrderSummaries(String userId, OrderCursor after, int limit);
+
+}
@@ -0,0 +1,103 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.dto.OrderCursor;
+import com.crio.qeats.dto.OrderSummary;
+import com.crio.qeats.exceptions.OrderIdConflictException;
+import com.crio.qeats.models.OrderEntity;
+import com.mongodb.BulkWriteError;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OrderRepositoryServiceImpl implements OrderRepositoryService {
+
+  private static final int DUPLICATE_KEY = 11000;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  // One unordered bulk insert. An order whose id is taken is a replay only if the stored order
+  // is the same; anything else is a conflict, which must not be dropped silently.
+  @Override
+  public void saveAll(List<Order> orders) {
+    if (orders.isEmpty()) {
+      return;
+    }
+
+    List<OrderEntity> orderEntities = orders.stream()
+        .map(order -> new OrderEntity(order.getId(), order.getRestaurantId(), order.getUserId(),
+            order.getItems(), order.getTotal(), order.getPlacedAt()))
+        .collect(Collectors.toList());
+    try {
+      mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderEntity.class)
+          .insert(orderEntities)
+          .execute();
+    } catch (BulkOperationException e) {
+      List<OrderEntity> duplicates = new ArrayList<>();
+      for (BulkWriteError error : e.getErrors()) {
+        if (error.getCode() != DUPLICATE_KEY) {
+          throw e;
+        }
+        duplicates.add(orderEntities.get(error.getIndex()));
+      }
+      List<String> conflicts = conflictingIds(duplicates);
+      if (!conflicts.isEmpty()) {
+        throw new OrderIdConflictException(conflicts);
+      }
+    }
+  }
+
+  private List<String> conflictingIds(List<OrderEntity> duplicates) {
+    Map<String, OrderEntity> stored = mongoTemplate.find(
+        Query.query(Criteria.where("id").in(duplicates.stream()
+            .map(OrderEntity::getId)
+            .collect(Collectors.toList()))), OrderEntity.class)
+        .stream()
+        .collect(Collectors.toMap(OrderEntity::getId, Function.identity()));
+    return duplicates.stream()
+        .filter(duplicate -> !duplicate.equals(stored.get(duplicate.getId())))
+        .map(OrderEntity::getId)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<OrderSummary> findOrderSummaries(String userId, OrderCursor after, int limit) {
+    return mongoTemplate.find(orderSummariesQuery(userId, after, limit), OrderEntity.class)
+        .stream()
+        .map(orderEntity -> new OrderSummary(orderEntity.getId(),
+            orderEntity.getRestaurantId(), orderEntity.getTotal(), orderEntity.getPlacedAt()))
+        .collect(Collectors.toList());
+  }
+
+  // Bounds on userId and placedAt only, so that the whole page is one range of user_history.
+  // Orders sharing the cursor's placedAt are told apart by id with a $nor, which is never
+  // indexed; it only filters the few ties at the start of the range.
+  static Query orderSummariesQuery(String userId, OrderCursor after, int limit) {
+    Criteria criteria = Criteria.where("userId").is(userId);
+    if (after != null) {
+      criteria = criteria.and("placedAt").lte(after.getPlacedAt())
+          .norOperator(Criteria.where("placedAt").is(after.getPlacedAt())
+              .and("id").gte(after.getId()));
+    }
+
+    Query query = new Query(criteria)
+        .with(Sort.by(Sort.Direction.DESC, "placedAt", "id"))
+        .limit(limit);
+    query.fields().include("restaurantId").include("total").include("placedAt");
+    return query;
+  }
+
+}
@@ -0,0 +1,199 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.events.EventBus;
+import com.crio.qeats.events.PostOrderEvent;
+import com.crio.qeats.exceptions.OrderIdConflictException;
+import com.crio.qeats.utils.MappedJournal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the orders of the order journal in Mongo, in batches of whatever became durable since
+ * the previous batch, up to the batch size. A batch is committed to the journal once stored, and
+ * retried until it is; on startup, the orders journaled after the last commit are stored first.
+ * The post-order event of every order is published once it is stored, which on startup also
+ * covers orders whose event was lost with the previous run.
+ * Records that can never be stored, because they cannot be read or their order id is taken by
+ * another order, are moved to the quarantine directory instead of holding up the rest. If the
+ * writer stops anyway, this reports DOWN, as orders are then no longer stored.
+ */
+@Component
+@Log4j2
+public class OrderWriter implements HealthIndicator {
+
+  private static final long POLL_MILLIS = 100;
+  private static final long RETRY_MILLIS = 1000;
+
+  @Autowired
+  private MappedJournal orderJournal;
+
+  @Autowired
+  private OrderRepositoryService orderRepositoryService;
+
+  @Autowired
+  private EventBus<PostOrderEvent> postOrderEventBus;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${qeats.orders.writer.batch-size:1000}")
+  private int batchSize;
+
+  @Value("${qeats.orders.writer.quarantine-dir:orders-quarantine}")
+  private String quarantineDir;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private volatile boolean running;
+  private volatile Throwable stoppedBy;
+  private Thread thread;
+  private Counter quarantined;
+
+  @PostConstruct
+  public void start() throws IOException {
+    Files.createDirectories(Paths.get(quarantineDir));
+    quarantined = Counter.builder("qeats.orders.quarantined")
+        .description("Journaled orders moved to quarantine instead of being stored")
+        .register(meterRegistry);
+    Gauge.builder("qeats.orders.writer.stopped", this, writer -> writer.isStopped() ? 1 : 0)
+        .description("Whether the order writer stopped storing orders")
+        .register(meterRegistry);
+
+    running = true;
+    thread = new Thread(this::run, "order-writer");
+    thread.start();
+  }
+
+  // Orders still waiting stay in the journal, for the next start.
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    thread.join();
+  }
+
+  @Override
+  public Health health() {
+    Health.Builder builder = isStopped() ? Health.down() : Health.up();
+    if (stoppedBy != null) {
+      builder.withException(stoppedBy);
+    }
+    return builder.withDetail("committedSequence", orderJournal.getCommittedSequence())
+        .withDetail("quarantined", (long) quarantined.count())
+        .build();
+  }
+
+  private boolean isStopped() {
+    return running && !thread.isAlive();
+  }
+
+  private void run() {
+    log.info("Storing journaled orders after #{}", orderJournal.getCommittedSequence());
+    try {
+      while (running) {
+        List<MappedJournal.Record> records =
+            orderJournal.read(batchSize, POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (records.isEmpty()) {
+          continue;
+        }
+        List<Order> orders = toOrders(records);
+        if (!store(orders) || !commit(records.get(records.size() - 1).getSequence())) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException | RuntimeException e) {
+      stoppedBy = e;
+      log.error("Order writer stopped; journaled orders are stored on the next start", e);
+    }
+  }
+
+  // Stores the orders, quarantining those whose id is taken, and publishes their events.
+  // Returns false if stopped before the orders could be stored.
+  private boolean store(List<Order> orders) throws InterruptedException, IOException {
+    while (running) {
+      try {
+        orderRepositoryService.saveAll(orders);
+        break;
+      } catch (OrderIdConflictException e) {
+        Set<String> conflicts = new HashSet<>(e.getOrderIds());
+        List<Order> stored = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+          if (conflicts.contains(order.getId())) {
+            quarantine("order-" + order.getId(), objectMapper.writeValueAsBytes(order), e);
+          } else {
+            stored.add(order);
+          }
+        }
+        orders = stored;
+        break;
+      } catch (RuntimeException e) {
+        log.warn("Failed to store {} orders, retrying", orders.size(), e);
+        Thread.sleep(RETRY_MILLIS);
+      }
+    }
+    if (!running) {
+      return false;
+    }
+    for (Order order : orders) {
+      postOrderEventBus.publish((event, stored) -> event.set(stored), order);
+    }
+    return true;
+  }
+
+  // Returns false if stopped before the commit succeeded.
+  private boolean commit(long sequence) throws InterruptedException {
+    while (running) {
+      try {
+        orderJournal.commit(sequence);
+        return true;
+      } catch (IOException e) {
+        log.warn("Failed to commit the order journal at #{}, retrying", sequence, e);
+        Thread.sleep(RETRY_MILLIS);
+      }
+    }
+    return false;
+  }
+
+  // Unreadable records are quarantined and left out.
+  private List<Order> toOrders(List<MappedJournal.Record> records) throws IOException {
+    List<Order> orders = new ArrayList<>(records.size());
+    for (MappedJournal.Record record : records) {
+      try {
+        orders.add(objectMapper.readValue(record.getPayload(), Order.class));
+      } catch (IOException e) {
+        quarantine("record-" + record.getSequence(), record.getPayload(), e);
+      }
+    }
+    return orders;
+  }
+
+  private void quarantine(String name, byte[] payload, Exception cause) throws IOException {
+    Path file = Paths.get(quarantineDir).resolve(name + ".json");
+    Files.write(file, payload);
+    quarantined.increment();
+    log.error("Quarantined journaled order {} in {}", name, file, cause);
+  }
+
+}
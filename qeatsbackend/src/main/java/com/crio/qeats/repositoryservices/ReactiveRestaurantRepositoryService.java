@@ -0,0 +1,31 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Restaurant;
+import java.time.LocalTime;
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link RestaurantRepositoryService}, backed by the reactive Mongo
+ * driver and Lettuce. Lists are cached under the same keys and in the same format, so both
+ * stacks can share one Redis.
+ */
+public interface ReactiveRestaurantRepositoryService {
+
+  Mono<List<Restaurant>> findAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms);
+
+  Mono<List<Restaurant>> findRestaurantsByName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms);
+
+  Mono<List<Restaurant>> findRestaurantsByAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms);
+
+  Mono<List<Restaurant>> findRestaurantsByItemName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms);
+
+  Mono<List<Restaurant>> findRestaurantsByItemAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms);
+
+}
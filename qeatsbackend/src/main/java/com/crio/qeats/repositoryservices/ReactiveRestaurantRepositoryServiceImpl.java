@@ -0,0 +1,192 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.cache.InProcessRestaurantCache;
+import com.crio.qeats.cache.ItemRestaurantIndex;
+import com.crio.qeats.cache.RestaurantCacheKeys;
+import com.crio.qeats.cache.ValidityWindows;
+import com.crio.qeats.configs.ReactiveRedisConnection;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.globals.GlobalConstants;
+import com.crio.qeats.models.ItemEntity;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.GeoUtils;
+import com.crio.qeats.utils.RestaurantMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.regex.Pattern;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@Log4j2
+public class ReactiveRestaurantRepositoryServiceImpl
+    implements ReactiveRestaurantRepositoryService {
+
+  @Autowired
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Autowired
+  private ReactiveRedisConnection reactiveRedisConnection;
+
+  @Autowired
+  private InProcessRestaurantCache inProcessRestaurantCache;
+
+  // Built at startup, so lookups are in-memory and never block the event loop.
+  @Autowired
+  private ItemRestaurantIndex itemRestaurantIndex;
+
+  // Loaded ahead of time as well; computing a window reads no database.
+  @Autowired
+  private ValidityWindows validityWindows;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Override
+  public Mono<List<Restaurant>> findAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms) {
+    String cacheKey = RestaurantCacheKeys.closeBy(GeoUtils.toGeoHashCell(latitude, longitude));
+    return findFromCacheOrLoad(cacheKey, closeByAndOpen(
+        reactiveMongoTemplate.findAll(RestaurantEntity.class), latitude, longitude, currentTime,
+        servingRadiusInKms));
+  }
+
+  @Override
+  public Mono<List<Restaurant>> findRestaurantsByName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    Query query = new Query(Criteria.where("name")
+        .regex("^" + Pattern.quote(searchString) + "$", "i"));
+    return findFromCacheOrLoad(
+        searchCacheKey(RestaurantCacheKeys.NAME, latitude, longitude, searchString, currentTime),
+        closeByAndOpen(reactiveMongoTemplate.find(query, RestaurantEntity.class), latitude,
+            longitude, currentTime, servingRadiusInKms));
+  }
+
+  @Override
+  public Mono<List<Restaurant>> findRestaurantsByAttributes(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    return findFromCacheOrLoad(searchCacheKey(RestaurantCacheKeys.ATTRIBUTES, latitude,
+        longitude, searchString, currentTime),
+        closeByAndOpen(reactiveMongoTemplate.find(attributesMatching(searchString),
+            RestaurantEntity.class), latitude, longitude, currentTime, servingRadiusInKms));
+  }
+
+  @Override
+  public Mono<List<Restaurant>> findRestaurantsByItemName(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    Flux<ItemEntity> items = reactiveMongoTemplate.find(
+        new Query(Criteria.where("name").is(searchString)), ItemEntity.class);
+    return findFromCacheOrLoad(searchCacheKey(RestaurantCacheKeys.ITEM_NAME, latitude,
+        longitude, searchString, currentTime),
+        closeByAndOpen(restaurantsServing(items), latitude, longitude, currentTime,
+            servingRadiusInKms));
+  }
+
+  @Override
+  public Mono<List<Restaurant>> findRestaurantsByItemAttributes(Double latitude,
+      Double longitude, String searchString, LocalTime currentTime, Double servingRadiusInKms) {
+    Flux<ItemEntity> items = reactiveMongoTemplate.find(attributesMatching(searchString),
+        ItemEntity.class);
+    return findFromCacheOrLoad(searchCacheKey(RestaurantCacheKeys.ITEM_ATTRIBUTES, latitude,
+        longitude, searchString, currentTime),
+        closeByAndOpen(restaurantsServing(items), latitude, longitude, currentTime,
+            servingRadiusInKms));
+  }
+
+  private String searchCacheKey(String branch, Double latitude, Double longitude,
+      String searchString, LocalTime currentTime) {
+    return RestaurantCacheKeys.search(GeoUtils.toGeoHashCell(latitude, longitude), branch,
+        searchString, validityWindows.windowOf(currentTime));
+  }
+
+  // Same match as the queries of RestaurantRepository and ItemRepository.
+  private static Query attributesMatching(String searchString) {
+    return new Query(new Criteria().orOperator(
+        Criteria.where("attributes").in(searchString),
+        Criteria.where("attributes").regex(Pattern.quote(searchString), "i")));
+  }
+
+  private Flux<RestaurantEntity> restaurantsServing(Flux<ItemEntity> items) {
+    return items.map(ItemEntity::getId).collectList()
+        .map(itemRestaurantIndex::findRestaurantIds)
+        .flatMapMany(restaurantIds -> reactiveMongoTemplate.find(
+            new Query(Criteria.where("id").in(restaurantIds)), RestaurantEntity.class));
+  }
+
+  private static Mono<List<Restaurant>> closeByAndOpen(Flux<RestaurantEntity> restaurantEntities,
+      Double latitude, Double longitude, LocalTime currentTime, Double servingRadiusInKms) {
+    return restaurantEntities
+        .filter(restaurantEntity -> RestaurantRepositoryServiceImpl.isRestaurantCloseByAndOpen(
+            restaurantEntity, currentTime, latitude, longitude, servingRadiusInKms))
+        .map(RestaurantMapper::toRestaurant)
+        .collectList();
+  }
+
+  /**
+   * Looks the key up in the in-process tier, then in Redis, and only then subscribes to the
+   * loader. Redis errors count as a miss, and Redis is filled without waiting for the write.
+   */
+  private Mono<List<Restaurant>> findFromCacheOrLoad(String cacheKey,
+      Mono<List<Restaurant>> loader) {
+    return Mono.defer(() -> {
+      List<Restaurant> restaurants = inProcessRestaurantCache.get(cacheKey);
+      if (restaurants != null) {
+        return Mono.just(restaurants);
+      }
+
+      return readFromRedis(cacheKey)
+          .switchIfEmpty(loader.doOnNext(loaded -> writeToRedis(cacheKey, loaded).subscribe()))
+          .doOnNext(found -> inProcessRestaurantCache.put(cacheKey, found));
+    });
+  }
+
+  private Mono<List<Restaurant>> readFromRedis(String cacheKey) {
+    return reactiveRedisConnection.commands()
+        .flatMap(commands -> commands.get(cacheKey))
+        .map(json -> {
+          try {
+            return objectMapper.<List<Restaurant>>readValue(json,
+                new TypeReference<List<Restaurant>>() {
+                });
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        })
+        .onErrorResume(e -> {
+          log.warn("Failed to read {} from Redis", cacheKey, e);
+          return Mono.empty();
+        });
+  }
+
+  private Mono<Void> writeToRedis(String cacheKey, List<Restaurant> restaurants) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(restaurants);
+    } catch (JsonProcessingException e) {
+      log.warn("Failed to serialize {} for Redis", cacheKey, e);
+      return Mono.empty();
+    }
+    return reactiveRedisConnection.commands()
+        .flatMap(commands -> commands.setex(cacheKey,
+            GlobalConstants.REDIS_ENTRY_EXPIRY_IN_SECONDS, json))
+        .then()
+        .onErrorResume(e -> {
+          log.warn("Failed to write {} to Redis", cacheKey, e);
+          return Mono.empty();
+        });
+  }
+
+}
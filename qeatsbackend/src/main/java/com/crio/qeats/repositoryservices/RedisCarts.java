@@ -0,0 +1,104 @@
+
+package com.crio.qeats.repositoryservices;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.utils.RedisScript;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * How carts are laid out in Redis, shared by the cart repository service and its write-behind.
+ * A cart is a hash of its user, restaurant and total, next to a list of its items as JSON; see
+ * {@code redis/cart_common.lua} for the replies of the scripts that change them.
+ */
+final class RedisCarts {
+
+  static final String DIRTY_KEY = "cart:dirty";
+  static final String PROCESSING_KEY = "cart:dirty:processing";
+
+  static final long DONE = 0;
+  static final long NOT_CACHED = 1;
+  static final long OTHER_RESTAURANT = 2;
+  static final long OTHER_CART = 3;
+
+  static final RedisScript GET = cartScript("cart_get.lua");
+  static final RedisScript LOAD = cartScript("cart_load.lua");
+  static final RedisScript ADD_ITEM = cartScript("cart_add_item.lua");
+  static final RedisScript REMOVE_ITEM = cartScript("cart_remove_item.lua");
+  static final RedisScript CLEAR = cartScript("cart_clear.lua");
+  static final RedisScript CHECKOUT = cartScript("cart_checkout.lua");
+  static final RedisScript RESTORE = cartScript("cart_restore.lua");
+  static final RedisScript TAKE_DIRTY = RedisScript.fromResources("redis/cart_take_dirty.lua");
+  static final RedisScript REQUEUE_DIRTY =
+      RedisScript.fromResources("redis/cart_requeue_dirty.lua");
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private RedisCarts() {}
+
+  // The hash tag puts both keys of a cart in one cluster slot. The scripts also use the dirty set,
+  // and loading a cart the user's key, so they still need all keys on a single Redis node.
+  static String cartKey(String cartId) {
+    return "cart:{" + cartId + "}";
+  }
+
+  static String itemsKey(String cartId) {
+    return "cart:{" + cartId + "}:items";
+  }
+
+  static String userKey(String userId) {
+    return "cart:user:" + userId;
+  }
+
+  static List<String> keys(String cartId) {
+    return Arrays.asList(cartKey(cartId), itemsKey(cartId), DIRTY_KEY);
+  }
+
+  static long status(Object reply) {
+    return (Long) ((List<?>) reply).get(0);
+  }
+
+  // Reads the cart following the status of a script reply.
+  static Cart toCart(String cartId, Object reply) {
+    List<?> values = (List<?>) reply;
+    List<String> items = new ArrayList<>(values.size() - 4);
+    for (Object item : values.subList(4, values.size())) {
+      items.add((String) item);
+    }
+    return toCart(cartId, (String) values.get(1), (String) values.get(2),
+        (String) values.get(3), items);
+  }
+
+  static Cart toCart(String cartId, String userId, String restaurantId, String total,
+      List<String> itemsJson) {
+    List<Item> items = new ArrayList<>(itemsJson.size());
+    try {
+      for (String itemJson : itemsJson) {
+        items.add(objectMapper.readValue(itemJson, Item.class));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new Cart(cartId, restaurantId == null ? "" : restaurantId, userId, items,
+        total == null ? 0 : Integer.parseInt(total));
+  }
+
+  static String toJson(Item item) {
+    try {
+      return objectMapper.writeValueAsString(item);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static RedisScript cartScript(String name) {
+    return RedisScript.fromResources("redis/cart_common.lua", "redis/" + name);
+  }
+
+}
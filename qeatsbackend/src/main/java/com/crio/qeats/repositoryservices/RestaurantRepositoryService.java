@@ -6,10 +6,16 @@
 
 package com.crio.qeats.repositoryservices;
 
+import ch.hsr.geohash.GeoHash;
+import ch.hsr.geohash.WGS84Point;
 import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
+import com.crio.qeats.utils.GeoUtils;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import org.springframework.scheduling.annotation.Async;
 
 public interface RestaurantRepositoryService {
@@ -28,6 +34,39 @@ public interface RestaurantRepositoryService {
   List<Restaurant> findAllRestaurantsCloseBy(Double latitude, Double longitude,
       LocalTime currentTime, Double servingRadiusInKms);
 
+  /**
+   * Same as {@link #findAllRestaurantsCloseBy}, but only the given fields of the restaurants need
+   * to be populated, so that implementations can avoid loading the others.
+   * @param fields the restaurant fields the caller needs
+   */
+  default List<Restaurant> findAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms, Set<RestaurantField> fields) {
+    return findAllRestaurantsCloseBy(latitude, longitude, currentTime, servingRadiusInKms);
+  }
+
+  /**
+   * Same as {@link #findAllRestaurantsCloseBy}, for every location of a geohash cell at once: the
+   * open restaurants within the serving radius of some point of the cell. Callers still filter
+   * them for each of their locations.
+   * @param cell the cell, as from {@link GeoUtils#toGeoHashCell}
+   */
+  default List<Restaurant> findAllRestaurantsCloseToCell(String cell, LocalTime currentTime,
+      Double servingRadiusInKms) {
+    WGS84Point center = GeoHash.fromGeohashString(cell).getBoundingBoxCenterPoint();
+    return findAllRestaurantsCloseBy(center.getLatitude(), center.getLongitude(), currentTime,
+        servingRadiusInKms + GeoUtils.halfCellDiagonalInKm(cell));
+  }
+
+  /**
+   * Same as {@link #findAllRestaurantsCloseBy}, but hands each restaurant to the consumer as soon
+   * as it has passed the filter, instead of collecting them all first.
+   * @param consumer receives the restaurants in result order
+   */
+  default void streamAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms, Consumer<Restaurant> consumer) {
+    findAllRestaurantsCloseBy(latitude, longitude, currentTime, servingRadiusInKms)
+        .forEach(consumer);
+  }
 
   /**
    * Get the list of open restaurants within the specified serving radius.
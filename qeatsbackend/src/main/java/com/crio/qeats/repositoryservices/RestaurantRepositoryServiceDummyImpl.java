@@ -36,15 +36,17 @@ public class RestaurantRepositoryServiceDummyImpl implements RestaurantRepositor
     } catch (IOException e) {
       e.printStackTrace();
     }
+    List<Restaurant> nearBy = new ArrayList<>();
     for (Restaurant restaurant : restaurantList) {
-      restaurant.setLatitude(latitude + ThreadLocalRandom.current().nextDouble(0.000001, 0.2));
-      restaurant.setLongitude(longitude + ThreadLocalRandom.current().nextDouble(0.000001, 0.2));
+      nearBy.add(restaurant.toBuilder()
+          .latitude(latitude + ThreadLocalRandom.current().nextDouble(0.000001, 0.2))
+          .longitude(longitude + ThreadLocalRandom.current().nextDouble(0.000001, 0.2))
+          .build());
     }
-    return restaurantList;
+    return nearBy;
   }
 
 
-
   public List<Restaurant> findRestaurantsByName(Double latitude, Double longitude,
       String searchString, LocalTime currentTime, Double servingRadiusInKms) {
     return null;
@@ -7,46 +7,48 @@
 package com.crio.qeats.repositoryservices;
 
 import ch.hsr.geohash.GeoHash;
+import ch.hsr.geohash.WGS84Point;
+import com.crio.qeats.cache.InProcessRestaurantCache;
+import com.crio.qeats.cache.ItemRestaurantIndex;
+import com.crio.qeats.cache.RestaurantCacheKeys;
+import com.crio.qeats.cache.ValidityWindows;
 import com.crio.qeats.configs.RedisConfiguration;
 import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
 import com.crio.qeats.globals.GlobalConstants;
 import com.crio.qeats.models.ItemEntity;
-import com.crio.qeats.models.MenuEntity;
 import com.crio.qeats.models.RestaurantEntity;
 import com.crio.qeats.repositories.ItemRepository;
-import com.crio.qeats.repositories.MenuRepository;
 import com.crio.qeats.repositories.RestaurantRepository;
-import com.crio.qeats.utils.GeoLocation;
+import com.crio.qeats.utils.BatchLoader;
+import com.crio.qeats.utils.ChunkedLookup;
 import com.crio.qeats.utils.GeoUtils;
+import com.crio.qeats.utils.RestaurantMapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Future;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import javax.inject.Provider;
-import org.modelmapper.ModelMapper;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.AsyncResult;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisException;
 
 @Service
 @Primary
+@Log4j2
 public class RestaurantRepositoryServiceImpl implements RestaurantRepositoryService {
 
   @Autowired
@@ -56,18 +58,34 @@ public class RestaurantRepositoryServiceImpl implements RestaurantRepositoryServ
   private MongoTemplate mongoTemplate;
 
   @Autowired
-  private Provider<ModelMapper> modelMapperProvider;
+  private RestaurantRepository restaurantRepository;
 
   @Autowired
-  private RestaurantRepository restaurantRepository;
+  private ItemRepository itemRepository;
 
   @Autowired
-  private MenuRepository menuRepository;
+  private InProcessRestaurantCache inProcessRestaurantCache;
 
   @Autowired
-  private ItemRepository itemRepository;
+  private ItemRestaurantIndex itemRestaurantIndex;
+
+  @Autowired
+  private ValidityWindows validityWindows;
+
+  @Autowired
+  private ChunkedLookup chunkedLookup;
+
+  @Autowired
+  private BatchLoader<String, RestaurantEntity> restaurantEntityLoader;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
 
-  private boolean isOpenNow(LocalTime time, RestaurantEntity res) {
+  // Read by isRestaurantCloseByAndOpen, so every query has to load them.
+  private static final Set<RestaurantField> FIELDS_FOR_FILTERING = EnumSet.of(
+      RestaurantField.LATITUDE, RestaurantField.LONGITUDE, RestaurantField.OPENS_AT,
+      RestaurantField.CLOSES_AT);
+
+  static boolean isOpenNow(LocalTime time, RestaurantEntity res) {
     LocalTime openingTime = LocalTime.parse(res.getOpensAt());
     LocalTime closingTime = LocalTime.parse(res.getClosesAt());
 
@@ -77,71 +95,174 @@ public class RestaurantRepositoryServiceImpl implements RestaurantRepositoryServ
   
   public List<Restaurant> findAllRestaurantsCloseBy(Double latitude,
       Double longitude, LocalTime currentTime, Double servingRadiusInKms) {
-    List<Restaurant> restaurants = null;
-    if (redisConfiguration.isCacheAvailable()) {
-      restaurants = findAllRestaurantsCloseByFromCache(latitude, longitude, currentTime, servingRadiusInKms);
-    } else {
-      restaurants = findAllRestaurantsCloseFromDb(latitude, longitude, currentTime, servingRadiusInKms);
+    String cacheKey = RestaurantCacheKeys.closeBy(GeoUtils.toGeoHashCell(latitude, longitude));
+    return findFromCacheOrLoad(cacheKey,
+        () -> findAllRestaurantsCloseFromDb(latitude, longitude, currentTime, servingRadiusInKms));
+  }
+
+
+  /**
+   * Cached apart from the entry shared by the single locations of the cell, which covers a
+   * smaller area.
+   */
+  @Override
+  public List<Restaurant> findAllRestaurantsCloseToCell(String cell, LocalTime currentTime,
+      Double servingRadiusInKms) {
+    WGS84Point center = GeoHash.fromGeohashString(cell).getBoundingBoxCenterPoint();
+    double cellRadiusInKms = servingRadiusInKms + GeoUtils.halfCellDiagonalInKm(cell);
+    String cacheKey = RestaurantCacheKeys.closeToCell(cell, validityWindows.windowOf(currentTime));
+    return findFromCacheOrLoad(cacheKey, () -> findAllRestaurantsCloseFromDb(center.getLatitude(),
+        center.getLongitude(), currentTime, cellRadiusInKms));
+  }
+
+  /**
+   * Loads only the requested fields from Mongo, plus the ones the open and distance checks need,
+   * and caches the projected restaurants under their own key.
+   */
+  @Override
+  public List<Restaurant> findAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms, Set<RestaurantField> fields) {
+    String cacheKey = RestaurantCacheKeys.closeBy(GeoUtils.toGeoHashCell(latitude, longitude),
+        fields);
+    return findFromCacheOrLoad(cacheKey, () -> findAllRestaurantsCloseFromDb(latitude, longitude,
+        currentTime, servingRadiusInKms, fields));
+  }
+
+  private List<Restaurant> findAllRestaurantsCloseFromDb(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms, Set<RestaurantField> fields) {
+    Set<RestaurantField> loadedFields = EnumSet.copyOf(FIELDS_FOR_FILTERING);
+    loadedFields.addAll(fields);
+    Query query = new Query();
+    loadedFields.forEach(field -> query.fields().include(field.getName()));
+
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (RestaurantEntity restaurantEntity : mongoTemplate.find(query, RestaurantEntity.class)) {
+      if (isRestaurantCloseByAndOpen(restaurantEntity, currentTime, latitude, longitude,
+          servingRadiusInKms)) {
+        restaurants.add(RestaurantMapper.toRestaurant(restaurantEntity, fields));
+      }
     }
     return restaurants;
   }
 
+  /**
+   * Streams straight from a Mongo cursor on a cache miss, so the first restaurants go out before
+   * the collection has been fully scanned. The tiers are filled once the scan is complete.
+   */
+  @Override
+  public void streamAllRestaurantsCloseBy(Double latitude, Double longitude,
+      LocalTime currentTime, Double servingRadiusInKms, Consumer<Restaurant> consumer) {
+    String cacheKey = RestaurantCacheKeys.closeBy(GeoUtils.toGeoHashCell(latitude, longitude));
+    List<Restaurant> cached = inProcessRestaurantCache.get(cacheKey);
+    boolean redisAvailable = redisConfiguration.isCacheAvailable();
+    if (cached == null && redisAvailable) {
+      cached = readFromRedis(cacheKey);
+      if (cached != null) {
+        inProcessRestaurantCache.put(cacheKey, cached);
+      }
+    }
+    if (cached != null) {
+      cached.forEach(consumer);
+      return;
+    }
+
+    List<Restaurant> restaurants = new ArrayList<>();
+    try (CloseableIterator<RestaurantEntity> restaurantEntities =
+        mongoTemplate.stream(new Query(), RestaurantEntity.class)) {
+      while (restaurantEntities.hasNext()) {
+        RestaurantEntity restaurantEntity = restaurantEntities.next();
+        if (isRestaurantCloseByAndOpen(restaurantEntity, currentTime, latitude, longitude,
+            servingRadiusInKms)) {
+          Restaurant restaurant = RestaurantMapper.toRestaurant(restaurantEntity);
+          restaurants.add(restaurant);
+          consumer.accept(restaurant);
+        }
+      }
+    }
+
+    if (redisAvailable) {
+      writeToRedis(cacheKey, restaurants);
+    }
+    inProcessRestaurantCache.put(cacheKey, restaurants);
+  }
 
   private List<Restaurant> findAllRestaurantsCloseFromDb(Double latitude, Double longitude, LocalTime currentTime,
       Double servingRadiusInKms) {
-    ModelMapper modelMapper = modelMapperProvider.get();
     List<RestaurantEntity> restaurantEntities = restaurantRepository.findAll();
     List<Restaurant> restaurants = new ArrayList<Restaurant>();
     for(RestaurantEntity restaurantEntity : restaurantEntities) {
       if (isRestaurantCloseByAndOpen(restaurantEntity, currentTime, latitude, longitude, servingRadiusInKms)) {
-        restaurants.add(modelMapper.map(restaurantEntity, Restaurant.class));
+        restaurants.add(RestaurantMapper.toRestaurant(restaurantEntity));
       }
     }
     return restaurants;
   }
 
+  private String searchCacheKey(String branch, Double latitude, Double longitude,
+      String searchString, LocalTime currentTime) {
+    return RestaurantCacheKeys.search(GeoUtils.toGeoHashCell(latitude, longitude), branch,
+        searchString, validityWindows.windowOf(currentTime));
+  }
 
-  private List<Restaurant> findAllRestaurantsCloseByFromCache(Double latitude, Double longitude, LocalTime currentTime,
-      Double servingRadiusInKms) {
-    List<Restaurant> restaurantList = new ArrayList<>();
+  /**
+   * Looks the key up in the in-process tier, then in Redis, and only then falls back to the
+   * loader. Whatever is found on the way fills the tiers above it.
+   */
+  private List<Restaurant> findFromCacheOrLoad(String cacheKey,
+      Supplier<List<Restaurant>> loader) {
+    List<Restaurant> restaurants = inProcessRestaurantCache.get(cacheKey);
+    if (restaurants != null) {
+      return restaurants;
+    }
 
-    GeoLocation geoLocation = new GeoLocation(latitude, longitude);
-    GeoHash geoHash = GeoHash.withCharacterPrecision(geoLocation.getLatitude(), geoLocation.getLongitude(), 7);
+    if (redisConfiguration.isCacheAvailable()) {
+      restaurants = findFromRedisOrLoad(cacheKey, loader);
+    } else {
+      restaurants = loader.get();
+    }
+    inProcessRestaurantCache.put(cacheKey, restaurants);
+    return restaurants;
+  }
 
-    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
-      String jsonStringFromCache = jedis.get(geoHash.toBase32());
+  private List<Restaurant> findFromRedisOrLoad(String cacheKey,
+      Supplier<List<Restaurant>> loader) {
+    List<Restaurant> restaurantList = readFromRedis(cacheKey);
+    if (restaurantList == null) {
+      // Cache needs to be updated.
+      restaurantList = loader.get();
+      writeToRedis(cacheKey, restaurantList);
+    }
+    return restaurantList;
+  }
 
+  private List<Restaurant> readFromRedis(String cacheKey) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      String jsonStringFromCache = jedis.get(cacheKey);
       if (jsonStringFromCache == null) {
-        // Cache needs to be updated.
-        String createdJsonString = "";
-        try {
-          restaurantList = findAllRestaurantsCloseFromDb(geoLocation.getLatitude(), geoLocation.getLongitude(),
-              currentTime, servingRadiusInKms);
-          createdJsonString = new ObjectMapper().writeValueAsString(restaurantList);
-        } catch (JsonProcessingException e) {
-          e.printStackTrace();
-        }
-
-        // Do operations with jedis resource
-        jedis.setex(geoHash.toBase32(), GlobalConstants.REDIS_ENTRY_EXPIRY_IN_SECONDS, createdJsonString);
-      } else {
-        try {
-          restaurantList = new ObjectMapper().readValue(jsonStringFromCache, new TypeReference<List<Restaurant>>() {
-          });
-        } catch (IOException e) {
-          e.printStackTrace();
-        }
+        return null;
       }
+      return objectMapper.readValue(jsonStringFromCache, new TypeReference<List<Restaurant>>() {
+      });
+    } catch (IOException | JedisException e) {
+      log.warn("Failed to read {} from Redis", cacheKey, e);
+      return null;
     }
+  }
 
-    return restaurantList;
+  private void writeToRedis(String cacheKey, List<Restaurant> restaurants) {
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      jedis.setex(cacheKey, GlobalConstants.REDIS_ENTRY_EXPIRY_IN_SECONDS,
+          objectMapper.writeValueAsString(restaurants));
+    } catch (JsonProcessingException | JedisException e) {
+      log.warn("Failed to write {} to Redis", cacheKey, e);
+    }
   }
 
   /**
    * Utility method to check if a restaurant is within the serving radius at a given time.
    * @return boolean True if restaurant falls within serving radius and is open, false otherwise
    */
-  private boolean isRestaurantCloseByAndOpen(RestaurantEntity restaurantEntity,
+  static boolean isRestaurantCloseByAndOpen(RestaurantEntity restaurantEntity,
       LocalTime currentTime, Double latitude, Double longitude, Double servingRadiusInKms) {
     if (isOpenNow(currentTime, restaurantEntity)) {
       return GeoUtils.findDistanceInKm(latitude, longitude,
@@ -155,12 +276,19 @@ public class RestaurantRepositoryServiceImpl implements RestaurantRepositoryServ
   @Override
   public List<Restaurant> findRestaurantsByName(Double latitude, Double longitude,
       String searchString, LocalTime currentTime, Double servingRadiusInKms) {
-    ModelMapper mapper = modelMapperProvider.get();
+    return findFromCacheOrLoad(
+        searchCacheKey(RestaurantCacheKeys.NAME, latitude, longitude, searchString, currentTime),
+        () -> findRestaurantsByNameFromDb(latitude, longitude, searchString, currentTime,
+            servingRadiusInKms));
+  }
+
+  private List<Restaurant> findRestaurantsByNameFromDb(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
     List<RestaurantEntity> restaurantEntities = restaurantRepository.findRestaurantsByNameExact(searchString).get();
     List<Restaurant> restaurants = new ArrayList<Restaurant>();
     for(RestaurantEntity restaurantEntity : restaurantEntities) {
       if(isRestaurantCloseByAndOpen(restaurantEntity, currentTime, latitude, longitude, servingRadiusInKms)) {
-        restaurants.add(mapper.map(restaurantEntity, Restaurant.class));
+        restaurants.add(RestaurantMapper.toRestaurant(restaurantEntity));
       }
     }
     return restaurants;
@@ -169,12 +297,19 @@ public class RestaurantRepositoryServiceImpl implements RestaurantRepositoryServ
   @Override
   public List<Restaurant> findRestaurantsByAttributes(Double latitude, Double longitude,
       String searchString, LocalTime currentTime, Double servingRadiusInKms) {
-    ModelMapper mapper = modelMapperProvider.get();
+    return findFromCacheOrLoad(searchCacheKey(RestaurantCacheKeys.ATTRIBUTES, latitude,
+        longitude, searchString, currentTime),
+        () -> findRestaurantsByAttributesFromDb(latitude, longitude, searchString, currentTime,
+            servingRadiusInKms));
+  }
+
+  private List<Restaurant> findRestaurantsByAttributesFromDb(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
     List<RestaurantEntity> restaurantEntities = restaurantRepository.findRestaurantsByAttributes(searchString).get();
     List<Restaurant> restaurants = new ArrayList<Restaurant>();
     for(RestaurantEntity restaurantEntity : restaurantEntities) {
       if(isRestaurantCloseByAndOpen(restaurantEntity, currentTime, latitude, longitude, servingRadiusInKms)) {
-        restaurants.add(mapper.map(restaurantEntity, Restaurant.class));
+        restaurants.add(RestaurantMapper.toRestaurant(restaurantEntity));
       }
     }
     return restaurants;
@@ -183,46 +318,57 @@ public class RestaurantRepositoryServiceImpl implements RestaurantRepositoryServ
   @Override
   public List<Restaurant> findRestaurantsByItemName(Double latitude, Double longitude,
       String searchString, LocalTime currentTime, Double servingRadiusInKms) {
-    ModelMapper modelMapper = modelMapperProvider.get();
+    return findFromCacheOrLoad(searchCacheKey(RestaurantCacheKeys.ITEM_NAME, latitude,
+        longitude, searchString, currentTime),
+        () -> findRestaurantsByItemNameFromDb(latitude, longitude, searchString, currentTime,
+            servingRadiusInKms));
+  }
+
+  private List<Restaurant> findRestaurantsByItemNameFromDb(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
     List<ItemEntity> items = itemRepository.findByName(searchString).get();
     List<String> itemIdList = new ArrayList<>();
     items.forEach(e -> itemIdList.add(e.getId()));
-    List<MenuEntity> menuItems = menuRepository.findMenusByItemsItemIdIn(itemIdList).get();
-    List<String> restaurantIds = menuItems.stream().map(e -> e.getRestaurantId()).collect(Collectors.toList());
-    List<RestaurantEntity> restaurantEntities = new ArrayList<>();
-    restaurantRepository.findAllById(restaurantIds).forEach(e -> restaurantEntities.add(e));
-
-    List<Restaurant> restaurants = new ArrayList<Restaurant>();
-      for (RestaurantEntity restaurantEntity : restaurantEntities) {
-        if (isRestaurantCloseByAndOpen(restaurantEntity, currentTime, latitude, longitude, servingRadiusInKms)) {
-          restaurants.add(modelMapper.map(restaurantEntity, Restaurant.class));
-        }
-      }
-    return restaurants;
+    List<String> restaurantIds = itemRestaurantIndex.findRestaurantIds(itemIdList);
+    return findRestaurantsCloseByAndOpen(restaurantIds, latitude, longitude, currentTime,
+        servingRadiusInKms);
   }
 
   @Override
   public List<Restaurant> findRestaurantsByItemAttributes(Double latitude, Double longitude,
       String searchString, LocalTime currentTime, Double servingRadiusInKms) {
-    ModelMapper modelMapper = modelMapperProvider.get();
+    return findFromCacheOrLoad(searchCacheKey(RestaurantCacheKeys.ITEM_ATTRIBUTES, latitude,
+        longitude, searchString, currentTime),
+        () -> findRestaurantsByItemAttributesFromDb(latitude, longitude, searchString, currentTime,
+            servingRadiusInKms));
+  }
+
+  private List<Restaurant> findRestaurantsByItemAttributesFromDb(Double latitude, Double longitude,
+      String searchString, LocalTime currentTime, Double servingRadiusInKms) {
     List<ItemEntity> items = itemRepository.findItemsByAttributes(searchString).get();
     List<String> itemIdList = new ArrayList<>();
     items.forEach(e -> itemIdList.add(e.getId()));
-    List<MenuEntity> menuItems = menuRepository.findMenusByItemsItemIdIn(itemIdList).get();
-    List<String> restaurantIds = menuItems.stream().map(e -> e.getRestaurantId()).collect(Collectors.toList());
-    List<RestaurantEntity> restaurantEntities = new ArrayList<>();
-    restaurantRepository.findAllById(restaurantIds).forEach(e -> restaurantEntities.add(e));
+    List<String> restaurantIds = itemRestaurantIndex.findRestaurantIds(itemIdList);
+    return findRestaurantsCloseByAndOpen(restaurantIds, latitude, longitude, currentTime,
+        servingRadiusInKms);
+  }
 
-    List<Restaurant> restaurants = new ArrayList<Restaurant>();
-      for (RestaurantEntity restaurantEntity : restaurantEntities) {
-        if (isRestaurantCloseByAndOpen(restaurantEntity, currentTime, latitude, longitude, servingRadiusInKms)) {
-          restaurants.add(modelMapper.map(restaurantEntity, Restaurant.class));
-        }
-      }
+  // Broad item searches can match thousands of restaurants, so they are loaded in bounded
+  // chunks and only the close-by, open ones are kept. Chunks of concurrent searches are merged
+  // into shared queries by the batch loader.
+  private List<Restaurant> findRestaurantsCloseByAndOpen(List<String> restaurantIds,
+      Double latitude, Double longitude, LocalTime currentTime, Double servingRadiusInKms) {
+    List<Restaurant> restaurants = new ArrayList<>();
+    chunkedLookup.forEach(restaurantIds,
+        chunk -> restaurantEntityLoader.getAll(chunk).values(),
+        RestaurantEntity::getId,
+        restaurantEntity -> {
+          if (isRestaurantCloseByAndOpen(restaurantEntity, currentTime, latitude, longitude,
+              servingRadiusInKms)) {
+            restaurants.add(RestaurantMapper.toRestaurant(restaurantEntity));
+          }
+        });
     return restaurants;
   }
 
-
-
 }
-
@@ -0,0 +1,39 @@
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.ItemNotFoundInRestaurantMenuException;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+
+public interface CartService {
+
+  /**
+   * Get the cart of the given user, creating an empty one if the user has none.
+   * @param userId id of the user
+   * @return the user's cart
+   */
+  Cart findOrCreateCart(String userId);
+
+  /**
+   * Add the item of the restaurant's menu to the cart.
+   * A cart holding items of another restaurant is returned unchanged, with the error type of
+   * ItemNotFromSameRestaurantException as its response type.
+   * @throws CartNotFoundException if there is no such cart
+   * @throws ItemNotFoundInRestaurantMenuException if the restaurant's menu has no such item
+   */
+  CartModifiedResponse addItemToCart(String itemId, String cartId, String restaurantId);
+
+  /**
+   * Remove one instance of the item from the cart.
+   * @throws CartNotFoundException if there is no such cart
+   */
+  CartModifiedResponse removeItemFromCart(String itemId, String cartId, String restaurantId);
+
+  /**
+   * Remove all items from the cart.
+   * @throws CartNotFoundException if there is no such cart
+   */
+  CartModifiedResponse clearCart(String cartId);
+
+}
@@ -0,0 +1,70 @@
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.exceptions.ItemNotFoundInRestaurantMenuException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+import com.crio.qeats.repositoryservices.CartRepositoryService;
+import com.crio.qeats.repositoryservices.MenuRepositoryService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+@Log4j2
+public class CartServiceImpl implements CartService {
+
+  private static final int CART_MODIFIED = 0;
+
+  @Autowired
+  private CartRepositoryService cartRepositoryService;
+
+  @Autowired
+  private MenuRepositoryService menuRepositoryService;
+
+  @Override
+  public Cart findOrCreateCart(String userId) {
+    return cartRepositoryService.findOrCreateCart(userId);
+  }
+
+  @Override
+  public CartModifiedResponse addItemToCart(String itemId, String cartId, String restaurantId) {
+    Item item = findItem(itemId, restaurantId);
+    try {
+      return new CartModifiedResponse(cartRepositoryService.addItem(item, cartId, restaurantId),
+          CART_MODIFIED);
+    } catch (ItemNotFromSameRestaurantException e) {
+      log.info(e.getMessage());
+      return new CartModifiedResponse(e.getCart(), e.getErrorType());
+    }
+  }
+
+  @Override
+  public CartModifiedResponse removeItemFromCart(String itemId, String cartId,
+      String restaurantId) {
+    return new CartModifiedResponse(cartRepositoryService.removeItem(itemId, cartId),
+        CART_MODIFIED);
+  }
+
+  @Override
+  public CartModifiedResponse clearCart(String cartId) {
+    return new CartModifiedResponse(cartRepositoryService.clearCart(cartId), CART_MODIFIED);
+  }
+
+  private Item findItem(String itemId, String restaurantId) {
+    Menu menu = menuRepositoryService.findMenu(restaurantId);
+    if (menu != null) {
+      for (Item item : menu.getItems()) {
+        if (itemId.equals(item.getItemId())) {
+          return item;
+        }
+      }
+    }
+    throw new ItemNotFoundInRestaurantMenuException(
+        "Item " + itemId + " is not on the menu of restaurant " + restaurantId);
+  }
+
+}
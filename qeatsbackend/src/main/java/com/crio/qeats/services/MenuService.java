@@ -0,0 +1,14 @@
+
+package com.crio.qeats.services;
+
+public interface MenuService {
+
+  /**
+   * Get the menu of a restaurant, as the JSON of a GetMenuResponse.
+   * @param restaurantId id of the restaurant
+   * @return the serialized response, which must not be modified, or null if the restaurant has
+   *     no menu
+   */
+  byte[] findMenuJson(String restaurantId);
+
+}
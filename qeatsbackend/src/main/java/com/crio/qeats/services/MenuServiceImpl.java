@@ -0,0 +1,43 @@
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.cache.MenuCache;
+import com.crio.qeats.dto.Menu;
+import com.crio.qeats.exchanges.GetMenuResponse;
+import com.crio.qeats.repositoryservices.MenuRepositoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.UncheckedIOException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+@Log4j2
+public class MenuServiceImpl implements MenuService {
+
+  @Autowired
+  private MenuRepositoryService menuRepositoryService;
+
+  @Autowired
+  private MenuCache menuCache;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Override
+  public byte[] findMenuJson(String restaurantId) {
+    return menuCache.get(restaurantId, () -> {
+      Menu menu = menuRepositoryService.findMenu(restaurantId);
+      if (menu == null) {
+        log.info("No menu found for restaurant {}", restaurantId);
+        return null;
+      }
+      try {
+        return objectMapper.writeValueAsBytes(new GetMenuResponse(menu));
+      } catch (JsonProcessingException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+}
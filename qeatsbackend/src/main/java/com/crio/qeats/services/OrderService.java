@@ -0,0 +1,34 @@
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.EmptyCartException;
+import com.crio.qeats.exceptions.InvalidCursorException;
+import com.crio.qeats.exchanges.GetOrdersResponse;
+
+public interface OrderService {
+
+  /**
+   * Place an order for the items of the cart, which is emptied in the same step.
+   * The order is durable when this returns, but may reach the orders collection a bit later;
+   * if it cannot be made durable, the items are put back into the cart.
+   * @param cartId id of the cart
+   * @return the placed order
+   * @throws CartNotFoundException if there is no such cart
+   * @throws EmptyCartException if the cart holds no items, also when it was just ordered
+   */
+  Order placeOrder(String cartId);
+
+  /**
+   * Get one page of the user's order history, newest first, as the JSON of a
+   * {@link GetOrdersResponse}. First pages are served from the cache when possible.
+   * @param userId id of the user
+   * @param after nextCursor of the previous page; null for the first page
+   * @param limit maximum number of orders on the page
+   * @return the serialized page; its nextCursor is null on the last page
+   * @throws InvalidCursorException if after is not a cursor returned earlier
+   */
+  byte[] findOrderHistoryJson(String userId, String after, int limit);
+
+}
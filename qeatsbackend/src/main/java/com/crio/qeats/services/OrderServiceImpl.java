@@ -0,0 +1,116 @@
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.cache.OrderHistoryCache;
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.dto.OrderCursor;
+import com.crio.qeats.dto.OrderSummary;
+import com.crio.qeats.exceptions.EmptyCartException;
+import com.crio.qeats.exchanges.GetOrdersResponse;
+import com.crio.qeats.repositoryservices.CartRepositoryService;
+import com.crio.qeats.repositoryservices.OrderRepositoryService;
+import com.crio.qeats.utils.MappedJournal;
+import com.crio.qeats.utils.SnowflakeIdGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OrderServiceImpl implements OrderService {
+
+  @Autowired
+  private CartRepositoryService cartRepositoryService;
+
+  @Autowired
+  private OrderRepositoryService orderRepositoryService;
+
+  @Autowired
+  private OrderHistoryCache orderHistoryCache;
+
+  @Autowired
+  private MappedJournal orderJournal;
+
+  @Autowired
+  private SnowflakeIdGenerator orderIdGenerator;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  // The cart is emptied by the same Redis script that reads it, so a repeated request finds it
+  // empty, and items added after the checkout are left alone. Then waits for the group commit
+  // that makes the order durable, which the orders placed meanwhile share; if the order cannot
+  // be journaled, its items go back to the cart. OrderWriter stores the order in Mongo and
+  // publishes the post-order event afterwards.
+  @Override
+  public Order placeOrder(String cartId) {
+    Cart cart = cartRepositoryService.checkoutCart(cartId);
+    if (cart.getItems().isEmpty()) {
+      throw new EmptyCartException("Cart " + cartId + " is empty");
+    }
+
+    try {
+      // placedAt is the time in the id, so that histories list orders in the order of their ids.
+      long id = orderIdGenerator.nextId();
+      Order order = new Order(SnowflakeIdGenerator.format(id), cart.getRestaurantId(),
+          cart.getUserId(), cart.getItems(), cart.getTotal(),
+          SnowflakeIdGenerator.timestampMillis(id));
+      orderJournal.append(objectMapper.writeValueAsBytes(order)).join();
+      return order;
+    } catch (JsonProcessingException e) {
+      restore(cart, e);
+      throw new UncheckedIOException(e);
+    } catch (CompletionException e) {
+      restore(cart, e);
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    } catch (RuntimeException e) {
+      restore(cart, e);
+      throw e;
+    }
+  }
+
+  private void restore(Cart cart, Exception failure) {
+    try {
+      cartRepositoryService.restoreCart(cart);
+    } catch (RuntimeException e) {
+      failure.addSuppressed(e);
+    }
+  }
+
+  // One more order than asked for is read, which tells whether there is a next page.
+  @Override
+  public byte[] findOrderHistoryJson(String userId, String after, int limit) {
+    boolean firstPage = after == null || after.isEmpty();
+    String generation = null;
+    if (firstPage) {
+      byte[] cached = orderHistoryCache.get(userId, limit);
+      if (cached != null) {
+        return cached;
+      }
+      generation = orderHistoryCache.generation(userId);
+    }
+
+    List<OrderSummary> orders = orderRepositoryService.findOrderSummaries(userId,
+        firstPage ? null : OrderCursor.decode(after), limit + 1);
+    String nextCursor = null;
+    if (orders.size() > limit) {
+      orders = orders.subList(0, limit);
+      nextCursor = OrderCursor.after(orders.get(limit - 1)).encode();
+    }
+
+    byte[] json;
+    try {
+      json = objectMapper.writeValueAsBytes(new GetOrdersResponse(orders, nextCursor));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (firstPage) {
+      orderHistoryCache.put(userId, limit, json, generation);
+    }
+    return json;
+  }
+
+}
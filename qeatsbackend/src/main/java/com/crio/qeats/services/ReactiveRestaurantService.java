@@ -0,0 +1,20 @@
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import java.time.LocalTime;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same contract as {@link RestaurantService}, for the reactive profile.
+ */
+public interface ReactiveRestaurantService {
+
+  Mono<GetRestaurantsResponse> findAllRestaurantsCloseBy(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime);
+
+  Mono<GetRestaurantsResponse> findRestaurantsBySearchQuery(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime);
+
+}
@@ -0,0 +1,77 @@
+
+package com.crio.qeats.services;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exchanges.GetRestaurantsRequest;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.repositoryservices.ReactiveRestaurantRepositoryService;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@Log4j2
+public class ReactiveRestaurantServiceImpl implements ReactiveRestaurantService {
+
+  private final Double peakHoursServingRadiusInKms = 3.0;
+  private final Double normalHoursServingRadiusInKms = 5.0;
+
+  @Autowired
+  private ReactiveRestaurantRepositoryService reactiveRestaurantRepositoryService;
+
+  @Override
+  public Mono<GetRestaurantsResponse> findAllRestaurantsCloseBy(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime) {
+    // Projections are applied when serializing, from the full cached lists.
+    return reactiveRestaurantRepositoryService.findAllRestaurantsCloseBy(
+        getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), currentTime,
+        servingRadiusInKms(currentTime))
+        .map(restaurants -> RestaurantServiceImpl.toResponse(restaurants,
+            getRestaurantsRequest));
+  }
+
+  // The four lookups run concurrently; results keep the order name, attributes, item name,
+  // item attributes.
+  @Override
+  public Mono<GetRestaurantsResponse> findRestaurantsBySearchQuery(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime) {
+    String searchFor = getRestaurantsRequest.getSearchFor();
+    if (searchFor.isEmpty()) {
+      return Mono.just(new GetRestaurantsResponse());
+    }
+
+    Double latitude = getRestaurantsRequest.getLatitude();
+    Double longitude = getRestaurantsRequest.getLongitude();
+    Double servingRadiusInKms = servingRadiusInKms(currentTime);
+    return Mono.zip(
+        reactiveRestaurantRepositoryService.findRestaurantsByName(latitude, longitude, searchFor,
+            currentTime, servingRadiusInKms),
+        reactiveRestaurantRepositoryService.findRestaurantsByAttributes(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms),
+        reactiveRestaurantRepositoryService.findRestaurantsByItemName(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms),
+        reactiveRestaurantRepositoryService.findRestaurantsByItemAttributes(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms))
+        .map(matches -> {
+          List<Restaurant> restaurants = new ArrayList<>(matches.getT1());
+          restaurants.addAll(matches.getT2());
+          restaurants.addAll(matches.getT3());
+          restaurants.addAll(matches.getT4());
+          log.info("Found {} restaurants matching search query for request: {} at time: {}",
+              restaurants.size(), getRestaurantsRequest, currentTime);
+          return RestaurantServiceImpl.toResponse(restaurants, getRestaurantsRequest);
+        });
+  }
+
+  private Double servingRadiusInKms(LocalTime currentTime) {
+    return RestaurantServiceImpl.isPeakHour(currentTime)
+        ? peakHoursServingRadiusInKms : normalHoursServingRadiusInKms;
+  }
+
+}
@@ -7,9 +7,15 @@
 
 package com.crio.qeats.services;
 
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.SearchTier;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public interface RestaurantService {
 
@@ -27,6 +33,17 @@ public interface RestaurantService {
   GetRestaurantsResponse findAllRestaurantsCloseBy(
       GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime);
 
+  /**
+   * Batch counterpart of @link{findAllRestaurantsCloseBy}: answers many locations at once,
+   * reading the open restaurants only once for the whole batch. Requests with a searchFor are
+   * answered as by @link{findRestaurantsBySearchQuery}.
+   * @param getRestaurantsRequests valid lat/longs
+   * @param currentTime current time
+   * @return one GetRestaurantsResponse per request, in the same order
+   */
+  List<GetRestaurantsResponse> findAllRestaurantsCloseBy(
+      List<GetRestaurantsRequest> getRestaurantsRequests, LocalTime currentTime);
+
   /**
    * Get the restaurants by processing the query.
    * -Ordering rules
@@ -62,4 +79,37 @@ public interface RestaurantService {
    */
   GetRestaurantsResponse findRestaurantsBySearchQueryMt(
       GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime);
+
+  /**
+   * Streaming counterpart of @link{findAllRestaurantsCloseBy}.
+   * @param getRestaurantsRequest valid lat/long
+   * @param currentTime current time
+   * @param consumer receives the open restaurants one by one, as they are found
+   */
+  void streamAllRestaurantsCloseBy(GetRestaurantsRequest getRestaurantsRequest,
+      LocalTime currentTime, Consumer<Restaurant> consumer);
+
+  /**
+   * Streaming counterpart of @link{findRestaurantsBySearchQuery}. Each group of matches is
+   * handed out as soon as it is available, in the same order as the list would have.
+   * @param getRestaurantsRequest valid lat/long with searchFor string
+   * @param currentTime current time
+   * @param consumer receives the matching restaurants one by one
+   */
+  void streamRestaurantsBySearchQuery(GetRestaurantsRequest getRestaurantsRequest,
+      LocalTime currentTime, Consumer<Restaurant> consumer);
+
+  /**
+   * Tiered counterpart of @link{findRestaurantsBySearchQuery}. The four lookups run concurrently
+   * on the database bulkhead and each tier is handed out as soon as its lookup completes, so
+   * tiers may arrive out of order. Every tier is handed out exactly once, possibly empty, and
+   * never concurrently with another.
+   * @param getRestaurantsRequest valid lat/long with searchFor string
+   * @param currentTime current time
+   * @param consumer receives each tier with its restaurants
+   * @return completes once every tier has been handed out, or with the first failure
+   */
+  CompletableFuture<Void> streamRestaurantsBySearchQueryByTier(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime,
+      BiConsumer<SearchTier, GetRestaurantsResponse> consumer);
 }
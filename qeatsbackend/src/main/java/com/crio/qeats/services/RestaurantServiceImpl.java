@@ -7,26 +7,36 @@
 
 package com.crio.qeats.services;
 
+import com.crio.qeats.configs.Bulkhead;
 import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
+import com.crio.qeats.dto.SearchTier;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.exchanges.ProjectedRestaurantsResponse;
 import com.crio.qeats.repositoryservices.RestaurantRepositoryService;
+import com.crio.qeats.utils.GeoUtils;
+import com.crio.qeats.utils.NearbyFilter;
+import com.google.common.base.Throwables;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -39,6 +49,13 @@ public class RestaurantServiceImpl implements RestaurantService {
   @Autowired
   private RestaurantRepositoryService restaurantRepositoryService;
 
+  @Autowired
+  @Qualifier("searchExecutor")
+  private ExecutorService searchExecutor;
+
+  @Autowired
+  private Bulkhead databaseBulkhead;
+
 
   // TODO: CRIO_TASK_MODULE_RESTAURANTSAPI - Implement findAllRestaurantsCloseby.
   // Check RestaurantService.java file for the interface contract.
@@ -56,25 +73,172 @@ public class RestaurantServiceImpl implements RestaurantService {
           servingRadiusInKms = peakHoursServingRadiusInKms;
         }
     
-        List<Restaurant> restaurants = restaurantRepositoryService.findAllRestaurantsCloseBy(
-              getRestaurantsRequest.getLatitude(),
-              getRestaurantsRequest.getLongitude(),
-              currentTime,
-              servingRadiusInKms);
+        Set<RestaurantField> fields = RestaurantField.parse(getRestaurantsRequest.getFields());
+        List<Restaurant> restaurants = fields == null
+            ? restaurantRepositoryService.findAllRestaurantsCloseBy(
+                getRestaurantsRequest.getLatitude(),
+                getRestaurantsRequest.getLongitude(),
+                currentTime,
+                servingRadiusInKms)
+            : restaurantRepositoryService.findAllRestaurantsCloseBy(
+                getRestaurantsRequest.getLatitude(),
+                getRestaurantsRequest.getLongitude(),
+                currentTime,
+                servingRadiusInKms,
+                fields);
     
-        GetRestaurantsResponse response = new GetRestaurantsResponse(restaurants);
+        GetRestaurantsResponse response = toResponse(restaurants, getRestaurantsRequest);
         // response.setRestaurants(restaurants);
         log.info("Found {} restaurants for request: {} at time: {}", restaurants.size(), getRestaurantsRequest, currentTime);
         return response;
   }
 
+  /**
+   * Groups the locations by cache cell and reads each distinct cell once, with everything within
+   * the serving radius of any of its points. Every location then keeps the restaurants of its
+   * cell that are within its own serving radius, as a lookup for that location alone would.
+   * Searches run concurrently on the search executor, and are cancelled if the calling thread is
+   * interrupted, as it is when its bulkhead times out.
+   */
+  @Override
+  public List<GetRestaurantsResponse> findAllRestaurantsCloseBy(
+      List<GetRestaurantsRequest> getRestaurantsRequests, LocalTime currentTime) {
+    GetRestaurantsResponse[] responses = new GetRestaurantsResponse[getRestaurantsRequests.size()];
+    Map<String, List<Integer>> requestsByCell = new LinkedHashMap<>();
+    List<Future<?>> searches = new ArrayList<>();
+    try {
+      for (int i = 0; i < getRestaurantsRequests.size(); i++) {
+        GetRestaurantsRequest getRestaurantsRequest = getRestaurantsRequests.get(i);
+        String searchFor = getRestaurantsRequest.getSearchFor();
+        if (searchFor != null && !searchFor.isEmpty()) {
+          int index = i;
+          searches.add(searchExecutor.submit(() -> responses[index] =
+              findRestaurantsBySearchQuery(getRestaurantsRequest, currentTime)));
+        } else {
+          requestsByCell.computeIfAbsent(GeoUtils.toGeoHashCell(
+              getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude()),
+              cell -> new ArrayList<>()).add(i);
+        }
+      }
+
+      double servingRadiusInKms = isPeakHour(currentTime)
+          ? peakHoursServingRadiusInKms : normalHoursServingRadiusInKms;
+      for (Map.Entry<String, List<Integer>> entry : requestsByCell.entrySet()) {
+        NearbyFilter cellRestaurants = new NearbyFilter(restaurantRepositoryService
+            .findAllRestaurantsCloseToCell(entry.getKey(), currentTime, servingRadiusInKms));
+
+        for (int i : entry.getValue()) {
+          GetRestaurantsRequest getRestaurantsRequest = getRestaurantsRequests.get(i);
+          List<Restaurant> restaurants = cellRestaurants.restaurants(cellRestaurants.within(
+              getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(),
+              servingRadiusInKms));
+          responses[i] = toResponse(restaurants, getRestaurantsRequest);
+        }
+      }
+
+      for (Future<?> search : searches) {
+        search.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Batch interrupted");
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      searches.forEach(search -> search.cancel(true));
+    }
+    log.info("Answered {} requests in {} cells and {} searches at time: {}",
+        getRestaurantsRequests.size(), requestsByCell.size(), searches.size(), currentTime);
+    return Arrays.asList(responses);
+  }
+
+  @Override
+  public void streamAllRestaurantsCloseBy(GetRestaurantsRequest getRestaurantsRequest,
+      LocalTime currentTime, Consumer<Restaurant> consumer) {
+    Double servingRadiusInKms = isPeakHour(currentTime)
+        ? peakHoursServingRadiusInKms : normalHoursServingRadiusInKms;
+    restaurantRepositoryService.streamAllRestaurantsCloseBy(getRestaurantsRequest.getLatitude(),
+        getRestaurantsRequest.getLongitude(), currentTime, servingRadiusInKms, consumer);
+  }
+
+  @Override
+  public void streamRestaurantsBySearchQuery(GetRestaurantsRequest getRestaurantsRequest,
+      LocalTime currentTime, Consumer<Restaurant> consumer) {
+    String searchFor = getRestaurantsRequest.getSearchFor();
+    if (searchFor == null || searchFor.isEmpty()) {
+      return;
+    }
+
+    Double latitude = getRestaurantsRequest.getLatitude();
+    Double longitude = getRestaurantsRequest.getLongitude();
+    Double servingRadiusInKms = isPeakHour(currentTime)
+        ? peakHoursServingRadiusInKms : normalHoursServingRadiusInKms;
+    restaurantRepositoryService.findRestaurantsByName(latitude, longitude, searchFor,
+        currentTime, servingRadiusInKms).forEach(consumer);
+    restaurantRepositoryService.findRestaurantsByAttributes(latitude, longitude, searchFor,
+        currentTime, servingRadiusInKms).forEach(consumer);
+    restaurantRepositoryService.findRestaurantsByItemName(latitude, longitude, searchFor,
+        currentTime, servingRadiusInKms).forEach(consumer);
+    restaurantRepositoryService.findRestaurantsByItemAttributes(latitude, longitude, searchFor,
+        currentTime, servingRadiusInKms).forEach(consumer);
+  }
+
+  @Override
+  public CompletableFuture<Void> streamRestaurantsBySearchQueryByTier(
+      GetRestaurantsRequest getRestaurantsRequest, LocalTime currentTime,
+      BiConsumer<SearchTier, GetRestaurantsResponse> consumer) {
+    String searchFor = getRestaurantsRequest.getSearchFor();
+    if (searchFor == null || searchFor.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    Double latitude = getRestaurantsRequest.getLatitude();
+    Double longitude = getRestaurantsRequest.getLongitude();
+    Double servingRadiusInKms = isPeakHour(currentTime)
+        ? peakHoursServingRadiusInKms : normalHoursServingRadiusInKms;
+    Object lock = new Object();
+    BiConsumer<SearchTier, List<Restaurant>> tierConsumer = (tier, restaurants) -> {
+      synchronized (lock) {
+        consumer.accept(tier, toResponse(restaurants, getRestaurantsRequest));
+      }
+    };
+
+    // The name lookup is an exact (case-insensitive) match, so there is no partial-name tier.
+    CompletableFuture<Void> names = databaseBulkhead.supplyAsync(
+        () -> restaurantRepositoryService.findRestaurantsByName(latitude, longitude, searchFor,
+            currentTime, servingRadiusInKms))
+        .thenAccept(restaurants -> tierConsumer.accept(SearchTier.EXACT_NAME, restaurants));
+    CompletableFuture<Void> attributes = databaseBulkhead.supplyAsync(
+        () -> restaurantRepositoryService.findRestaurantsByAttributes(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms))
+        .thenAccept(restaurants -> tierConsumer.accept(SearchTier.ATTRIBUTES, restaurants));
+    CompletableFuture<Void> itemNames = databaseBulkhead.supplyAsync(
+        () -> restaurantRepositoryService.findRestaurantsByItemName(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms))
+        .thenAccept(restaurants -> tierConsumer.accept(SearchTier.ITEM_NAME, restaurants));
+    CompletableFuture<Void> itemAttributes = databaseBulkhead.supplyAsync(
+        () -> restaurantRepositoryService.findRestaurantsByItemAttributes(latitude, longitude,
+            searchFor, currentTime, servingRadiusInKms))
+        .thenAccept(restaurants -> tierConsumer.accept(SearchTier.ITEM_ATTRIBUTES, restaurants));
+    return CompletableFuture.allOf(names, attributes, itemNames, itemAttributes);
+  }
+
+  // Search results are cached with all fields, so they are only projected when serialized.
+  static GetRestaurantsResponse toResponse(List<Restaurant> restaurants,
+      GetRestaurantsRequest getRestaurantsRequest) {
+    Set<RestaurantField> fields = RestaurantField.parse(getRestaurantsRequest.getFields());
+    return fields == null ? new GetRestaurantsResponse(restaurants)
+        : new ProjectedRestaurantsResponse(restaurants, fields);
+  }
+
   /**
    * Determines whether the given time is a peak hour.
    *
    * @param time the time to check
    * @return true if the time is a peak hour, false otherwise
    */
-  private boolean isPeakHour(LocalTime time) {
+  public static boolean isPeakHour(LocalTime time) {
     int hour = time.getHour();
     return (hour >= 8 && hour <= 10) || (hour >= 13 && hour <= 14) || (hour >= 19 && hour <= 21);
   }
@@ -99,7 +263,7 @@ public class RestaurantServiceImpl implements RestaurantService {
     List<Restaurant> filteredRestaurants = filterAndOrderRestaurantsBySearchQuery(getRestaurantsRequest.getSearchFor(), currentTime,
         getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), servingRadiusInKms);
 
-    GetRestaurantsResponse response = new GetRestaurantsResponse(filteredRestaurants);
+    GetRestaurantsResponse response = toResponse(filteredRestaurants, getRestaurantsRequest);
     log.info("Found {} restaurants matching search query for request: {} at time: {}", filteredRestaurants.size(), getRestaurantsRequest, currentTime);
 
     return response;
@@ -138,14 +302,12 @@ public class RestaurantServiceImpl implements RestaurantService {
 
     Double servingRadiusInKms = isPeakHour(currentTime) ? peakHoursServingRadiusInKms : normalHoursServingRadiusInKms;
 
-    //---------
-    // Parallize this part
-    ExecutorService executor = Executors.newFixedThreadPool(4);
+    // Fanned out on the shared search executor: virtual threads, or a fixed platform pool.
     List<Future<List<Restaurant>>> futures = new ArrayList<>();
-    Future<List<Restaurant>> nameMatchesFutures = executor.submit(() -> restaurantRepositoryService.findRestaurantsByName(getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), getRestaurantsRequest.getSearchFor(), currentTime, servingRadiusInKms));
-    Future<List<Restaurant>> attributeMatchesFutures = executor.submit(() -> restaurantRepositoryService.findRestaurantsByAttributes(getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), getRestaurantsRequest.getSearchFor(), currentTime, servingRadiusInKms));
-    Future<List<Restaurant>> itemNameMatchesFutures = executor.submit(() -> restaurantRepositoryService.findRestaurantsByItemName(getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), getRestaurantsRequest.getSearchFor(), currentTime, servingRadiusInKms));
-    Future<List<Restaurant>> itemAttributeMatchesFutures = executor.submit(() -> restaurantRepositoryService.findRestaurantsByItemAttributes(getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), getRestaurantsRequest.getSearchFor(), currentTime, servingRadiusInKms));
+    Future<List<Restaurant>> nameMatchesFutures = searchExecutor.submit(() -> restaurantRepositoryService.findRestaurantsByName(getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), getRestaurantsRequest.getSearchFor(), currentTime, servingRadiusInKms));
+    Future<List<Restaurant>> attributeMatchesFutures = searchExecutor.submit(() -> restaurantRepositoryService.findRestaurantsByAttributes(getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), getRestaurantsRequest.getSearchFor(), currentTime, servingRadiusInKms));
+    Future<List<Restaurant>> itemNameMatchesFutures = searchExecutor.submit(() -> restaurantRepositoryService.findRestaurantsByItemName(getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), getRestaurantsRequest.getSearchFor(), currentTime, servingRadiusInKms));
+    Future<List<Restaurant>> itemAttributeMatchesFutures = searchExecutor.submit(() -> restaurantRepositoryService.findRestaurantsByItemAttributes(getRestaurantsRequest.getLatitude(), getRestaurantsRequest.getLongitude(), getRestaurantsRequest.getSearchFor(), currentTime, servingRadiusInKms));
 
     futures.add(nameMatchesFutures);
     futures.add(attributeMatchesFutures);
@@ -163,17 +325,7 @@ public class RestaurantServiceImpl implements RestaurantService {
       }
     }
 
-    // shutdown the executor
-    executor.shutdown();
-    try {
-        if (!executor.awaitTermination(800, TimeUnit.MILLISECONDS)) {
-            executor.shutdownNow();
-        } 
-    } catch (InterruptedException e) {
-        executor.shutdownNow();
-    }
-    
-    GetRestaurantsResponse response = new GetRestaurantsResponse(restaurantsList);
+    GetRestaurantsResponse response = toResponse(restaurantsList, getRestaurantsRequest);
     log.info("Found {} restaurants matching search query (multithreaded) for request: {} at time: {}",
         restaurantsList.size(), getRestaurantsRequest, currentTime);
 
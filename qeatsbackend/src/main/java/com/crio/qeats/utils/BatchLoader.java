@@ -0,0 +1,214 @@
+
+package com.crio.qeats.utils;
+
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces lookups by key from concurrent callers, in the manner of a DataLoader. Keys asked for
+ * within {@code maxWaitNanos} of the first one are looked up together, once each, by a single
+ * call to the batch function, and every caller gets back the values of its own keys. A batch
+ * goes out early once it reaches {@code maxBatchSize} keys, and one that went past it, because
+ * of a caller with many keys, is split into calls of at most that many.
+ * Batch sizes, callers per batch, the time callers wait for their batch to go out and the time
+ * the batch function takes are published as {@code qeats.batchloader.*} meters, tagged with the
+ * name of the loader.
+ */
+public class BatchLoader<K, V> {
+
+  private final Function<List<K>, ? extends Iterable<V>> batchFunction;
+  private final Function<? super V, K> keyOf;
+  private final long maxWaitNanos;
+  private final int maxBatchSize;
+  private final Executor dispatcher;
+  private final ScheduledThreadPoolExecutor timer;
+
+  private final DistributionSummary batchSize;
+  private final DistributionSummary callersPerBatch;
+  private final Timer waitTime;
+  private final Timer batchTime;
+
+  private final Object lock = new Object();
+  private List<Waiter<K, V>> waiters = new ArrayList<>();
+  private Set<K> waitingKeys = new HashSet<>();
+  private ScheduledFuture<?> flush;
+  private boolean shutdown;
+
+  public BatchLoader(String name, Function<List<K>, ? extends Iterable<V>> batchFunction,
+      Function<? super V, K> keyOf, long maxWaitNanos, int maxBatchSize, Executor dispatcher,
+      MeterRegistry meterRegistry) {
+    this.batchFunction = batchFunction;
+    this.keyOf = keyOf;
+    this.maxWaitNanos = maxWaitNanos;
+    this.maxBatchSize = maxBatchSize;
+    this.dispatcher = dispatcher;
+    this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, name + "-batch-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.timer.setRemoveOnCancelPolicy(true);
+
+    batchSize = DistributionSummary.builder("qeats.batchloader.batch.size")
+        .description("Distinct keys per batch").tag("loader", name).register(meterRegistry);
+    callersPerBatch = DistributionSummary.builder("qeats.batchloader.batch.callers")
+        .description("Callers served by one batch").tag("loader", name).register(meterRegistry);
+    waitTime = Timer.builder("qeats.batchloader.wait")
+        .description("Time a caller waits for its batch to go out").tag("loader", name)
+        .register(meterRegistry);
+    batchTime = Timer.builder("qeats.batchloader.batch")
+        .description("Time the batch function takes").tag("loader", name)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the values found for the keys; keys without a value are absent from the map.
+   */
+  public CompletableFuture<Map<K, V>> loadAll(Collection<K> keys) {
+    if (keys.isEmpty()) {
+      return CompletableFuture.completedFuture(new HashMap<>());
+    }
+
+    Waiter<K, V> waiter = new Waiter<>(keys);
+    List<Waiter<K, V>> fullBatch = null;
+    synchronized (lock) {
+      if (shutdown) {
+        waiter.future.completeExceptionally(new IllegalStateException("Batch loader shut down"));
+        return waiter.future;
+      }
+      waiters.add(waiter);
+      waitingKeys.addAll(keys);
+      if (waitingKeys.size() >= maxBatchSize) {
+        fullBatch = takeWaiters();
+      } else if (flush == null) {
+        flush = timer.schedule(this::flush, maxWaitNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+    if (fullBatch != null) {
+      dispatch(fullBatch);
+    }
+    return waiter.future;
+  }
+
+  /**
+   * Blocking form of {@link #loadAll}; failures of the batch function are rethrown as is.
+   */
+  public Map<K, V> getAll(Collection<K> keys) {
+    try {
+      return loadAll(keys).join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+  }
+
+  /**
+   * Stops taking keys. Callers still waiting for their batch to go out fail.
+   */
+  public void shutdown() {
+    List<Waiter<K, V>> pending;
+    synchronized (lock) {
+      shutdown = true;
+      pending = takeWaiters();
+    }
+    timer.shutdownNow();
+    IllegalStateException e = new IllegalStateException("Batch loader shut down");
+    pending.forEach(waiter -> waiter.future.completeExceptionally(e));
+  }
+
+  private void flush() {
+    List<Waiter<K, V>> batch;
+    synchronized (lock) {
+      batch = takeWaiters();
+    }
+    if (!batch.isEmpty()) {
+      dispatch(batch);
+    }
+  }
+
+  // Called with the lock held.
+  private List<Waiter<K, V>> takeWaiters() {
+    List<Waiter<K, V>> batch = waiters;
+    waiters = new ArrayList<>();
+    waitingKeys = new HashSet<>();
+    if (flush != null) {
+      flush.cancel(false);
+      flush = null;
+    }
+    return batch;
+  }
+
+  private void dispatch(List<Waiter<K, V>> batch) {
+    long dispatchedAt = System.nanoTime();
+    Set<K> keys = new LinkedHashSet<>();
+    for (Waiter<K, V> waiter : batch) {
+      keys.addAll(waiter.keys);
+      waitTime.record(dispatchedAt - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+    }
+    callersPerBatch.record(batch.size());
+
+    try {
+      dispatcher.execute(() -> run(batch, keys));
+    } catch (RejectedExecutionException e) {
+      batch.forEach(waiter -> waiter.future.completeExceptionally(e));
+    }
+  }
+
+  private void run(List<Waiter<K, V>> batch, Set<K> keys) {
+    Map<K, V> found = new HashMap<>();
+    try {
+      for (List<K> part : Lists.partition(new ArrayList<>(keys), maxBatchSize)) {
+        batchSize.record(part.size());
+        batchTime.record(() -> {
+          for (V value : batchFunction.apply(part)) {
+            found.put(keyOf.apply(value), value);
+          }
+        });
+      }
+    } catch (RuntimeException e) {
+      batch.forEach(waiter -> waiter.future.completeExceptionally(e));
+      return;
+    }
+
+    for (Waiter<K, V> waiter : batch) {
+      Map<K, V> values = new HashMap<>();
+      for (K key : waiter.keys) {
+        V value = found.get(key);
+        if (value != null) {
+          values.put(key, value);
+        }
+      }
+      waiter.future.complete(values);
+    }
+  }
+
+  private static final class Waiter<K, V> {
+
+    private final Collection<K> keys;
+    private final long enqueuedAt = System.nanoTime();
+    private final CompletableFuture<Map<K, V>> future = new CompletableFuture<>();
+
+    private Waiter(Collection<K> keys) {
+      this.keys = new ArrayList<>(keys);
+    }
+
+  }
+
+}
@@ -0,0 +1,92 @@
+
+package com.crio.qeats.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a lookup by id list, such as an {@code $in} query, over bounded chunks of the ids instead
+ * of all of them at once. At most {@code maxConcurrency} chunks are in flight, and the results of
+ * each chunk are handed to the consumer, deduplicated, as soon as it completes, so neither the
+ * queries nor the buffered results grow with the number of ids.
+ */
+public class ChunkedLookup {
+
+  private final Executor executor;
+  private final int chunkSize;
+  private final int maxConcurrency;
+
+  public ChunkedLookup(Executor executor, int chunkSize, int maxConcurrency) {
+    if (chunkSize < 1 || maxConcurrency < 1) {
+      throw new IllegalArgumentException("chunkSize and maxConcurrency must be positive");
+    }
+    this.executor = executor;
+    this.chunkSize = chunkSize;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Looks up the distinct ids chunk by chunk and hands every result to the consumer, once per
+   * key, on the calling thread. Ids that fit in a single chunk are looked up on the calling
+   * thread too. The first failing chunk cancels the others and is rethrown.
+   */
+  public <I, T> void forEach(Collection<I> ids, Function<List<I>, ? extends Iterable<T>> lookup,
+      Function<? super T, ?> keyOf, Consumer<? super T> consumer) {
+    List<I> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+    Set<Object> seen = new HashSet<>();
+    if (distinctIds.size() <= chunkSize) {
+      emit(lookup.apply(distinctIds), keyOf, consumer, seen);
+      return;
+    }
+
+    CompletionService<Iterable<T>> completionService =
+        new ExecutorCompletionService<>(executor);
+    List<Future<Iterable<T>>> chunks = new ArrayList<>();
+    int next = 0;
+    int running = 0;
+    try {
+      while (next < distinctIds.size() || running > 0) {
+        while (running < maxConcurrency && next < distinctIds.size()) {
+          List<I> chunk = new ArrayList<>(
+              distinctIds.subList(next, Math.min(next + chunkSize, distinctIds.size())));
+          chunks.add(completionService.submit(() -> lookup.apply(chunk)));
+          next += chunk.size();
+          running++;
+        }
+        Iterable<T> results = completionService.take().get();
+        running--;
+        emit(results, keyOf, consumer, seen);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while looking up " + ids.size() + " ids", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof RuntimeException ? (RuntimeException) cause
+          : new IllegalStateException(cause);
+    } finally {
+      chunks.forEach(chunk -> chunk.cancel(true));
+    }
+  }
+
+  private static <T> void emit(Iterable<T> results, Function<? super T, ?> keyOf,
+      Consumer<? super T> consumer, Set<Object> seen) {
+    for (T result : results) {
+      if (seen.add(keyOf.apply(result))) {
+        consumer.accept(result);
+      }
+    }
+  }
+
+}
@@ -7,6 +7,10 @@
 
 package com.crio.qeats.utils;
 
+import ch.hsr.geohash.BoundingBox;
+import ch.hsr.geohash.GeoHash;
+import ch.hsr.geohash.WGS84Point;
+import com.crio.qeats.globals.GlobalConstants;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -19,6 +23,33 @@ public class GeoUtils {
     return distance(srcLatitude, dstLatitude, srcLongitude, dstLongitude, 0, 0);
   }
 
+  /**
+   * Returns the base32 geohash of the cache cell that contains the given location.
+   */
+  public static String toGeoHashCell(double latitude, double longitude) {
+    return GeoHash.withCharacterPrecision(latitude, longitude,
+        GlobalConstants.GEOHASH_PRECISION).toBase32();
+  }
+
+  /**
+   * Returns how far, in km, a point of the given cache cell can be from the center of the cell,
+   * i.e. half its diagonal.
+   */
+  public static double halfCellDiagonalInKm(String cell) {
+    GeoHash geoHash = GeoHash.fromGeohashString(cell);
+    WGS84Point center = geoHash.getBoundingBoxCenterPoint();
+    BoundingBox box = geoHash.getBoundingBox();
+    // Cells narrow away from the equator, so the corners are not all equally far.
+    double farthest = 0;
+    for (double latitude : new double[] {box.getMinLat(), box.getMaxLat()}) {
+      for (double longitude : new double[] {box.getMinLon(), box.getMaxLon()}) {
+        farthest = Math.max(farthest, findDistanceInKm(center.getLatitude(),
+            center.getLongitude(), latitude, longitude));
+      }
+    }
+    return farthest;
+  }
+
   /**
    * THIS IS BORROWED CODE. Calculate distance between two points in latitude and longitude taking
    * into account height difference. If you are not interested in height difference pass 0.0. Uses
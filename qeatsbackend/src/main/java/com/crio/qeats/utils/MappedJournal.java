@@ -0,0 +1,435 @@
+
+package com.crio.qeats.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of records in memory-mapped segment files, made durable with group
+ * commit. Appending a record only copies it into the mapping. A single thread forces everything
+ * appended since its previous force in one go and then completes the futures of all those
+ * records, so every record that arrived while one force ran shares the next one.
+ * Durable records are read back in order by a single consumer, which commits how far it got.
+ * Segments it is done with are deleted, and a reopened journal resumes reading after the last
+ * commit, so records appended before a crash but not consumed yet are replayed. A record torn by
+ * the crash is dropped along with everything after it; none of those appends had completed.
+ * Force times and records per force are published as {@code qeats.journal.*} meters, tagged
+ * with the name of the journal.
+ */
+public class MappedJournal implements Closeable {
+
+  // Every record is its payload length, the CRC32 of the payload, its sequence, then the
+  // payload. Segments start zero-filled, so a zero length ends the records of a segment.
+  private static final int HEADER_BYTES = 16;
+  private static final String SEGMENT_SUFFIX = ".segment";
+  private static final String CHECKPOINT_FILE = "checkpoint";
+
+  private final Path directory;
+  private final int segmentBytes;
+  private final Timer forceTime;
+  private final DistributionSummary recordsPerForce;
+
+  // Oldest first. Segments are added by appenders and removed by the consumer.
+  private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+  private final Object lock = new Object();
+  private Segment current;
+  private long nextSequence;
+  private List<Pending> pending = new ArrayList<>();
+  private boolean closed;
+  private RuntimeException failure;
+
+  private final Object durableMonitor = new Object();
+  private volatile long durableSequence;
+
+  private final Thread syncer;
+
+  // Only touched by the consumer.
+  private long committedSequence;
+  private Segment readSegment;
+  private int readPosition;
+  private long readSequence;
+
+  public MappedJournal(String name, Path directory, int segmentBytes,
+      MeterRegistry meterRegistry) throws IOException {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    forceTime = Timer.builder("qeats.journal.force")
+        .description("Time one force of the journal takes").tag("journal", name)
+        .register(meterRegistry);
+    recordsPerForce = DistributionSummary.builder("qeats.journal.force.records")
+        .description("Records made durable by one force").tag("journal", name)
+        .register(meterRegistry);
+
+    Files.createDirectories(directory);
+    recover();
+
+    syncer = new Thread(this::syncLoop, name + "-journal-sync");
+    syncer.setDaemon(true);
+    syncer.start();
+  }
+
+  /**
+   * Appends the record. The returned future completes with the sequence of the record once it
+   * is durable, or exceptionally if forcing it failed, after which the journal takes no more
+   * records.
+   */
+  public CompletableFuture<Long> append(byte[] payload) {
+    if (HEADER_BYTES + payload.length > segmentBytes) {
+      throw new IllegalArgumentException("Record of " + payload.length
+          + " bytes does not fit in a segment of " + segmentBytes);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    int checksum = (int) crc.getValue();
+
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    synchronized (lock) {
+      if (failure != null) {
+        throw new IllegalStateException("Journal failed", failure);
+      }
+      if (closed) {
+        throw new IllegalStateException("Journal closed");
+      }
+      if (!current.fits(payload.length)) {
+        current = createSegment(nextSequence);
+      }
+      long sequence = nextSequence++;
+      current.write(sequence, checksum, payload);
+      pending.add(new Pending(sequence, current, future));
+      if (pending.size() == 1) {
+        lock.notifyAll();
+      }
+    }
+    return future;
+  }
+
+  /**
+   * Returns up to {@code maxRecords} durable records that follow the last one read, waiting up
+   * to the timeout for one if there is none yet. Only one thread may read.
+   */
+  public List<Record> read(int maxRecords, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (durableMonitor) {
+      long remaining;
+      while (durableSequence < readSequence
+          && (remaining = deadline - System.nanoTime()) > 0) {
+        TimeUnit.NANOSECONDS.timedWait(durableMonitor, remaining);
+      }
+    }
+
+    long durable = durableSequence;
+    List<Record> records = new ArrayList<>();
+    while (records.size() < maxRecords && readSequence <= durable) {
+      Record record = readSegment.read(readPosition);
+      if (record == null) {
+        readSegment = segments.get(segments.indexOf(readSegment) + 1);
+        readPosition = 0;
+        continue;
+      }
+      readPosition += HEADER_BYTES + record.payload.length;
+      if (record.sequence >= readSequence) {
+        records.add(record);
+        readSequence = record.sequence + 1;
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Marks all records up to the sequence as consumed. A reopened journal only replays the
+   * records after it, and segments holding nothing else are deleted.
+   */
+  public void commit(long sequence) throws IOException {
+    Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+    Path next = directory.resolve(CHECKPOINT_FILE + ".next");
+    Files.write(next, Long.toString(sequence).getBytes(StandardCharsets.US_ASCII));
+    Files.move(next, checkpoint, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    committedSequence = sequence;
+
+    // The current segment is always last, so it is never deleted.
+    while (segments.size() > 1 && segments.get(1).firstSequence <= committedSequence + 1
+        && segments.get(0) != readSegment) {
+      Segment consumed = segments.remove(0);
+      Files.deleteIfExists(consumed.path);
+    }
+  }
+
+  public long getCommittedSequence() {
+    return committedSequence;
+  }
+
+  /**
+   * Stops taking records and returns once all appended records are durable.
+   */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      closed = true;
+      lock.notifyAll();
+    }
+    try {
+      syncer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void syncLoop() {
+    while (true) {
+      List<Pending> batch;
+      RuntimeException failed;
+      synchronized (lock) {
+        while (pending.isEmpty() && !closed) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = pending;
+        pending = new ArrayList<>();
+        failed = failure;
+      }
+      if (failed != null) {
+        // Appended before the failure was seen; they must not become durable after the records
+        // that failed.
+        batch.forEach(record -> record.future.completeExceptionally(failed));
+        continue;
+      }
+
+      long startedAt = System.nanoTime();
+      try {
+        // Sequences only grow, so each segment shows up in a single run of the batch.
+        Segment forced = null;
+        for (Pending record : batch) {
+          if (record.segment != forced) {
+            forced = record.segment;
+            forced.buffer.force();
+          }
+        }
+      } catch (RuntimeException e) {
+        synchronized (lock) {
+          failure = e;
+        }
+        batch.forEach(record -> record.future.completeExceptionally(e));
+        continue;
+      }
+      forceTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+      recordsPerForce.record(batch.size());
+
+      synchronized (durableMonitor) {
+        durableSequence = batch.get(batch.size() - 1).sequence;
+        durableMonitor.notifyAll();
+      }
+      batch.forEach(record -> record.future.complete(record.sequence));
+    }
+  }
+
+  private void recover() throws IOException {
+    Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+    if (Files.exists(checkpoint)) {
+      committedSequence = Long.parseLong(
+          new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII).trim());
+    }
+
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files = listing.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    // A segment is started without waiting for the previous one to be forced, so after a crash
+    // any segment, not only the last, may end in a torn record. Records are only acknowledged
+    // once everything before them is durable, so none after a torn one was, and the journal is
+    // cut there: the segments that follow it are deleted.
+    long next = committedSequence + 1;
+    for (int i = 0; i < files.size(); i++) {
+      Path file = files.get(i);
+      Segment segment = new Segment(file, firstSequenceOf(file), map(file, 0));
+      if (i == 0) {
+        next = segment.firstSequence;
+      }
+      next = segment.recover(next);
+      segments.add(segment);
+      if (i + 1 < files.size() && firstSequenceOf(files.get(i + 1)) != next) {
+        for (Path dropped : files.subList(i + 1, files.size())) {
+          Files.delete(dropped);
+        }
+        break;
+      }
+    }
+
+    nextSequence = next;
+    current = segments.isEmpty() ? createSegment(nextSequence) : segments.get(segments.size() - 1);
+    durableSequence = nextSequence - 1;
+    readSegment = segments.get(0);
+    readPosition = 0;
+    readSequence = committedSequence + 1;
+  }
+
+  private static long firstSequenceOf(Path file) {
+    String fileName = file.getFileName().toString();
+    return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private Segment createSegment(long firstSequence) {
+    Path file = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+    try {
+      Segment segment = new Segment(file, firstSequence, map(file, segmentBytes));
+      segments.add(segment);
+      return segment;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Maps the whole file, first growing it to the given size if it is smaller.
+  private static MappedByteBuffer map(Path file, int size) throws IOException {
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw");
+        FileChannel channel = randomAccessFile.getChannel()) {
+      if (randomAccessFile.length() < size) {
+        randomAccessFile.setLength(size);
+      }
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+    }
+  }
+
+  public static final class Record {
+
+    private final long sequence;
+    private final byte[] payload;
+
+    private Record(long sequence, byte[] payload) {
+      this.sequence = sequence;
+      this.payload = payload;
+    }
+
+    public long getSequence() {
+      return sequence;
+    }
+
+    public byte[] getPayload() {
+      return payload;
+    }
+
+  }
+
+  private static final class Segment {
+
+    private final Path path;
+    private final long firstSequence;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    private Segment(Path path, long firstSequence, MappedByteBuffer buffer) {
+      this.path = path;
+      this.firstSequence = firstSequence;
+      this.buffer = buffer;
+    }
+
+    private boolean fits(int payloadBytes) {
+      return writePosition + HEADER_BYTES + payloadBytes <= buffer.capacity();
+    }
+
+    private void write(long sequence, int checksum, byte[] payload) {
+      ByteBuffer target = buffer.duplicate();
+      target.position(writePosition + HEADER_BYTES);
+      target.put(payload);
+      buffer.putInt(writePosition + 4, checksum);
+      buffer.putLong(writePosition + 8, sequence);
+      buffer.putInt(writePosition, payload.length);
+      writePosition += HEADER_BYTES + payload.length;
+    }
+
+    // Returns the record at the position, or null past the last one.
+    private Record read(int position) {
+      if (position + HEADER_BYTES > buffer.capacity()) {
+        return null;
+      }
+      int length = buffer.getInt(position);
+      if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()) {
+        return null;
+      }
+      byte[] payload = new byte[length];
+      ByteBuffer source = buffer.duplicate();
+      source.position(position + HEADER_BYTES);
+      source.get(payload);
+      return new Record(buffer.getLong(position + 8), payload);
+    }
+
+    // Finds the end of the records, checking that they are intact and numbered from
+    // expectedSequence on, and returns the sequence following the last one. Whatever a crash
+    // left after the records is zeroed, so that none of it is mistaken for a record once new
+    // ones are written over it.
+    private long recover(long expectedSequence) {
+      int position = 0;
+      Record record;
+      while ((record = read(position)) != null) {
+        CRC32 crc = new CRC32();
+        crc.update(record.payload);
+        if (record.sequence != expectedSequence
+            || (int) crc.getValue() != buffer.getInt(position + 4)) {
+          break;
+        }
+        position += HEADER_BYTES + record.payload.length;
+        expectedSequence++;
+      }
+      writePosition = position;
+
+      boolean dirty = false;
+      for (int i = position; i < buffer.capacity(); i++) {
+        if (buffer.get(i) != 0) {
+          buffer.put(i, (byte) 0);
+          dirty = true;
+        }
+      }
+      if (dirty) {
+        buffer.force();
+      }
+      return expectedSequence;
+    }
+
+  }
+
+  private static final class Pending {
+
+    private final long sequence;
+    private final Segment segment;
+    private final CompletableFuture<Long> future;
+
+    private Pending(long sequence, Segment segment, CompletableFuture<Long> future) {
+      this.sequence = sequence;
+      this.segment = segment;
+      this.future = future;
+    }
+
+  }
+
+}
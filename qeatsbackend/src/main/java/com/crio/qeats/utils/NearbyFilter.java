@@ -0,0 +1,123 @@
+
+package com.crio.qeats.utils;
+
+import com.crio.qeats.dto.Restaurant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Restaurants laid out as primitive arrays of precomputed sines and cosines, so that checking all
+ * of them against one location is a single pass of multiplications and additions, which the JIT
+ * can vectorize. Uses the same Haversine distance as {@link GeoUtils#findDistanceInKm}, but
+ * compares the haversine itself against the radius instead of inverting it for every restaurant.
+ */
+public class NearbyFilter {
+
+  private static final double EARTH_RADIUS_IN_KMS = 6371;
+
+  private final List<Restaurant> restaurants;
+  private final double[] sinHalfLatitudes;
+  private final double[] cosHalfLatitudes;
+  private final double[] sinHalfLongitudes;
+  private final double[] cosHalfLongitudes;
+  private final double[] cosLatitudes;
+
+  public NearbyFilter(List<Restaurant> restaurants) {
+    int size = restaurants.size();
+    this.restaurants = restaurants;
+    sinHalfLatitudes = new double[size];
+    cosHalfLatitudes = new double[size];
+    sinHalfLongitudes = new double[size];
+    cosHalfLongitudes = new double[size];
+    cosLatitudes = new double[size];
+    for (int i = 0; i < size; i++) {
+      Restaurant restaurant = restaurants.get(i);
+      double latitude = Math.toRadians(restaurant.getLatitude());
+      double longitude = Math.toRadians(restaurant.getLongitude());
+      sinHalfLatitudes[i] = Math.sin(latitude / 2);
+      cosHalfLatitudes[i] = Math.cos(latitude / 2);
+      sinHalfLongitudes[i] = Math.sin(longitude / 2);
+      cosHalfLongitudes[i] = Math.cos(longitude / 2);
+      cosLatitudes[i] = Math.cos(latitude);
+    }
+  }
+
+  private NearbyFilter(NearbyFilter source, int[] indices) {
+    restaurants = source.restaurants(indices);
+    sinHalfLatitudes = select(source.sinHalfLatitudes, indices);
+    cosHalfLatitudes = select(source.cosHalfLatitudes, indices);
+    sinHalfLongitudes = select(source.sinHalfLongitudes, indices);
+    cosHalfLongitudes = select(source.cosHalfLongitudes, indices);
+    cosLatitudes = select(source.cosLatitudes, indices);
+  }
+
+  /**
+   * Returns the indices, in ascending order, of the restaurants strictly closer than
+   * {@code radiusInKms} to the location.
+   */
+  public int[] within(double latitude, double longitude, double radiusInKms) {
+    double latitudeInRadians = Math.toRadians(latitude);
+    double longitudeInRadians = Math.toRadians(longitude);
+    double sinHalfLatitude = Math.sin(latitudeInRadians / 2);
+    double cosHalfLatitude = Math.cos(latitudeInRadians / 2);
+    double sinHalfLongitude = Math.sin(longitudeInRadians / 2);
+    double cosHalfLongitude = Math.cos(longitudeInRadians / 2);
+    double cosLatitude = Math.cos(latitudeInRadians);
+
+    // The distance is 2R asin(sqrt(h)), so it is below the radius exactly when h is below this.
+    double sinHalfAngle = Math.sin(Math.min(radiusInKms / (2 * EARTH_RADIUS_IN_KMS),
+        Math.PI / 2));
+    double threshold = sinHalfAngle * sinHalfAngle;
+
+    // sin((a - b) / 2) from the half-angle sines and cosines, which avoids the cancellation of
+    // 1 - cos(a - b) for nearby points.
+    int size = restaurants.size();
+    double[] haversines = new double[size];
+    for (int i = 0; i < size; i++) {
+      double sinHalfDeltaLatitude =
+          sinHalfLatitudes[i] * cosHalfLatitude - cosHalfLatitudes[i] * sinHalfLatitude;
+      double sinHalfDeltaLongitude =
+          sinHalfLongitudes[i] * cosHalfLongitude - cosHalfLongitudes[i] * sinHalfLongitude;
+      haversines[i] = sinHalfDeltaLatitude * sinHalfDeltaLatitude
+          + cosLatitudes[i] * cosLatitude * sinHalfDeltaLongitude * sinHalfDeltaLongitude;
+    }
+
+    int[] indices = new int[size];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      if (haversines[i] < threshold) {
+        indices[count++] = i;
+      }
+    }
+    return Arrays.copyOf(indices, count);
+  }
+
+  /**
+   * Returns a filter over the restaurants at the given indices, without recomputing anything.
+   */
+  public NearbyFilter subset(int[] indices) {
+    return new NearbyFilter(this, indices);
+  }
+
+  public List<Restaurant> restaurants(int[] indices) {
+    List<Restaurant> selected = new ArrayList<>(indices.length);
+    for (int index : indices) {
+      selected.add(restaurants.get(index));
+    }
+    return selected;
+  }
+
+  public int size() {
+    return restaurants.size();
+  }
+
+  private static double[] select(double[] values, int[] indices) {
+    double[] selected = new double[indices.length];
+    for (int i = 0; i < indices.length; i++) {
+      selected[i] = values[indices[i]];
+    }
+    return selected;
+  }
+
+}
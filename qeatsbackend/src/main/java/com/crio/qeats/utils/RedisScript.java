@@ -0,0 +1,55 @@
+
+package com.crio.qeats.utils;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * A Lua script run by Redis, sent by its SHA1 digest once Redis knows it. A Redis that does not
+ * have it yet, e.g. after a restart, gets the source instead, which it keeps for the next calls.
+ */
+public final class RedisScript {
+
+  private final String source;
+  private final String sha;
+
+  private RedisScript(String source) {
+    this.source = source;
+    this.sha = Hashing.sha1().hashString(source, StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Reads the script from the classpath, concatenating the given resources in order, so that
+   * scripts can share functions.
+   */
+  public static RedisScript fromResources(String... resourceNames) {
+    StringBuilder source = new StringBuilder();
+    for (String resourceName : resourceNames) {
+      try {
+        source.append(Resources.toString(Resources.getResource(resourceName),
+            StandardCharsets.UTF_8));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return new RedisScript(source.toString());
+  }
+
+  public Object eval(Jedis jedis, List<String> keys, List<String> args) {
+    try {
+      return jedis.evalsha(sha, keys, args);
+    } catch (JedisDataException e) {
+      if (e.getMessage() == null || !e.getMessage().startsWith("NOSCRIPT")) {
+        throw e;
+      }
+      return jedis.eval(source, keys, args);
+    }
+  }
+
+}
@@ -0,0 +1,52 @@
+
+package com.crio.qeats.utils;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
+import com.crio.qeats.models.RestaurantEntity;
+import java.util.Set;
+
+/**
+ * Maps restaurant entities to DTOs field by field, replacing the reflective ModelMapper on the
+ * request path. This is where restaurants enter the cache tiers, so names are sanitized here,
+ * once, instead of on every response.
+ */
+public final class RestaurantMapper {
+
+  private RestaurantMapper() { /* static helpers only */ }
+
+  public static Restaurant toRestaurant(RestaurantEntity entity) {
+    return new Restaurant(entity.getId(), entity.getRestaurantId(), sanitizeName(entity.getName()),
+        entity.getCity(), entity.getImageUrl(),
+        entity.getLatitude() == null ? 0 : entity.getLatitude(),
+        entity.getLongitude() == null ? 0 : entity.getLongitude(),
+        entity.getOpensAt(), entity.getClosesAt(), entity.getAttributes());
+  }
+
+  /**
+   * Maps only the given fields; the others are left null (or zero). Used for projected queries,
+   * whose entities come back with just these fields populated.
+   */
+  public static Restaurant toRestaurant(RestaurantEntity entity, Set<RestaurantField> fields) {
+    return new Restaurant(entity.getId(),
+        fields.contains(RestaurantField.RESTAURANT_ID) ? entity.getRestaurantId() : null,
+        fields.contains(RestaurantField.NAME) ? sanitizeName(entity.getName()) : null,
+        fields.contains(RestaurantField.CITY) ? entity.getCity() : null,
+        fields.contains(RestaurantField.IMAGE_URL) ? entity.getImageUrl() : null,
+        fields.contains(RestaurantField.LATITUDE) && entity.getLatitude() != null
+            ? entity.getLatitude() : 0,
+        fields.contains(RestaurantField.LONGITUDE) && entity.getLongitude() != null
+            ? entity.getLongitude() : 0,
+        fields.contains(RestaurantField.OPENS_AT) ? entity.getOpensAt() : null,
+        fields.contains(RestaurantField.CLOSES_AT) ? entity.getClosesAt() : null,
+        fields.contains(RestaurantField.ATTRIBUTES) ? entity.getAttributes() : null);
+  }
+
+  /**
+   * Replaces characters that some clients cannot render in restaurant names.
+   */
+  public static String sanitizeName(String name) {
+    return name == null ? null : name.replace("é", "?");
+  }
+
+}
@@ -0,0 +1,95 @@
+
+package com.crio.qeats.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Unique, time-ordered 63-bit ids, generated without any coordination between nodes: the
+ * milliseconds since {@link #EPOCH_MILLIS} in the top 41 bits, then the node id in 10 bits, then
+ * a sequence number within the millisecond in the last 12. Nodes must have distinct node ids.
+ * The timestamp and sequence number of the last id share one AtomicLong, advanced with a CAS,
+ * so ids of one generator strictly increase. A millisecond that runs out of sequence numbers
+ * carries into the next one, and a clock that moves back is ignored until it catches up again;
+ * either way ids get ahead of the clock, which is tolerated up to maxClockSkewMillis.
+ */
+public class SnowflakeIdGenerator {
+
+  // 2019-01-01T00:00:00Z, which leaves room for ids until 2088.
+  public static final long EPOCH_MILLIS = 1546300800000L;
+  public static final int MAX_NODE_ID = (1 << 10) - 1;
+
+  private static final int SEQUENCE_BITS = 12;
+  private static final int NODE_ID_SHIFT = SEQUENCE_BITS;
+  private static final int TIMESTAMP_SHIFT = NODE_ID_SHIFT + 10;
+  private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+  private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+  private static final String ZEROS = "0000000000000000";
+
+  private final int nodeId;
+  private final long maxClockSkewMillis;
+  private final LongSupplier clock;
+
+  // Timestamp and sequence number of the last id, as in the id but without the node id.
+  private final AtomicLong last = new AtomicLong();
+
+  public SnowflakeIdGenerator(int nodeId, long maxClockSkewMillis) {
+    this(nodeId, maxClockSkewMillis, System::currentTimeMillis);
+  }
+
+  SnowflakeIdGenerator(int nodeId, long maxClockSkewMillis, LongSupplier clock) {
+    if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+      throw new IllegalArgumentException(
+          "Node id must be between 0 and " + MAX_NODE_ID + ", got " + nodeId);
+    }
+    this.nodeId = nodeId;
+    this.maxClockSkewMillis = maxClockSkewMillis;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns a new id, greater than every id returned before by this generator.
+   * @throws IllegalStateException if the id would get more than maxClockSkewMillis ahead of the
+   *     clock, which happens when the clock moved back by more than that
+   */
+  public long nextId() {
+    while (true) {
+      long timestamp = clock.getAsLong() - EPOCH_MILLIS;
+      long previous = last.get();
+      long next = Math.max(timestamp << SEQUENCE_BITS, previous + 1);
+      long nextTimestamp = next >>> SEQUENCE_BITS;
+      if (nextTimestamp - timestamp > maxClockSkewMillis) {
+        throw new IllegalStateException("Clock of node " + nodeId + " is "
+            + (nextTimestamp - timestamp) + " ms behind its last id");
+      }
+      if (nextTimestamp > MAX_TIMESTAMP) {
+        throw new IllegalStateException("Ids of node " + nodeId + " are exhausted");
+      }
+      if (last.compareAndSet(previous, next)) {
+        return nextTimestamp << TIMESTAMP_SHIFT | (long) nodeId << NODE_ID_SHIFT
+            | next & SEQUENCE_MASK;
+      }
+    }
+  }
+
+  public int getNodeId() {
+    return nodeId;
+  }
+
+  public static long timestampMillis(long id) {
+    return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+  }
+
+  public static int nodeId(long id) {
+    return (int) (id >>> NODE_ID_SHIFT) & MAX_NODE_ID;
+  }
+
+  /**
+   * Formats the id as 16 hex digits, so that the strings sort like the ids.
+   */
+  public static String format(long id) {
+    String hex = Long.toHexString(id);
+    return ZEROS.substring(hex.length()) + hex;
+  }
+
+}
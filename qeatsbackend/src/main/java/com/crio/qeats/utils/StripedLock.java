@@ -0,0 +1,73 @@
+package com.crio.qeats.utils;
+
+import com.google.common.util.concurrent.Striped;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * Mutual exclusion per key, without a lock per key: keys are hashed onto a fixed number of
+ * stripes, each a lock of its own, so callers only wait for callers of the same stripe. Actions
+ * run under a stripe must not take another one.
+ * Acquisitions, the ones that had to wait and the time they waited are published as
+ * {@code qeats.stripedlock.*} meters, tagged with the name of the lock.
+ */
+public class StripedLock {
+
+  private final Striped<Lock> stripes;
+
+  private final Counter acquired;
+  private final Counter contended;
+  private final Timer waitTime;
+
+  /**
+   * @param stripes number of stripes, rounded up to a power of two; 0 or less for four per core
+   */
+  public StripedLock(String name, int stripes, MeterRegistry meterRegistry) {
+    this.stripes = Striped.lock(stripes > 0 ? stripes
+        : 4 * Runtime.getRuntime().availableProcessors());
+
+    acquired = Counter.builder("qeats.stripedlock.acquired")
+        .description("Acquisitions of a stripe").tag("lock", name).register(meterRegistry);
+    contended = Counter.builder("qeats.stripedlock.contended")
+        .description("Acquisitions that found the stripe held").tag("lock", name)
+        .register(meterRegistry);
+    waitTime = Timer.builder("qeats.stripedlock.wait")
+        .description("Time a contended acquisition waits for the stripe").tag("lock", name)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Runs the action while holding the stripe of the key, and returns its result.
+   */
+  public <T> T call(Object key, Supplier<T> action) {
+    Lock lock = stripes.get(key);
+    if (!lock.tryLock()) {
+      contended.increment();
+      long startedAt = System.nanoTime();
+      lock.lock();
+      waitTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+    acquired.increment();
+    try {
+      return action.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void run(Object key, Runnable action) {
+    call(key, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  public int size() {
+    return stripes.size();
+  }
+
+}
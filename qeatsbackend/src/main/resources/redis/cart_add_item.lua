@@ -0,0 +1,14 @@
+-- ARGV: cartId, restaurantId, item JSON, item price, ttl in seconds.
+if redis.call('EXISTS', KEYS[1]) == 0 then
+  return {1}
+end
+local restaurantId = redis.call('HGET', KEYS[1], 'restaurantId')
+if restaurantId and restaurantId ~= '' and restaurantId ~= ARGV[2] then
+  return reply(2)
+end
+redis.call('HSET', KEYS[1], 'restaurantId', ARGV[2])
+redis.call('RPUSH', KEYS[2], ARGV[3])
+redis.call('HINCRBY', KEYS[1], 'total', ARGV[4])
+changed(ARGV[1])
+touch(ARGV[5])
+return reply(0)
@@ -0,0 +1,13 @@
+-- ARGV: cartId, ttl in seconds. Empties the cart and replies what it held, in one step, so that
+-- the items are ordered once: a second checkout, or a change right after, finds an empty cart.
+if redis.call('EXISTS', KEYS[1]) == 0 then
+  return {1}
+end
+local result = reply(0)
+if redis.call('LLEN', KEYS[2]) > 0 then
+  redis.call('DEL', KEYS[2])
+  redis.call('HMSET', KEYS[1], 'restaurantId', '', 'total', 0)
+  changed(ARGV[1])
+end
+touch(ARGV[2])
+return result
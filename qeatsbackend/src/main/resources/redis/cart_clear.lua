@@ -0,0 +1,9 @@
+-- ARGV: cartId, ttl in seconds.
+if redis.call('EXISTS', KEYS[1]) == 0 then
+  return {1}
+end
+redis.call('DEL', KEYS[2])
+redis.call('HMSET', KEYS[1], 'restaurantId', '', 'total', 0)
+changed(ARGV[1])
+touch(ARGV[2])
+return reply(0)
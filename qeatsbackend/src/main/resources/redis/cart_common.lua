@@ -0,0 +1,28 @@
+-- Shared by the cart scripts, which are appended to it.
+-- KEYS[1]: the cart hash (userId, restaurantId, total, version), KEYS[2]: its items as a list of
+-- JSON documents, KEYS[3]: the set of cart ids waiting to be written behind to Mongo. The version
+-- goes up with every change, so that Mongo never takes an older state over a newer one.
+-- Every script replies with a status first: 0 done, 1 cart not in Redis, 2 item from another
+-- restaurant, 3 user already mapped to another cart. Statuses 0 and 2 are followed by the cart:
+-- userId, restaurantId, total, then the items.
+
+local function touch(ttl)
+  redis.call('EXPIRE', KEYS[1], ttl)
+  redis.call('EXPIRE', KEYS[2], ttl)
+end
+
+-- Marks the cart as changed, to be written behind with its next version.
+local function changed(cartId)
+  redis.call('HINCRBY', KEYS[1], 'version', 1)
+  redis.call('SADD', KEYS[3], cartId)
+end
+
+local function reply(status)
+  local cart = redis.call('HMGET', KEYS[1], 'userId', 'restaurantId', 'total')
+  local result = {status, cart[1] or '', cart[2] or '', cart[3] or '0'}
+  for _, item in ipairs(redis.call('LRANGE', KEYS[2], 0, -1)) do
+    table.insert(result, item)
+  end
+  return result
+end
+
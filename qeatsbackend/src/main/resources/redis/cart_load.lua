@@ -0,0 +1,22 @@
+-- Brings a cart into Redis, unless it is there already, and maps its user to it.
+-- KEYS[4]: the id of the user's cart. ARGV: cartId, userId, restaurantId, total, ttl in seconds,
+-- '1' if the cart still has to be written behind, the cart id the user may already be mapped to
+-- (or ''), the version stored in Mongo, then the items. Users mapped to any other cart keep it,
+-- which is replied as status 3.
+local current = redis.call('GET', KEYS[4])
+if current and current ~= ARGV[1] and current ~= ARGV[7] then
+  return {3, current}
+end
+if redis.call('EXISTS', KEYS[1]) == 0 then
+  redis.call('HMSET', KEYS[1], 'userId', ARGV[2], 'restaurantId', ARGV[3], 'total', ARGV[4],
+      'version', ARGV[8])
+  for i = 9, #ARGV do
+    redis.call('RPUSH', KEYS[2], ARGV[i])
+  end
+  if ARGV[6] == '1' then
+    changed(ARGV[1])
+  end
+end
+redis.call('SET', KEYS[4], ARGV[1], 'EX', ARGV[5])
+touch(ARGV[5])
+return reply(0)
@@ -0,0 +1,19 @@
+-- ARGV: cartId, itemId, ttl in seconds. Removes one instance of the item, if there is any; the
+-- cart belongs to no restaurant once it is empty.
+if redis.call('EXISTS', KEYS[1]) == 0 then
+  return {1}
+end
+for _, item in ipairs(redis.call('LRANGE', KEYS[2], 0, -1)) do
+  local decoded = cjson.decode(item)
+  if decoded['itemId'] == ARGV[2] then
+    redis.call('LREM', KEYS[2], 1, item)
+    redis.call('HINCRBY', KEYS[1], 'total', -decoded['price'])
+    if redis.call('LLEN', KEYS[2]) == 0 then
+      redis.call('HMSET', KEYS[1], 'restaurantId', '', 'total', 0)
+    end
+    changed(ARGV[1])
+    break
+  end
+end
+touch(ARGV[3])
+return reply(0)
@@ -0,0 +1,7 @@
+-- Moves the cart ids left in the processing set KEYS[2] by a run that failed or stopped before
+-- Mongo had them back into the dirty set KEYS[1].
+if redis.call('EXISTS', KEYS[2]) == 1 then
+  redis.call('SUNIONSTORE', KEYS[1], KEYS[1], KEYS[2])
+  redis.call('DEL', KEYS[2])
+end
+return 0
@@ -0,0 +1,14 @@
+-- ARGV: cartId, restaurantId, total, ttl in seconds, then the items. Puts back the items of a
+-- checkout whose order could not be placed, unless the cart has been given items since.
+if redis.call('EXISTS', KEYS[1]) == 0 then
+  return {1}
+end
+if redis.call('LLEN', KEYS[2]) == 0 then
+  redis.call('HMSET', KEYS[1], 'restaurantId', ARGV[2], 'total', ARGV[3])
+  for i = 5, #ARGV do
+    redis.call('RPUSH', KEYS[2], ARGV[i])
+  end
+  changed(ARGV[1])
+end
+touch(ARGV[4])
+return reply(0)
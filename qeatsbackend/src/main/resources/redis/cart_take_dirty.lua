@@ -0,0 +1,10 @@
+-- Moves the cart ids ARGV[1..n], found by scanning the dirty set KEYS[1], into the processing set
+-- KEYS[2], where they stay until Mongo has them. Replies the ids it moved; the others have been
+-- taken by another writer since the scan.
+local taken = {}
+for i = 1, #ARGV do
+  if redis.call('SMOVE', KEYS[1], KEYS[2], ARGV[i]) == 1 then
+    table.insert(taken, ARGV[i])
+  end
+end
+return taken
@@ -0,0 +1,12 @@
+-- Counts each order once per restaurant, however often it is replayed.
+-- KEYS[1]: the hash of order counts per restaurant, KEYS[2..n]: a marker key per order.
+-- ARGV[1]: ttl in seconds of the markers, ARGV[2..n]: the restaurant of each order.
+-- Replies the number of orders counted for the first time.
+local counted = 0
+for i = 2, #KEYS do
+  if redis.call('SET', KEYS[i], '1', 'NX', 'EX', ARGV[1]) then
+    redis.call('HINCRBY', KEYS[1], ARGV[i], 1)
+    counted = counted + 1
+  end
+end
+return counted
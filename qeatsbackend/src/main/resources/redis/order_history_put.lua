@@ -0,0 +1,11 @@
+-- Caches a page of an order history, unless the history was invalidated since it was read.
+-- KEYS[1]: the hash of cached pages of the user, KEYS[2]: the generation of the user's history.
+-- ARGV[1]: the generation read before the history, ARGV[2]: the page size, ARGV[3]: the page,
+-- ARGV[4]: ttl in seconds.
+-- Replies 1 if the page was cached, 0 otherwise.
+if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+  return 0
+end
+redis.call('HSET', KEYS[1], ARGV[2], ARGV[3])
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+return 1
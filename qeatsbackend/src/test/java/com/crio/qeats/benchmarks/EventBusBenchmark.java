@@ -0,0 +1,132 @@
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.events.EventHandler;
+import com.crio.qeats.events.RingBufferEventBus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Post-order events published by 4 threads to 3 handlers, as with the cart, counter and history
+ * handlers. The ring buffer is compared with a blocking queue per handler, each drained in
+ * batches by a thread of its own. Both are bounded to the same number of events, so publishers
+ * are held back by the slowest handler either way.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EventBusBenchmark {
+
+  private static final int HANDLERS = 3;
+  private static final int CAPACITY = 8192;
+
+  @Param({"ring-buffer", "blocking-queue"})
+  private String transport;
+
+  private RingBufferEventBus<long[]> ringBuffer;
+  private List<BlockingQueue<long[]>> queues;
+  private List<Thread> queueConsumers;
+  private volatile boolean running;
+
+  @Setup
+  public void setUp() {
+    running = true;
+    if ("ring-buffer".equals(transport)) {
+      ringBuffer = new RingBufferEventBus<>("benchmark", CAPACITY, () -> new long[1]);
+      for (int i = 0; i < HANDLERS; i++) {
+        ringBuffer.subscribe("handler-" + i, new SummingHandler());
+      }
+      ringBuffer.start();
+      return;
+    }
+
+    queues = new ArrayList<>();
+    queueConsumers = new ArrayList<>();
+    for (int i = 0; i < HANDLERS; i++) {
+      BlockingQueue<long[]> queue = new ArrayBlockingQueue<>(CAPACITY);
+      SummingHandler handler = new SummingHandler();
+      Thread consumer = new Thread(() -> drain(queue, handler), "queue-handler-" + i);
+      consumer.setDaemon(true);
+      consumer.start();
+      queues.add(queue);
+      queueConsumers.add(consumer);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    running = false;
+    if (ringBuffer != null) {
+      ringBuffer.close();
+      return;
+    }
+    for (Thread consumer : queueConsumers) {
+      consumer.interrupt();
+      consumer.join();
+    }
+  }
+
+  @Benchmark
+  public void publish() throws InterruptedException {
+    if (ringBuffer != null) {
+      ringBuffer.publish((event, value) -> event[0] = value, 42L);
+      return;
+    }
+    // Events handed to several consumers cannot be reused, so every publish allocates one.
+    long[] event = {42L};
+    for (BlockingQueue<long[]> queue : queues) {
+      queue.put(event);
+    }
+  }
+
+  private void drain(BlockingQueue<long[]> queue, SummingHandler handler) {
+    List<long[]> batch = new ArrayList<>(CAPACITY);
+    try {
+      while (running) {
+        batch.add(queue.take());
+        queue.drainTo(batch);
+        for (int i = 0; i < batch.size(); i++) {
+          handler.onEvent(batch.get(i), i, i == batch.size() - 1);
+        }
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static final class SummingHandler implements EventHandler<long[]> {
+
+    private long sum;
+    private long batches;
+
+    @Override
+    public void onEvent(long[] event, long sequence, boolean endOfBatch) {
+      sum += event[0];
+      if (endOfBatch) {
+        batches++;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,92 @@
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.utils.MappedJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Order placement by 64 concurrent requests, each waiting until its order is durable in the
+ * order journal. With group commit every force covers the orders that arrived while the previous
+ * one ran; force-per-record appends and forces one order at a time. Throughput and the latency
+ * distribution of both are reported. Runs against the temporary directory, so put it on the disk
+ * the journal will live on: {@code ./gradlew jmh -PjmhArgs="OrderJournal -jvmArgs
+ * -Djava.io.tmpdir=/data/tmp"}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class OrderJournalBenchmark {
+
+  // About the size of a journaled order of three items.
+  private static final int ORDER_BYTES = 700;
+
+  @Param({"group-commit", "force-per-record"})
+  private String commit;
+
+  private final Object lock = new Object();
+  private final byte[] order = order();
+
+  private Path directory;
+  private MappedJournal journal;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("order-journal");
+    journal = new MappedJournal("benchmark", directory, 64 << 20, new SimpleMeterRegistry());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    journal.close();
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Benchmark
+  public long placeOrder() {
+    if ("group-commit".equals(commit)) {
+      return journal.append(order).join();
+    }
+    synchronized (lock) {
+      return journal.append(order).join();
+    }
+  }
+
+  private static byte[] order() {
+    byte[] order = new byte[ORDER_BYTES];
+    Arrays.fill(order, (byte) 'x');
+    byte[] prefix = "{\"id\":\"5d1d43e45e2e4e0001d1f2a1\",\"items\":[".getBytes(
+        StandardCharsets.UTF_8);
+    System.arraycopy(prefix, 0, order, 0, prefix.length);
+    return order;
+  }
+
+}
@@ -0,0 +1,80 @@
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.converters.RestaurantProtobufEncoder;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON versus protobuf encoding of a /restaurants response. Payload sizes of both are logged
+ * once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseEncodingBenchmark {
+
+  private static final Logger log = LogManager.getLogger(ResponseEncodingBenchmark.class);
+
+  @Param({"10", "100", "1000"})
+  private int restaurantCount;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+  private GetRestaurantsResponse response;
+
+  @Setup
+  public void setUp() throws IOException {
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < restaurantCount; i++) {
+      restaurants.add(new Restaurant("5eb6" + i, String.valueOf(i), "Restaurant " + i,
+          "Hsr Layout", "www.google.com", 20.027 + i * 1e-4, 30.0 - i * 1e-4, "10:00", "23:00",
+          Arrays.asList("Tamil", "South Indian", "Biryani")));
+    }
+    response = new GetRestaurantsResponse(restaurants);
+
+    log.info("{} restaurants: json {} bytes, protobuf {} bytes", restaurantCount, json(),
+        protobuf());
+  }
+
+  @Benchmark
+  public int json() throws IOException {
+    out.reset();
+    objectMapper.writeValue(out, response);
+    return out.size();
+  }
+
+  @Benchmark
+  public int protobuf() throws IOException {
+    out.reset();
+    CodedOutputStream output = CodedOutputStream.newInstance(out);
+    RestaurantProtobufEncoder.writeTo(response, output);
+    output.flush();
+    return out.size();
+  }
+
+}
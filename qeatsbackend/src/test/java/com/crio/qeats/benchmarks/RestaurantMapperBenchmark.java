@@ -0,0 +1,86 @@
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.RestaurantMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping a page of 100 restaurant entities with a fresh ModelMapper per call (what the
+ * prototype-scoped provider hands out), a reused ModelMapper, and {@link RestaurantMapper}.
+ * Run with {@code ./gradlew jmh -PjmhArgs="-prof gc"} to see the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RestaurantMapperBenchmark {
+
+  private static final int PAGE_SIZE = 100;
+
+  private final List<RestaurantEntity> entities = new ArrayList<>();
+  private final ModelMapper sharedModelMapper = new ModelMapper();
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      RestaurantEntity entity = new RestaurantEntity();
+      entity.setId("5eb6" + i);
+      entity.setRestaurantId(String.valueOf(i));
+      entity.setName("Restaurant " + i);
+      entity.setCity("Hsr Layout");
+      entity.setImageUrl("www.google.com");
+      entity.setLatitude(20.027 + i * 1e-4);
+      entity.setLongitude(30.0 - i * 1e-4);
+      entity.setOpensAt("10:00");
+      entity.setClosesAt("23:00");
+      entity.setAttributes(Arrays.asList("Tamil", "South Indian", "Biryani"));
+      entities.add(entity);
+    }
+  }
+
+  @Benchmark
+  public List<Restaurant> modelMapperPerCall() {
+    ModelMapper modelMapper = new ModelMapper();
+    List<Restaurant> restaurants = new ArrayList<>(entities.size());
+    for (RestaurantEntity entity : entities) {
+      restaurants.add(modelMapper.map(entity, Restaurant.class));
+    }
+    return restaurants;
+  }
+
+  @Benchmark
+  public List<Restaurant> modelMapperShared() {
+    List<Restaurant> restaurants = new ArrayList<>(entities.size());
+    for (RestaurantEntity entity : entities) {
+      restaurants.add(sharedModelMapper.map(entity, Restaurant.class));
+    }
+    return restaurants;
+  }
+
+  @Benchmark
+  public List<Restaurant> handWritten() {
+    List<Restaurant> restaurants = new ArrayList<>(entities.size());
+    for (RestaurantEntity entity : entities) {
+      restaurants.add(RestaurantMapper.toRestaurant(entity));
+    }
+    return restaurants;
+  }
+
+}
@@ -0,0 +1,71 @@
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.cache.RestaurantJsonFragments;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing a /restaurants body with Jackson versus concatenating cached per-restaurant fragments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RestaurantsSerializationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int restaurantCount;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final RestaurantJsonFragments restaurantJsonFragments = new RestaurantJsonFragments();
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+  private GetRestaurantsResponse response;
+
+  @Setup
+  public void setUp() {
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < restaurantCount; i++) {
+      restaurants.add(new Restaurant("5eb6" + i, String.valueOf(i), "Restaurant " + i,
+          "Hsr Layout", "www.google.com", 20.027 + i * 1e-4, 30.0 - i * 1e-4, "10:00", "23:00",
+          new ArrayList<>(Arrays.asList("Tamil", "South Indian", "Biryani"))));
+    }
+    response = new GetRestaurantsResponse(restaurants);
+    restaurantJsonFragments.toBytes(response);
+  }
+
+  @Benchmark
+  public int jackson() throws IOException {
+    out.reset();
+    objectMapper.writeValue(out, response);
+    return out.size();
+  }
+
+  @Benchmark
+  public int fragments() throws IOException {
+    out.reset();
+    restaurantJsonFragments.writeResponse(response, out);
+    return out.size();
+  }
+
+}
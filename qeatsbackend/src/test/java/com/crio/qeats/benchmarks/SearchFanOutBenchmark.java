@@ -0,0 +1,147 @@
+package com.crio.qeats.benchmarks;
+
+import com.crio.qeats.configs.VirtualThreads;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.embedded.RedisServer;
+
+/**
+ * The four-way fan-out of a multithreaded search, issued by 16 concurrent requests. Compares a
+ * new pool per request (what findRestaurantsBySearchQueryMt used to do), the 4-thread
+ * AsyncConfig pool, the shared platform pool of the platform execution mode and virtual threads.
+ * Each lookup is either a Thread.sleep of about one round trip, which isolates how the executors
+ * schedule blocked tasks, or a GET through a JedisPool, as the service does, against an embedded
+ * Redis, which includes whatever the client blocks on. The virtual variant needs JDK 21 or later:
+ * {@code ./gradlew jmh -PjmhArgs="-jvmArgs -Djdk.tracePinnedThreads=short"} also reports the
+ * lookups that pin their carrier.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class SearchFanOutBenchmark {
+
+  private static final int LOOKUPS = 4;
+  private static final long ROUND_TRIP_MILLIS = 2;
+  private static final int REDIS_PORT = 6391;
+  private static final String KEY = "benchmark:restaurants";
+
+  @Param({"per-request", "async-config", "shared-platform", "virtual"})
+  private String executor;
+
+  @Param({"sleep", "redis"})
+  private String lookup;
+
+  private ExecutorService sharedExecutor;
+  private RedisServer redisServer;
+  private JedisPool jedisPool;
+
+  @Setup
+  public void setUp() throws IOException {
+    if (lookup.equals("redis")) {
+      redisServer = new RedisServer(REDIS_PORT);
+      redisServer.start();
+      JedisPoolConfig poolConfig = new JedisPoolConfig();
+      poolConfig.setMaxTotal(16 * LOOKUPS);
+      jedisPool = new JedisPool(poolConfig, "localhost", REDIS_PORT);
+      try (Jedis jedis = jedisPool.getResource()) {
+        jedis.set(KEY, "[{\"restaurantId\":\"10\",\"name\":\"A2B\"}]");
+      }
+    }
+
+    switch (executor) {
+      case "per-request":
+        break;
+      case "async-config":
+        sharedExecutor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100));
+        break;
+      case "shared-platform":
+        sharedExecutor = Executors.newFixedThreadPool(16);
+        break;
+      case "virtual":
+        sharedExecutor = VirtualThreads.newThreadPerTaskExecutor("search-");
+        break;
+      default:
+        throw new IllegalArgumentException(executor);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (sharedExecutor != null) {
+      sharedExecutor.shutdownNow();
+    }
+    if (jedisPool != null) {
+      jedisPool.close();
+      redisServer.stop();
+    }
+  }
+
+  @Benchmark
+  public int search() throws InterruptedException, ExecutionException {
+    if (sharedExecutor != null) {
+      return fanOut(sharedExecutor);
+    }
+
+    ExecutorService perRequest = Executors.newFixedThreadPool(LOOKUPS);
+    try {
+      return fanOut(perRequest);
+    } finally {
+      perRequest.shutdown();
+    }
+  }
+
+  private int fanOut(ExecutorService executorService)
+      throws InterruptedException, ExecutionException {
+    List<Future<Integer>> lookups = new ArrayList<>(LOOKUPS);
+    for (int i = 0; i < LOOKUPS; i++) {
+      int branch = i;
+      lookups.add(executorService.submit(() -> branch + lookUp()));
+    }
+
+    int matches = 0;
+    for (Future<Integer> lookup : lookups) {
+      matches += lookup.get();
+    }
+    return matches;
+  }
+
+  private int lookUp() throws InterruptedException {
+    if (jedisPool == null) {
+      Thread.sleep(ROUND_TRIP_MILLIS);
+      return 0;
+    }
+    try (Jedis jedis = jedisPool.getResource()) {
+      return jedis.get(KEY).length();
+    }
+  }
+
+}
@@ -0,0 +1,69 @@
+
+package com.crio.qeats.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.cache.HeavyHitterSketch.HeavyHitter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HeavyHitterSketchTest {
+
+  @Test
+  public void heavyHittersSurviveALongTailOfRareItems() {
+    HeavyHitterSketch sketch = new HeavyHitterSketch(1024, 3);
+    for (int i = 0; i < 10_000; i++) {
+      sketch.add("tail-" + i);
+      if (i % 10 == 0) {
+        sketch.add("tdr1w9q");
+      }
+      if (i % 20 == 0) {
+        sketch.add("biryani");
+      }
+    }
+
+    List<HeavyHitter> topK = sketch.topK(2);
+    assertEquals("tdr1w9q", topK.get(0).getItem());
+    assertEquals("biryani", topK.get(1).getItem());
+    assertTrue(sketch.estimate("tdr1w9q") >= 1000);
+  }
+
+  @Test
+  public void lightestCandidateMakesWayForAHeavierItem() {
+    HeavyHitterSketch sketch = new HeavyHitterSketch(1024, 2);
+    add(sketch, "tdr1w9q", 3);
+    add(sketch, "tdr1w9r", 2);
+    add(sketch, "biryani", 1);
+    assertEquals(2, sketch.topK(3).size());
+    assertEquals("tdr1w9r", sketch.topK(2).get(1).getItem());
+
+    add(sketch, "biryani", 3);
+
+    List<HeavyHitter> topK = sketch.topK(3);
+    assertEquals(2, topK.size());
+    assertEquals("biryani", topK.get(0).getItem());
+    assertEquals(4, topK.get(0).getEstimate());
+    assertEquals("tdr1w9q", topK.get(1).getItem());
+  }
+
+  @Test
+  public void decayHalvesEstimates() {
+    HeavyHitterSketch sketch = new HeavyHitterSketch(1024, 3);
+    for (int i = 0; i < 100; i++) {
+      sketch.add("tamil");
+    }
+
+    sketch.decay();
+
+    assertEquals(50, sketch.estimate("tamil"));
+    assertEquals(50, sketch.topK(1).get(0).getEstimate());
+  }
+
+  private static void add(HeavyHitterSketch sketch, String item, int times) {
+    for (int i = 0; i < times; i++) {
+      sketch.add(item);
+    }
+  }
+
+}
@@ -0,0 +1,127 @@
+package com.crio.qeats.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.models.MenuEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+class ItemRestaurantIndexTest {
+
+  private ItemRestaurantIndex index;
+
+  @BeforeEach
+  public void setup() {
+    index = new ItemRestaurantIndex();
+    index.rebuild(Arrays.asList(
+        menu("11", "idly", "dosa"),
+        menu("12", "dosa", "briyani"),
+        menu("13", "briyani")).iterator());
+  }
+
+  @Test
+  public void findsEveryRestaurantServingAnyOfTheItemsOnce() {
+    assertEquals(new HashSet<>(Arrays.asList("11", "12", "13")),
+        new HashSet<>(index.findRestaurantIds(Arrays.asList("dosa", "briyani"))));
+    assertEquals(3, index.findRestaurantIds(Arrays.asList("dosa", "briyani")).size());
+    assertEquals(Collections.singletonList("11"),
+        index.findRestaurantIds(Collections.singletonList("idly")));
+    assertTrue(index.findRestaurantIds(Collections.singletonList("pizza")).isEmpty());
+  }
+
+  @Test
+  public void updatedMenuReplacesTheItemsOfItsRestaurantOnly() {
+    index.update(menu("12", "pizza"));
+
+    assertEquals(Collections.singletonList("11"),
+        index.findRestaurantIds(Collections.singletonList("dosa")));
+    assertEquals(Collections.singletonList("13"),
+        index.findRestaurantIds(Collections.singletonList("briyani")));
+    assertEquals(Collections.singletonList("12"),
+        index.findRestaurantIds(Collections.singletonList("pizza")));
+  }
+
+  @Test
+  public void removedRestaurantIsNoLongerFoundAndCanComeBack() {
+    index.remove("11");
+    assertTrue(index.findRestaurantIds(Collections.singletonList("idly")).isEmpty());
+    assertEquals(Collections.singletonList("12"),
+        index.findRestaurantIds(Collections.singletonList("dosa")));
+
+    index.update(menu("11", "idly"));
+    assertEquals(Collections.singletonList("11"),
+        index.findRestaurantIds(Collections.singletonList("idly")));
+  }
+
+  @Test
+  public void manyRestaurantsAreAllIndexed() {
+    List<MenuEntity> menus = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      menus.add(menu("restaurant-" + i, "item-" + (i % 10)));
+    }
+    index.rebuild(menus.iterator());
+
+    List<String> restaurantIds = index.findRestaurantIds(Collections.singletonList("item-3"));
+    assertEquals(100, restaurantIds.size());
+    assertTrue(restaurantIds.contains("restaurant-993"));
+  }
+
+  @Test
+  public void updateDuringRebuildIsKeptAndLookupsUseThePreviousIndexMeanwhile() {
+    Iterator<MenuEntity> menus = Arrays.asList(
+        menu("11", "idly"),
+        menu("12", "dosa")).iterator();
+    index.rebuild(new Iterator<MenuEntity>() {
+      @Override
+      public boolean hasNext() {
+        return menus.hasNext();
+      }
+
+      @Override
+      public MenuEntity next() {
+        index.update(menu("13", "pizza"));
+        assertEquals(Collections.singletonList("13"),
+            index.findRestaurantIds(Collections.singletonList("pizza")));
+        assertEquals(2, index.findRestaurantIds(Collections.singletonList("dosa")).size());
+        return menus.next();
+      }
+    });
+
+    assertEquals(Collections.singletonList("13"),
+        index.findRestaurantIds(Collections.singletonList("pizza")));
+    assertEquals(Collections.singletonList("12"),
+        index.findRestaurantIds(Collections.singletonList("dosa")));
+    assertTrue(index.findRestaurantIds(Collections.singletonList("briyani")).isEmpty());
+  }
+
+  @Test
+  public void lookupBeforeTheFirstBuildFailsInsteadOfWaiting() {
+    ItemRestaurantIndex unbuilt = new ItemRestaurantIndex();
+
+    assertThrows(IllegalStateException.class,
+        () -> unbuilt.findRestaurantIds(Collections.singletonList("idly")));
+    assertEquals(Status.OUT_OF_SERVICE, unbuilt.health().getStatus());
+    assertEquals(Status.UP, index.health().getStatus());
+  }
+
+  private static MenuEntity menu(String restaurantId, String... itemIds) {
+    List<Item> items = new ArrayList<>();
+    for (String itemId : itemIds) {
+      Item item = new Item();
+      item.setItemId(itemId);
+      items.add(item);
+    }
+    return new MenuEntity(null, restaurantId, items);
+  }
+
+}
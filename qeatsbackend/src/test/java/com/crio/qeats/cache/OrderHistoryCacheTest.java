@@ -0,0 +1,55 @@
+
+package com.crio.qeats.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.configs.RedisConfiguration;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = {QEatsApplication.class})
+@DirtiesContext
+@ActiveProfiles("test")
+class OrderHistoryCacheTest {
+
+  private static final String USER_ID = "history-user";
+  private static final byte[] PAGE = "{\"orders\":[]}".getBytes(StandardCharsets.UTF_8);
+
+  @Autowired
+  private OrderHistoryCache orderHistoryCache;
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+
+  @AfterEach
+  void teardown() {
+    redisConfiguration.destroyCache();
+  }
+
+  @Test
+  void pageReadBeforeAnInvalidationIsNotCached() {
+    String generation = orderHistoryCache.generation(USER_ID);
+    orderHistoryCache.invalidate(Collections.singletonList(USER_ID));
+    orderHistoryCache.put(USER_ID, 20, PAGE, generation);
+
+    assertNull(orderHistoryCache.get(USER_ID, 20));
+  }
+
+  @Test
+  void pageReadAfterTheLastInvalidationIsCached() {
+    orderHistoryCache.invalidate(Collections.singletonList(USER_ID));
+    String generation = orderHistoryCache.generation(USER_ID);
+    orderHistoryCache.put(USER_ID, 20, PAGE, generation);
+
+    assertArrayEquals(PAGE, orderHistoryCache.get(USER_ID, 20));
+    assertNull(orderHistoryCache.get(USER_ID, 10));
+  }
+
+}
@@ -0,0 +1,32 @@
+package com.crio.qeats.cache;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.dto.Restaurant;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class RestaurantJsonFragmentsTest {
+
+  private final RestaurantJsonFragments restaurantJsonFragments = new RestaurantJsonFragments();
+
+  @Test
+  public void equalSnapshotReusesTheFragmentAndAChangedOneReplacesIt() {
+    byte[] fragment = restaurantJsonFragments.fragment(restaurant("A2B"));
+
+    assertSame(fragment, restaurantJsonFragments.fragment(restaurant("A2B")));
+
+    byte[] renamed = restaurantJsonFragments.fragment(restaurant("A2B Veg"));
+    assertNotSame(fragment, renamed);
+    assertTrue(new String(renamed, StandardCharsets.UTF_8).contains("\"A2B Veg\""));
+  }
+
+  private static Restaurant restaurant(String name) {
+    return new Restaurant("5eb6", "10", name, "Hsr Layout", "www.google.com", 20.027, 30.0,
+        "18:00", "23:00", Arrays.asList("Tamil", "South Indian"));
+  }
+
+}
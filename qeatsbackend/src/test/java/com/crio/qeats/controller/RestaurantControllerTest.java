@@ -14,33 +14,67 @@ import static com.crio.qeats.controller.RestaurantController.GET_ORDERS_API;
 import static com.crio.qeats.controller.RestaurantController.MENU_API;
 import static com.crio.qeats.controller.RestaurantController.POST_ORDER_API;
 import static com.crio.qeats.controller.RestaurantController.RESTAURANTS_API;
+import static com.crio.qeats.controller.RestaurantController.RESTAURANTS_BATCH_API;
 import static com.crio.qeats.controller.RestaurantController.RESTAURANT_API_ENDPOINT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.cache.HotKeyRecorder;
+import com.crio.qeats.cache.MaterializedResponse;
+import com.crio.qeats.cache.MaterializedResponseCache;
+import com.crio.qeats.cache.ResponseEtagCache;
+import com.crio.qeats.cache.RestaurantCacheProbe;
+import com.crio.qeats.cache.RestaurantJsonFragments;
+import com.crio.qeats.cache.ValidityWindows;
+import com.crio.qeats.configs.Bulkhead;
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.SearchTier;
+import com.crio.qeats.exceptions.EmptyCartException;
+import com.crio.qeats.exceptions.InvalidCursorException;
+import com.crio.qeats.exchanges.CartModifiedResponse;
+import com.crio.qeats.exchanges.GetRestaurantsBatchRequest;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.crio.qeats.services.CartService;
+import com.crio.qeats.services.MenuService;
+import com.crio.qeats.services.OrderService;
 import com.crio.qeats.services.RestaurantService;
 import com.crio.qeats.utils.FixtureHelpers;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -48,14 +82,20 @@ import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.skyscreamer.jsonassert.JSONAssert;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -68,6 +108,8 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class RestaurantControllerTest {
 
   private static final String RESTAURANT_API_URI = RESTAURANT_API_ENDPOINT + RESTAURANTS_API;
+  private static final String RESTAURANTS_BATCH_API_URI =
+      RESTAURANT_API_ENDPOINT + RESTAURANTS_BATCH_API;
   private static final String MENU_API_URI = RESTAURANT_API_ENDPOINT + MENU_API;
   private static final String CART_API_URI = RESTAURANT_API_ENDPOINT + CART_API;
   private static final String ADD_REMOVE_CART_API_URI = RESTAURANT_API_ENDPOINT + CART_ITEM_API;
@@ -76,6 +118,7 @@ public class RestaurantControllerTest {
   private static final String LIST_ORDERS_API_URI = RESTAURANT_API_ENDPOINT + GET_ORDERS_API;
 
   private static final String FIXTURES = "fixtures/exchanges";
+  private static final long BULKHEAD_TIMEOUT_MILLIS = 1000;
   private ObjectMapper objectMapper;
 
   private MockMvc mvc;
@@ -83,6 +126,33 @@ public class RestaurantControllerTest {
   @MockBean
   private RestaurantService restaurantService;
 
+  @MockBean
+  private MenuService menuService;
+
+  @MockBean
+  private CartService cartService;
+
+  @MockBean
+  private OrderService orderService;
+
+  @MockBean
+  private HotKeyRecorder hotKeyRecorder;
+
+  @MockBean
+  private MaterializedResponseCache materializedResponseCache;
+
+  @SpyBean
+  private RestaurantJsonFragments restaurantJsonFragments;
+
+  @MockBean
+  private RestaurantCacheProbe restaurantCacheProbe;
+
+  @SpyBean
+  private ResponseEtagCache responseEtagCache;
+
+  @SpyBean
+  private ValidityWindows validityWindows;
+
 
   @InjectMocks
   private RestaurantController restaurantController;
@@ -93,6 +163,12 @@ public class RestaurantControllerTest {
 
     MockitoAnnotations.initMocks(this);
 
+    // Bulkheads run their work on the calling thread, so the service is called synchronously.
+    ReflectionTestUtils.setField(restaurantController, "cacheBulkhead",
+        new Bulkhead("cache", Runnable::run, BULKHEAD_TIMEOUT_MILLIS));
+    ReflectionTestUtils.setField(restaurantController, "databaseBulkhead",
+        new Bulkhead("database", Runnable::run, BULKHEAD_TIMEOUT_MILLIS));
+
     mvc = MockMvcBuilders.standaloneSetup(restaurantController).build();
   }
 
@@ -326,6 +402,479 @@ public class RestaurantControllerTest {
     assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
   }
 
+  @Test
+  public void unknownFieldInProjectionResultsInBadHttpRequest() throws Exception {
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .queryParam("fields", "name,rating")
+        .build().toUri();
+
+    MockHttpServletResponse response = mvc.perform(
+        get(uri.toString()).accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+    verify(restaurantService, times(0))
+        .findAllRestaurantsCloseBy(any(GetRestaurantsRequest.class), any(LocalTime.class));
+  }
+
+  @Test
+  public void matchingIfNoneMatchReturnsNotModifiedWithoutABody() throws Exception {
+    GetRestaurantsResponse sampleResponse = loadSampleResponseList();
+
+    when(restaurantService
+        .findAllRestaurantsCloseBy(any(GetRestaurantsRequest.class), any(LocalTime.class)))
+        .thenReturn(sampleResponse);
+
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .build().toUri();
+
+    MvcResult result = mvc.perform(get(uri.toString()).accept(APPLICATION_JSON_UTF8))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MockHttpServletResponse response = mvc.perform(asyncDispatch(result))
+        .andReturn().getResponse();
+    String etag = response.getHeader(HttpHeaders.ETAG);
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertNotNull(etag);
+
+    result = mvc.perform(
+        get(uri.toString()).accept(APPLICATION_JSON_UTF8).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    response = mvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+    // The ETag of the first response answered the second one without the service.
+    verify(restaurantService, times(1))
+        .findAllRestaurantsCloseBy(any(GetRestaurantsRequest.class), any(LocalTime.class));
+  }
+
+  @Test
+  public void materializedResponseVariesByAcceptAndAcceptEncoding() throws Exception {
+    when(materializedResponseCache.get(anyString())).thenReturn(new MaterializedResponse(
+        "{\"restaurants\":[]}".getBytes(StandardCharsets.UTF_8), new byte[] {1}, "\"abc\""));
+
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .build().toUri();
+
+    MvcResult result = mvc.perform(get(uri.toString()).accept(APPLICATION_JSON_UTF8))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MockHttpServletResponse response = mvc.perform(asyncDispatch(result))
+        .andReturn().getResponse();
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    String vary = String.join(",", response.getHeaders(HttpHeaders.VARY));
+    assertTrue(vary.contains(HttpHeaders.ACCEPT_ENCODING));
+    assertTrue(vary.replace(HttpHeaders.ACCEPT_ENCODING, "").contains(HttpHeaders.ACCEPT));
+  }
+
+  @Test
+  public void materializedResponseIsGzippedOnlyIfGzipIsAccepted() throws Exception {
+    when(materializedResponseCache.get(anyString())).thenReturn(new MaterializedResponse(
+        "{\"restaurants\":[]}".getBytes(StandardCharsets.UTF_8), new byte[] {1}, "\"abc\""));
+
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .build().toUri();
+
+    assertEquals("gzip", contentEncoding(uri, "deflate, gzip;q=0.5"));
+    assertEquals("gzip", contentEncoding(uri, "*"));
+    assertNull(contentEncoding(uri, "gzip;q=0"));
+    assertNull(contentEncoding(uri, "gzip; q=0.0, *"));
+    assertNull(contentEncoding(uri, "identity"));
+  }
+
+  private String contentEncoding(URI uri, String acceptEncoding) throws Exception {
+    MvcResult result = mvc.perform(get(uri.toString()).accept(APPLICATION_JSON_UTF8)
+        .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    return mvc.perform(asyncDispatch(result)).andReturn().getResponse()
+        .getHeader(HttpHeaders.CONTENT_ENCODING);
+  }
+
+  @Test
+  public void fullDatabaseBulkheadResultsInServiceUnavailable() throws Exception {
+    ReflectionTestUtils.setField(restaurantController, "databaseBulkhead",
+        new Bulkhead("database", task -> {
+          throw new RejectedExecutionException();
+        }, BULKHEAD_TIMEOUT_MILLIS));
+
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .build().toUri();
+
+    MvcResult result = mvc.perform(get(uri.toString()).accept(APPLICATION_JSON_UTF8))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MockHttpServletResponse response = mvc.perform(asyncDispatch(result))
+        .andReturn().getResponse();
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+    verify(restaurantService, times(0))
+        .findAllRestaurantsCloseBy(any(GetRestaurantsRequest.class), any(LocalTime.class));
+  }
+
+  @Test
+  public void eventStreamSearchSendsOneEventPerTierAsItArrives() throws Exception {
+    GetRestaurantsResponse sampleResponse = loadSampleResponseList();
+
+    doAnswer(invocation -> {
+      BiConsumer<SearchTier, GetRestaurantsResponse> consumer = invocation.getArgument(2);
+      consumer.accept(SearchTier.ITEM_NAME, new GetRestaurantsResponse());
+      consumer.accept(SearchTier.EXACT_NAME, sampleResponse);
+      return CompletableFuture.completedFuture(null);
+    }).when(restaurantService).streamRestaurantsBySearchQueryByTier(
+        any(GetRestaurantsRequest.class), any(LocalTime.class), any());
+
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .queryParam("searchFor", "A2B")
+        .build().toUri();
+
+    MvcResult result = mvc.perform(get(uri.toString()).accept(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MockHttpServletResponse response = mvc.perform(asyncDispatch(result))
+        .andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals("event:item-name\ndata:{\"restaurants\":[]}\n\n"
+        + "event:exact-name\ndata:" + objectMapper.writeValueAsString(sampleResponse) + "\n\n",
+        response.getContentAsString());
+    verify(restaurantService, times(0))
+        .findRestaurantsBySearchQuery(any(GetRestaurantsRequest.class), any(LocalTime.class));
+  }
+
+  @Test
+  public void searchWithoutAcceptHeaderGetsJsonNotAnEventStream() throws Exception {
+    GetRestaurantsResponse sampleResponse = loadSampleResponseList();
+    when(restaurantService
+        .findRestaurantsBySearchQuery(any(GetRestaurantsRequest.class), any(LocalTime.class)))
+        .thenReturn(sampleResponse);
+
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .queryParam("searchFor", "A2B")
+        .build().toUri();
+
+    for (MvcResult result : new MvcResult[] {
+        mvc.perform(get(uri.toString())).andExpect(request().asyncStarted()).andReturn(),
+        mvc.perform(get(uri.toString()).accept(MediaType.ALL))
+            .andExpect(request().asyncStarted()).andReturn()}) {
+      MockHttpServletResponse response = mvc.perform(asyncDispatch(result))
+          .andReturn().getResponse();
+
+      assertEquals(HttpStatus.OK.value(), response.getStatus());
+      assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(
+          MediaType.parseMediaType(response.getContentType())));
+      JSONAssert.assertEquals(objectMapper.writeValueAsString(sampleResponse),
+          response.getContentAsString(), true);
+    }
+    verify(restaurantService, times(0)).streamRestaurantsBySearchQueryByTier(
+        any(GetRestaurantsRequest.class), any(LocalTime.class), any());
+  }
+
+  @Test
+  public void eventStreamWithoutSearchForResultsInBadHttpRequest() throws Exception {
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .build().toUri();
+
+    MockHttpServletResponse response = mvc.perform(
+        get(uri.toString()).accept(MediaType.TEXT_EVENT_STREAM)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+  }
+
+  @Test
+  public void batchQueryReturnsOneResponsePerLocation() throws Exception {
+    GetRestaurantsResponse sampleResponse = loadSampleResponseList();
+    when(restaurantService.findAllRestaurantsCloseBy(anyList(), any(LocalTime.class)))
+        .thenReturn(Arrays.asList(sampleResponse, new GetRestaurantsResponse()));
+
+    GetRestaurantsBatchRequest batchRequest = new GetRestaurantsBatchRequest(Arrays.asList(
+        new GetRestaurantsRequest(20.21, 30.31), new GetRestaurantsRequest(20.22, 30.32)));
+
+    MvcResult result = mvc.perform(post(RESTAURANTS_BATCH_API_URI)
+            .contentType(APPLICATION_JSON_UTF8)
+            .content(objectMapper.writeValueAsString(batchRequest)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MockHttpServletResponse response = mvc.perform(asyncDispatch(result))
+        .andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    JSONAssert.assertEquals("{\"responses\":[" + objectMapper.writeValueAsString(sampleResponse)
+        + ",{\"restaurants\":[]}]}", response.getContentAsString(), true);
+    verify(hotKeyRecorder, times(0)).record(any(), any());
+  }
+
+  @Test
+  public void invalidLocationInBatchResultsInBadHttpRequest() throws Exception {
+    GetRestaurantsBatchRequest batchRequest = new GetRestaurantsBatchRequest(Arrays.asList(
+        new GetRestaurantsRequest(20.21, 30.31), new GetRestaurantsRequest(91.0, 30.31)));
+
+    MockHttpServletResponse response = mvc.perform(post(RESTAURANTS_BATCH_API_URI)
+            .contentType(APPLICATION_JSON_UTF8)
+            .content(objectMapper.writeValueAsString(batchRequest)))
+        .andReturn().getResponse();
+
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+    verify(restaurantService, times(0)).findAllRestaurantsCloseBy(anyList(), any(LocalTime.class));
+  }
+
+  @Test
+  public void tooManySearchesInBatchResultInBadHttpRequest() throws Exception {
+    List<GetRestaurantsRequest> requests = new ArrayList<>();
+    for (int i = 0; i <= GetRestaurantsBatchRequest.MAX_SEARCHES; i++) {
+      requests.add(new GetRestaurantsRequest(20.21, 30.31, "biryani"));
+    }
+
+    MockHttpServletResponse response = mvc.perform(post(RESTAURANTS_BATCH_API_URI)
+            .contentType(APPLICATION_JSON_UTF8)
+            .content(objectMapper.writeValueAsString(new GetRestaurantsBatchRequest(requests))))
+        .andReturn().getResponse();
+
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+    verify(restaurantService, times(0)).findAllRestaurantsCloseBy(anyList(), any(LocalTime.class));
+  }
+
+  @Test
+  public void streamingQueryWritesTheSameBodyAsTheListQuery() throws Exception {
+    GetRestaurantsResponse sampleResponse = loadSampleResponseList();
+
+    doAnswer(invocation -> {
+      Consumer<Restaurant> consumer = invocation.getArgument(2);
+      sampleResponse.getRestaurants().forEach(consumer);
+      return null;
+    }).when(restaurantService).streamAllRestaurantsCloseBy(any(GetRestaurantsRequest.class),
+        any(LocalTime.class), any());
+
+    URI uri = UriComponentsBuilder
+        .fromPath(RESTAURANT_API_URI)
+        .queryParam("latitude", "20.21")
+        .queryParam("longitude", "30.31")
+        .queryParam("stream", "true")
+        .build().toUri();
+
+    MvcResult result = mvc.perform(get(uri.toString()).accept(APPLICATION_JSON_UTF8))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MockHttpServletResponse response = mvc.perform(asyncDispatch(result))
+        .andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    JSONAssert.assertEquals(objectMapper.writeValueAsString(sampleResponse),
+        response.getContentAsString(), true);
+    verify(restaurantService, times(0))
+        .findAllRestaurantsCloseBy(any(GetRestaurantsRequest.class), any(LocalTime.class));
+  }
+
+  @Test
+  public void menuQueryReturnsTheCachedMenuJson() throws Exception {
+    String menuJson = FixtureHelpers.fixture(FIXTURES + "/get_menu_response.json");
+    when(menuService.findMenuJson("11")).thenReturn(menuJson.getBytes(StandardCharsets.UTF_8));
+
+    MockHttpServletResponse response = mvc.perform(
+        get(MENU_API_URI + "?restaurantId=11").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    JSONAssert.assertEquals(menuJson, response.getContentAsString(), true);
+  }
+
+  @Test
+  public void missingRestaurantIdParamResultsInBadHttpRequest() throws Exception {
+    MockHttpServletResponse response = mvc.perform(
+        get(MENU_API_URI).accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+    verify(menuService, times(0)).findMenuJson(anyString());
+  }
+
+  @Test
+  public void restaurantWithoutMenuResultsInNotFound() throws Exception {
+    when(menuService.findMenuJson("404")).thenReturn(null);
+
+    MockHttpServletResponse response = mvc.perform(
+        get(MENU_API_URI + "?restaurantId=404").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatus());
+  }
+
+  @Test
+  public void cartQueryReturnsTheUsersCart() throws Exception {
+    Cart cart = objectMapper.readValue(
+        FixtureHelpers.fixture(FIXTURES + "/get_cart_response.json"), Cart.class);
+    when(cartService.findOrCreateCart("Bunny")).thenReturn(cart);
+
+    MockHttpServletResponse response = mvc.perform(
+        get(CART_API_URI + "?userId=Bunny").accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(cart, objectMapper.readValue(response.getContentAsString(), Cart.class));
+  }
+
+  @Test
+  public void missingUserIdParamResultsInBadHttpRequest() throws Exception {
+    MockHttpServletResponse response = mvc.perform(
+        get(CART_API_URI).accept(APPLICATION_JSON_UTF8)
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+    verify(cartService, times(0)).findOrCreateCart(anyString());
+  }
+
+  @Test
+  public void itemFromAnotherRestaurantReturnsTheCartUnchanged() throws Exception {
+    Cart cart = objectMapper.readValue(
+        FixtureHelpers.fixture(FIXTURES + "/get_cart_response.json"), Cart.class);
+    when(cartService.addItemToCart("1", "1", "10"))
+        .thenReturn(new CartModifiedResponse(cart, 102));
+
+    MockHttpServletResponse response = mvc.perform(
+        post(ADD_REMOVE_CART_API_URI).contentType(APPLICATION_JSON_UTF8)
+            .content(FixtureHelpers.fixture(FIXTURES + "/cart_add_or_remove_item_body.json"))
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    CartModifiedResponse cartModifiedResponse =
+        objectMapper.readValue(response.getContentAsString(), CartModifiedResponse.class);
+    assertEquals(102, cartModifiedResponse.getCartResponseType());
+    assertEquals(cart, cartModifiedResponse.getCart());
+  }
+
+  @Test
+  public void removeAndClearPassTheCartThrough() throws Exception {
+    Cart cart = new Cart("1", "", "Bunny", new ArrayList<>(), 0);
+    when(cartService.removeItemFromCart("1", "1", "10"))
+        .thenReturn(new CartModifiedResponse(cart, 0));
+    when(cartService.clearCart("1")).thenReturn(new CartModifiedResponse(cart, 0));
+
+    MockHttpServletResponse removed = mvc.perform(
+        delete(ADD_REMOVE_CART_API_URI).contentType(APPLICATION_JSON_UTF8)
+            .content(FixtureHelpers.fixture(FIXTURES + "/cart_add_or_remove_item_body.json"))
+    ).andReturn().getResponse();
+    MockHttpServletResponse cleared = mvc.perform(
+        put(CLEAR_CART_API_URI).contentType(APPLICATION_JSON_UTF8)
+            .content(FixtureHelpers.fixture(FIXTURES + "/post_order_or_clear_cart_body.json"))
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), removed.getStatus());
+    assertEquals(HttpStatus.OK.value(), cleared.getStatus());
+    verify(cartService, times(1)).removeItemFromCart("1", "1", "10");
+    verify(cartService, times(1)).clearCart("1");
+  }
+
+  @Test
+  public void placedOrderIsReturned() throws Exception {
+    Cart cart = objectMapper.readValue(
+        FixtureHelpers.fixture(FIXTURES + "/get_cart_response.json"), Cart.class);
+    Order order = new Order("5d1d43e45e2e4e0001d1f2a1", cart.getRestaurantId(),
+        cart.getUserId(), cart.getItems(), cart.getTotal(), 1562198500000L);
+    when(orderService.placeOrder("1")).thenReturn(order);
+
+    MockHttpServletResponse response = mvc.perform(
+        post(POST_ORDER_API_URI).contentType(APPLICATION_JSON_UTF8)
+            .content(FixtureHelpers.fixture(FIXTURES + "/post_order_or_clear_cart_body.json"))
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(order, objectMapper.readValue(response.getContentAsString(), Order.class));
+  }
+
+  @Test
+  public void orderOfAnEmptyCartResultsInBadHttpRequest() throws Exception {
+    doThrow(new EmptyCartException("Cart 1 is empty")).when(orderService).placeOrder("1");
+
+    MockHttpServletResponse response = mvc.perform(
+        post(POST_ORDER_API_URI).contentType(APPLICATION_JSON_UTF8)
+            .content(FixtureHelpers.fixture(FIXTURES + "/post_order_or_clear_cart_body.json"))
+    ).andReturn().getResponse();
+
+    assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+  }
+
+  @Test
+  public void orderHistoryPageIsReturnedAsIs() throws Exception {
+    byte[] page = ("{\"orders\":[{\"id\":\"5d1d43e45e2e4e0001d1f2a1\",\"restaurantId\":\"10\","
+        + "\"total\":225,\"placedAt\":1562198500000}],\"nextCursor\":null}")
+        .getBytes(StandardCharsets.UTF_8);
+    when(orderService.findOrderHistoryJson("Bunny", "MTU2", 10)).thenReturn(page);
+
+    URI uri = UriComponentsBuilder.fromPath(LIST_ORDERS_API_URI)
+        .queryParam("userId", "Bunny")
+        .queryParam("limit", "10")
+        .queryParam("after", "MTU2")
+        .build().toUri();
+    MockHttpServletResponse response = mvc.perform(get(uri.toString())).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertEquals(new String(page, StandardCharsets.UTF_8), response.getContentAsString());
+  }
+
+  @Test
+  public void orderHistoryDefaultsToTheFirstPageOfTwenty() throws Exception {
+    when(orderService.findOrderHistoryJson("Bunny", null, 20))
+        .thenReturn("{\"orders\":[],\"nextCursor\":null}".getBytes(StandardCharsets.UTF_8));
+
+    URI uri = UriComponentsBuilder.fromPath(LIST_ORDERS_API_URI)
+        .queryParam("userId", "Bunny")
+        .build().toUri();
+    MockHttpServletResponse response = mvc.perform(get(uri.toString())).andReturn().getResponse();
+
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    verify(orderService, times(1)).findOrderHistoryJson("Bunny", null, 20);
+  }
+
+  @Test
+  public void orderHistoryWithInvalidLimitOrCursorResultsInBadHttpRequest() throws Exception {
+    URI missingUser = UriComponentsBuilder.fromPath(LIST_ORDERS_API_URI)
+        .queryParam("limit", "10")
+        .build().toUri();
+    URI limitTooLarge = UriComponentsBuilder.fromPath(LIST_ORDERS_API_URI)
+        .queryParam("userId", "Bunny")
+        .queryParam("limit", "101")
+        .build().toUri();
+    assertEquals(HttpStatus.BAD_REQUEST.value(),
+        mvc.perform(get(missingUser.toString())).andReturn().getResponse().getStatus());
+    assertEquals(HttpStatus.BAD_REQUEST.value(),
+        mvc.perform(get(limitTooLarge.toString())).andReturn().getResponse().getStatus());
+
+    doThrow(new InvalidCursorException("Malformed cursor garbage"))
+        .when(orderService).findOrderHistoryJson("Bunny", "garbage", 20);
+    URI badCursor = UriComponentsBuilder.fromPath(LIST_ORDERS_API_URI)
+        .queryParam("userId", "Bunny")
+        .queryParam("after", "garbage")
+        .build().toUri();
+    assertEquals(HttpStatus.BAD_REQUEST.value(),
+        mvc.perform(get(badCursor.toString())).andReturn().getResponse().getStatus());
+    verify(orderService, times(0)).findOrderHistoryJson("Bunny", null, 101);
+  }
 
 
   private GetRestaurantsResponse loadSampleResponseList() throws IOException {
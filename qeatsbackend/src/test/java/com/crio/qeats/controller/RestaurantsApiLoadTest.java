@@ -0,0 +1,189 @@
+
+package com.crio.qeats.controller;
+
+import static com.crio.qeats.controller.RestaurantController.RESTAURANTS_API;
+import static com.crio.qeats.controller.RestaurantController.RESTAURANT_API_ENDPOINT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.models.RestaurantEntity;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Puts the servlet and the reactive stack under the same load, one after the other, each with
+ * its embedded Mongo and Redis, and prints p50/p99 latency and throughput for both.
+ * Only runs with {@code ./gradlew test -PloadTest --tests '*RestaurantsApiLoadTest'}.
+ */
+@EnabledIfSystemProperty(named = "qeats.loadtest", matches = "true")
+public class RestaurantsApiLoadTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+  private static final int RESTAURANTS = 5000;
+  private static final int QUERY_POINTS = 50;
+  private static final int WARMUP_REQUESTS = 2000;
+  private static final int REQUESTS = 20000;
+  private static final int CONCURRENCY = 256;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void servletAndReactiveStacksUnderTheSameLoad() throws IOException {
+    List<RestaurantEntity> restaurants = loadRestaurants();
+    List<String> queries = queries(restaurants);
+
+    LoadResult servlet = run(restaurants, queries, "test");
+    LoadResult reactive = run(restaurants, queries, "test", "reactive");
+
+    System.out.println("stack        p50 (ms)   p99 (ms)   requests/s   errors");
+    System.out.println(servlet.format("servlet"));
+    System.out.println(reactive.format("reactive"));
+    assertEquals(0, servlet.errors);
+    assertEquals(0, reactive.errors);
+  }
+
+  private LoadResult run(List<RestaurantEntity> restaurants, List<String> queries,
+      String... profiles) {
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(QEatsApplication.class)
+            .profiles(profiles)
+            .properties("server.port=0")
+            .run()) {
+      MongoTemplate mongoTemplate = context.getBean(MongoTemplate.class);
+      mongoTemplate.dropCollection("restaurants");
+      mongoTemplate.insert(restaurants, "restaurants");
+      try {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String baseUrl = "http://localhost:" + port + RESTAURANT_API_ENDPOINT + RESTAURANTS_API;
+        WebClient client = WebClient.create();
+        fire(client, baseUrl, queries, WARMUP_REQUESTS);
+        return fire(client, baseUrl, queries, REQUESTS);
+      } finally {
+        mongoTemplate.dropCollection("restaurants");
+      }
+    }
+  }
+
+  private static LoadResult fire(WebClient client, String baseUrl, List<String> queries,
+      int requests) {
+    long[] latencies = new long[requests];
+    AtomicInteger errors = new AtomicInteger();
+    long startedAt = System.nanoTime();
+    Flux.range(0, requests)
+        .flatMap(i -> Mono.defer(() -> {
+          long sentAt = System.nanoTime();
+          return client.get().uri(baseUrl + "?" + queries.get(i % queries.size()))
+              .exchange()
+              .flatMap(response -> response.toEntity(byte[].class))
+              .doOnNext(entity -> {
+                latencies[i] = System.nanoTime() - sentAt;
+                if (!entity.getStatusCode().is2xxSuccessful()) {
+                  errors.incrementAndGet();
+                }
+              })
+              .then()
+              .onErrorResume(e -> {
+                errors.incrementAndGet();
+                return Mono.empty();
+              });
+        }), CONCURRENCY)
+        .blockLast();
+    long elapsedNanos = System.nanoTime() - startedAt;
+
+    long[] completed = Arrays.stream(latencies).filter(latency -> latency > 0).sorted()
+        .toArray();
+    return new LoadResult(percentileMillis(completed, 0.50), percentileMillis(completed, 0.99),
+        completed.length * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos, errors.get());
+  }
+
+  private static double percentileMillis(long[] sortedLatencies, double percentile) {
+    if (sortedLatencies.length == 0) {
+      return Double.NaN;
+    }
+    int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+    return sortedLatencies[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  // Copies of the fixture restaurants scattered around them, open all day, so every query
+  // finds a few dozen restaurants whatever the time of the run.
+  private List<RestaurantEntity> loadRestaurants() throws IOException {
+    List<RestaurantEntity> fixtures = objectMapper.readValue(
+        FixtureHelpers.fixture(FIXTURES + "/initial_data_set_restaurants.json"),
+        new TypeReference<List<RestaurantEntity>>() {
+        });
+
+    Random random = new Random(42);
+    List<RestaurantEntity> restaurants = new ArrayList<>();
+    for (int i = 0; i < RESTAURANTS; i++) {
+      RestaurantEntity fixture = fixtures.get(i % fixtures.size());
+      RestaurantEntity restaurant = new RestaurantEntity();
+      restaurant.setId("load-" + i);
+      restaurant.setRestaurantId("load-" + i);
+      restaurant.setName(fixture.getName());
+      restaurant.setCity(fixture.getCity());
+      restaurant.setImageUrl(fixture.getImageUrl());
+      restaurant.setLatitude(fixture.getLatitude() + (random.nextDouble() - 0.5) * 0.5);
+      restaurant.setLongitude(fixture.getLongitude() + (random.nextDouble() - 0.5) * 0.5);
+      restaurant.setOpensAt("00:00");
+      restaurant.setClosesAt("23:59");
+      restaurant.setAttributes(fixture.getAttributes());
+      restaurants.add(restaurant);
+    }
+    return restaurants;
+  }
+
+  // Every other query point also searches for one of the restaurant's attributes.
+  private static List<String> queries(List<RestaurantEntity> restaurants) {
+    List<String> queries = new ArrayList<>();
+    for (int i = 0; i < QUERY_POINTS; i++) {
+      RestaurantEntity restaurant = restaurants.get(i);
+      String query = "latitude=" + restaurant.getLatitude()
+          + "&longitude=" + restaurant.getLongitude();
+      if (i % 2 == 1 && !restaurant.getAttributes().isEmpty()) {
+        query += "&searchFor=" + restaurant.getAttributes().get(0).replace(' ', '+');
+      }
+      queries.add(query);
+    }
+    return queries;
+  }
+
+  private static final class LoadResult {
+
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double requestsPerSecond;
+    private final int errors;
+
+    private LoadResult(double p50Millis, double p99Millis, double requestsPerSecond,
+        int errors) {
+      this.p50Millis = p50Millis;
+      this.p99Millis = p99Millis;
+      this.requestsPerSecond = requestsPerSecond;
+      this.errors = errors;
+    }
+
+    private String format(String stack) {
+      return String.format("%-10s %10.2f %10.2f %12.0f %8d", stack, p50Millis, p99Millis,
+          requestsPerSecond, errors);
+    }
+
+  }
+
+}
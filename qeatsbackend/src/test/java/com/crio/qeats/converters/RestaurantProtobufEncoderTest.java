@@ -0,0 +1,58 @@
+package com.crio.qeats.converters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.exchanges.GetRestaurantsResponse;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnknownFieldSet;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class RestaurantProtobufEncoderTest {
+
+  @Test
+  void encodesTheFieldsOfTheSchema() throws Exception {
+    Restaurant a2b = new Restaurant("id", "10", "A2B", "Hsr Layout", "www.google.com", 20.027,
+        30.0, "18:00", "23:00", Arrays.asList("Tamil", "South Indian"));
+    Restaurant noImage = new Restaurant(null, "11", "Udupi", "", "", 20.0, 0, "10:00", "22:00",
+        Collections.emptyList());
+
+    UnknownFieldSet response = UnknownFieldSet.parseFrom(
+        encode(new GetRestaurantsResponse(Arrays.asList(a2b, noImage))));
+
+    List<ByteString> restaurants = response.getField(1).getLengthDelimitedList();
+    assertEquals(2, restaurants.size());
+
+    UnknownFieldSet first = UnknownFieldSet.parseFrom(restaurants.get(0));
+    assertEquals("10", first.getField(1).getLengthDelimitedList().get(0).toStringUtf8());
+    assertEquals("A2B", first.getField(2).getLengthDelimitedList().get(0).toStringUtf8());
+    assertEquals(20.027,
+        Double.longBitsToDouble(first.getField(5).getFixed64List().get(0)));
+    assertEquals(Arrays.asList("Tamil", "South Indian"),
+        first.getField(9).getLengthDelimitedList().stream()
+            .map(ByteString::toStringUtf8).collect(Collectors.toList()));
+
+    // Default values are left out.
+    UnknownFieldSet second = UnknownFieldSet.parseFrom(restaurants.get(1));
+    assertFalse(second.hasField(3));
+    assertFalse(second.hasField(4));
+    assertFalse(second.hasField(6));
+    assertFalse(second.hasField(9));
+  }
+
+  private static byte[] encode(GetRestaurantsResponse response) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CodedOutputStream output = CodedOutputStream.newInstance(out);
+    RestaurantProtobufEncoder.writeTo(response, output);
+    output.flush();
+    return out.toByteArray();
+  }
+
+}
@@ -33,8 +33,7 @@ class RestaurantTest {
             + "  ]\n"
             + "}";
 
-    Restaurant restaurant = new Restaurant();
-    restaurant = new ObjectMapper().readValue(jsonString, Restaurant.class);
+    Restaurant restaurant = new ObjectMapper().readValue(jsonString, Restaurant.class);
 
     String actualJsonString = "";
     actualJsonString = new ObjectMapper().writeValueAsString(restaurant);
@@ -0,0 +1,136 @@
+package com.crio.qeats.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RingBufferEventBusTest {
+
+  @Test
+  public void everyHandlerSeesEveryEventOfEveryPublisher() throws Exception {
+    RingBufferEventBus<long[]> eventBus = new RingBufferEventBus<>("test", 64, () -> new long[1]);
+    RecordingHandler first = new RecordingHandler(0);
+    RecordingHandler second = new RecordingHandler(0);
+    eventBus.subscribe("first", first);
+    eventBus.subscribe("second", second);
+    eventBus.start();
+
+    ExecutorService publishers = Executors.newFixedThreadPool(4);
+    for (int publisher = 0; publisher < 4; publisher++) {
+      int offset = publisher * 10_000;
+      publishers.execute(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          eventBus.publish((event, value) -> event[0] = value, (long) (offset + i));
+        }
+      });
+    }
+    publishers.shutdown();
+    assertTrue(publishers.awaitTermination(30, TimeUnit.SECONDS));
+    eventBus.close();
+
+    assertEquals(40_000, first.values.size());
+    assertEquals(sorted(first.values), sorted(second.values));
+    assertEquals(0, eventBus.backlog());
+    for (int i = 0; i < 40_000; i++) {
+      assertEquals(i, (long) sorted(first.values).get(i));
+    }
+    assertOrderedPerPublisher(first.values);
+  }
+
+  @Test
+  public void slowHandlerHoldsPublishersBackInsteadOfLosingEvents() {
+    RingBufferEventBus<long[]> eventBus = new RingBufferEventBus<>("test", 8, () -> new long[1]);
+    RecordingHandler slow = new RecordingHandler(1);
+    eventBus.subscribe("slow", slow);
+    eventBus.start();
+
+    for (long i = 0; i < 100; i++) {
+      eventBus.publish((event, value) -> event[0] = value, i);
+    }
+    eventBus.close();
+
+    assertEquals(100, slow.values.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, (long) slow.values.get(i));
+    }
+    assertTrue(slow.batches > 1);
+  }
+
+  @Test
+  public void failingHandlerDoesNotStopDelivery() {
+    RingBufferEventBus<long[]> eventBus = new RingBufferEventBus<>("test", 8, () -> new long[1]);
+    RecordingHandler handler = new RecordingHandler(0);
+    eventBus.subscribe("failing", (event, sequence, endOfBatch) -> {
+      if (sequence == 3) {
+        throw new IllegalStateException("handler failure");
+      }
+    });
+    eventBus.subscribe("recording", handler);
+    eventBus.start();
+
+    for (long i = 0; i < 20; i++) {
+      eventBus.publish((event, value) -> event[0] = value, i);
+    }
+    eventBus.close();
+
+    assertEquals(20, handler.values.size());
+    assertThrows(IllegalStateException.class,
+        () -> eventBus.publish((event, value) -> event[0] = value, 20L));
+  }
+
+  @Test
+  public void ringSizeMustBeAPowerOfTwo() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new RingBufferEventBus<>("test", 100, () -> new long[1]));
+  }
+
+  private static void assertOrderedPerPublisher(List<Long> values) {
+    long[] last = {-1, -1, -1, -1};
+    for (long value : values) {
+      int publisher = (int) (value / 10_000);
+      assertTrue(value > last[publisher]);
+      last[publisher] = value;
+    }
+  }
+
+  private static List<Long> sorted(List<Long> values) {
+    List<Long> sorted = new ArrayList<>(values);
+    sorted.sort(null);
+    return sorted;
+  }
+
+  private static final class RecordingHandler implements EventHandler<long[]> {
+
+    private final long delayMillis;
+    private final List<Long> values = new ArrayList<>();
+    private int batches;
+
+    private RecordingHandler(long delayMillis) {
+      this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public void onEvent(long[] event, long sequence, boolean endOfBatch) {
+      values.add(event[0]);
+      if (endOfBatch) {
+        batches++;
+      }
+      if (delayMillis > 0) {
+        try {
+          Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+  }
+
+}
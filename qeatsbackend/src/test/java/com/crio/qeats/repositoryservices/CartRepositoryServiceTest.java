@@ -0,0 +1,267 @@
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.configs.RedisConfiguration;
+import com.crio.qeats.dto.Cart;
+import com.crio.qeats.dto.Item;
+import com.crio.qeats.exceptions.CartNotFoundException;
+import com.crio.qeats.exceptions.ItemNotFromSameRestaurantException;
+import com.crio.qeats.models.CartEntity;
+import com.crio.qeats.utils.FixtureHelpers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import redis.clients.jedis.Jedis;
+
+@SpringBootTest(classes = {QEatsApplication.class})
+@DirtiesContext
+@ActiveProfiles("test")
+class CartRepositoryServiceTest {
+
+  private static final String FIXTURES = "fixtures/exchanges";
+
+  @Autowired
+  private CartRepositoryService cartRepositoryService;
+  @Autowired
+  private CartWriteBehind cartWriteBehind;
+  @Autowired
+  private MongoTemplate mongoTemplate;
+  @Autowired
+  private RedisConfiguration redisConfiguration;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  // The cart fixtures also carry a status, which carts do not have.
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  @AfterEach
+  void teardown() {
+    redisConfiguration.destroyCache();
+    mongoTemplate.dropCollection("carts");
+  }
+
+  @Test
+  void newUserGetsTheSameEmptyCartEveryTime() {
+    Cart cart = cartRepositoryService.findOrCreateCart("Bunny");
+
+    assertNotNull(cart.getId());
+    assertEquals("Bunny", cart.getUserId());
+    assertEquals("", cart.getRestaurantId());
+    assertTrue(cart.getItems().isEmpty());
+    assertEquals(cart, cartRepositoryService.findOrCreateCart("Bunny"));
+  }
+
+  @Test
+  void addingAndRemovingItemsKeepsTheTotal() throws IOException {
+    Item dosai = loadItem();
+    String cartId = cartRepositoryService.findOrCreateCart("Bunny").getId();
+
+    cartRepositoryService.addItem(dosai, cartId, "11");
+    Cart cart = cartRepositoryService.addItem(dosai, cartId, "11");
+    assertEquals("11", cart.getRestaurantId());
+    assertEquals(2, cart.getItems().size());
+    assertEquals(150, cart.getTotal());
+
+    cart = cartRepositoryService.removeItem(dosai.getItemId(), cartId);
+    assertEquals(1, cart.getItems().size());
+    assertEquals(75, cart.getTotal());
+
+    cart = cartRepositoryService.removeItem(dosai.getItemId(), cartId);
+    assertEquals("", cart.getRestaurantId());
+    assertEquals(0, cart.getTotal());
+  }
+
+  @Test
+  void itemFromAnotherRestaurantLeavesTheCartUnchanged() throws IOException {
+    Item dosai = loadItem();
+    String cartId = cartRepositoryService.findOrCreateCart("Bunny").getId();
+    Cart cart = cartRepositoryService.addItem(dosai, cartId, "11");
+
+    ItemNotFromSameRestaurantException e = assertThrows(ItemNotFromSameRestaurantException.class,
+        () -> cartRepositoryService.addItem(dosai, cartId, "12"));
+
+    assertEquals(102, e.getErrorType());
+    assertEquals(cart, e.getCart());
+    assertEquals(cart, cartRepositoryService.findCartById(cartId));
+  }
+
+  @Test
+  void checkoutEmptiesTheCartOnlyOnce() throws IOException {
+    Item dosai = loadItem();
+    String cartId = cartRepositoryService.findOrCreateCart("Bunny").getId();
+    cartRepositoryService.addItem(dosai, cartId, "11");
+
+    Cart checkedOut = cartRepositoryService.checkoutCart(cartId);
+    Cart again = cartRepositoryService.checkoutCart(cartId);
+
+    assertEquals(1, checkedOut.getItems().size());
+    assertEquals("11", checkedOut.getRestaurantId());
+    assertEquals(75, checkedOut.getTotal());
+    assertTrue(again.getItems().isEmpty());
+    assertTrue(cartRepositoryService.findCartById(cartId).getItems().isEmpty());
+  }
+
+  @Test
+  void restoreOnlyRefillsACartThatStayedEmpty() throws IOException {
+    Item dosai = loadItem();
+    String cartId = cartRepositoryService.findOrCreateCart("Bunny").getId();
+    cartRepositoryService.addItem(dosai, cartId, "11");
+    cartRepositoryService.addItem(dosai, cartId, "11");
+
+    Cart checkedOut = cartRepositoryService.checkoutCart(cartId);
+    cartRepositoryService.restoreCart(checkedOut);
+    assertEquals(checkedOut, cartRepositoryService.findCartById(cartId));
+
+    checkedOut = cartRepositoryService.checkoutCart(cartId);
+    Cart added = cartRepositoryService.addItem(dosai, cartId, "11");
+    cartRepositoryService.restoreCart(checkedOut);
+    assertEquals(added, cartRepositoryService.findCartById(cartId));
+  }
+
+  @Test
+  void changedCartsAreWrittenBehindToMongo() throws IOException {
+    String cartId = cartRepositoryService.findOrCreateCart("Bunny").getId();
+    cartRepositoryService.addItem(loadItem(), cartId, "11");
+
+    cartWriteBehind.flush();
+
+    CartEntity stored = mongoTemplate.findById(cartId, CartEntity.class);
+    assertNotNull(stored);
+    assertEquals("Bunny", stored.getUserId());
+    assertEquals("11", stored.getRestaurantId());
+    assertEquals(1, stored.getItems().size());
+    assertEquals(75, stored.getTotal());
+  }
+
+  @Test
+  void olderCartVersionNeverReplacesALaterOneInMongo() throws IOException {
+    String cartId = cartRepositoryService.findOrCreateCart("Bunny").getId();
+    cartRepositoryService.addItem(loadItem(), cartId, "11");
+    cartWriteBehind.flush();
+    // Another instance has since written a later version.
+    CartEntity later = mongoTemplate.findById(cartId, CartEntity.class);
+    later.setTotal(150);
+    later.setVersion(later.getVersion() + 1);
+    mongoTemplate.save(later);
+
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      jedis.sadd(RedisCarts.DIRTY_KEY, cartId);
+      cartWriteBehind.flush();
+
+      assertEquals(150, mongoTemplate.findById(cartId, CartEntity.class).getTotal());
+      assertTrue(jedis.smembers(RedisCarts.DIRTY_KEY).isEmpty());
+    }
+  }
+
+  @Test
+  void cartsLeftInProcessingByAFailedRunAreWrittenByTheNextOne() throws IOException {
+    String cartId = cartRepositoryService.findOrCreateCart("Bunny").getId();
+    cartRepositoryService.addItem(loadItem(), cartId, "11");
+
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      // A run took the cart, then failed before Mongo had it.
+      jedis.smove(RedisCarts.DIRTY_KEY, RedisCarts.PROCESSING_KEY, cartId);
+      cartWriteBehind.flush();
+
+      assertEquals(75, mongoTemplate.findById(cartId, CartEntity.class).getTotal());
+      assertTrue(jedis.smembers(RedisCarts.DIRTY_KEY).isEmpty());
+      assertTrue(jedis.smembers(RedisCarts.PROCESSING_KEY).isEmpty());
+    }
+  }
+
+  @Test
+  void userMappingExpiresWithTheCart() {
+    cartRepositoryService.findOrCreateCart("Bunny");
+
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      assertTrue(jedis.ttl(RedisCarts.userKey("Bunny")) > 0);
+    }
+  }
+
+  @Test
+  void cartsMissingFromRedisAreLoadedFromMongo() throws IOException {
+    List<CartEntity> carts = objectMapper.readValue(
+        FixtureHelpers.fixture(FIXTURES + "/initial_data_set_carts.json"),
+        new TypeReference<List<CartEntity>>() {
+        });
+    mongoTemplate.insertAll(carts);
+
+    Cart cart = cartRepositoryService.clearCart("1");
+
+    assertEquals("Bunny", cart.getUserId());
+    assertEquals(0, cart.getTotal());
+    assertEquals("1", cartRepositoryService.findOrCreateCart("Bunny").getId());
+    assertThrows(CartNotFoundException.class, () -> cartRepositoryService.clearCart("404"));
+  }
+
+  @Test
+  void concurrentChangesToTheSameCartAreAllKeptAndLoadItOnce() throws Exception {
+    Item dosai = loadItem();
+    String cartId = cartRepositoryService.findOrCreateCart("Bunny").getId();
+    cartWriteBehind.flush();
+    // Every thread starts on a cart that only Mongo has.
+    try (Jedis jedis = redisConfiguration.getJedisPool().getResource()) {
+      jedis.flushAll();
+    }
+    double readsBefore = meterRegistry.get("qeats.cart.mongo.reads").counter().count();
+
+    int threads = 16;
+    int rounds = 20;
+    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    try {
+      for (int thread = 0; thread < threads; thread++) {
+        results.add(executorService.submit(() -> {
+          start.await();
+          for (int round = 0; round < rounds; round++) {
+            cartRepositoryService.addItem(dosai, cartId, "11");
+            cartRepositoryService.addItem(dosai, cartId, "11");
+            cartRepositoryService.removeItem(dosai.getItemId(), cartId);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+
+    Cart cart = cartRepositoryService.findCartById(cartId);
+    assertEquals(threads * rounds, cart.getItems().size());
+    assertEquals(threads * rounds * dosai.getPrice(), cart.getTotal());
+    // Only the cold load is serialized, and without it every thread would read Mongo.
+    assertEquals(1,
+        meterRegistry.get("qeats.cart.mongo.reads").counter().count() - readsBefore);
+  }
+
+  private Item loadItem() throws IOException {
+    return objectMapper.readValue(FixtureHelpers.fixture(FIXTURES + "/item_dosai.json"),
+        Item.class);
+  }
+
+}
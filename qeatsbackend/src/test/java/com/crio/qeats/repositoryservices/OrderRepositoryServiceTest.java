@@ -0,0 +1,207 @@
+package com.crio.qeats.repositoryservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crio.qeats.QEatsApplication;
+import com.crio.qeats.dto.Order;
+import com.crio.qeats.dto.OrderCursor;
+import com.crio.qeats.dto.OrderSummary;
+import com.crio.qeats.exceptions.OrderIdConflictException;
+import com.crio.qeats.models.OrderEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = {QEatsApplication.class})
+@DirtiesContext
+@ActiveProfiles("test")
+class OrderRepositoryServiceTest {
+
+  private static final String USER_ID = "history-user";
+  private static final int ORDERS = 500;
+  private static final int PAGE_SIZE = 20;
+  private static final long FIRST_PLACED_AT = 1562198500000L;
+
+  @Autowired
+  private OrderRepositoryService orderRepositoryService;
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  private final List<Order> orders = new ArrayList<>();
+
+  // The collection is kept, as dropping it would also drop the index under test.
+  @BeforeEach
+  void setup() {
+    IndexOperations indexOperations = mongoTemplate.indexOps(OrderEntity.class);
+    new MongoPersistentEntityIndexResolver(
+        (MongoMappingContext) mongoTemplate.getConverter().getMappingContext())
+        .resolveIndexFor(ClassTypeInformation.from(OrderEntity.class))
+        .forEach(indexOperations::ensureIndex);
+
+    // Every third order shares its placedAt with the previous one, so that pages also split
+    // between orders placed in the same millisecond.
+    for (int i = 0; i < ORDERS; i++) {
+      orders.add(new Order(new ObjectId().toHexString(), String.valueOf(i % 7), USER_ID,
+          Collections.emptyList(), 100 + i, FIRST_PLACED_AT + i - i / 3));
+    }
+    orders.add(new Order(new ObjectId().toHexString(), "1", "someone-else",
+        Collections.emptyList(), 50, FIRST_PLACED_AT));
+    orderRepositoryService.saveAll(orders);
+  }
+
+  @AfterEach
+  void teardown() {
+    mongoTemplate.remove(new Query(), OrderEntity.class);
+  }
+
+  @Test
+  void pagesCoverTheHistoryNewestFirstWithoutGapsOrRepeats() {
+    List<OrderSummary> history = new ArrayList<>();
+    OrderCursor after = null;
+    List<OrderSummary> page;
+    do {
+      page = orderRepositoryService.findOrderSummaries(USER_ID, after, PAGE_SIZE);
+      assertTrue(page.size() <= PAGE_SIZE);
+      history.addAll(page);
+      after = page.isEmpty() ? null : OrderCursor.after(page.get(page.size() - 1));
+    } while (page.size() == PAGE_SIZE);
+
+    assertEquals(ORDERS, history.size());
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < history.size(); i++) {
+      OrderSummary order = history.get(i);
+      assertTrue(ids.add(order.getId()));
+      if (i > 0) {
+        OrderSummary previous = history.get(i - 1);
+        assertTrue(previous.getPlacedAt() > order.getPlacedAt()
+            || previous.getPlacedAt() == order.getPlacedAt()
+                && previous.getId().compareTo(order.getId()) > 0);
+      }
+    }
+  }
+
+  @Test
+  void replayedOrdersAreIgnoredButConflictingOnesAreNot() {
+    Order replayed = orders.get(0);
+    Order conflicting = new Order(orders.get(1).getId(), "other-restaurant", "other-user",
+        Collections.emptyList(), 1, FIRST_PLACED_AT);
+    Order fresh = new Order(new ObjectId().toHexString(), "1", USER_ID,
+        Collections.emptyList(), 1, FIRST_PLACED_AT - 1);
+    OrderIdConflictException e = assertThrows(OrderIdConflictException.class,
+        () -> orderRepositoryService.saveAll(Arrays.asList(replayed, conflicting, fresh)));
+
+    assertEquals(Collections.singletonList(conflicting.getId()), e.getOrderIds());
+    assertEquals(USER_ID, mongoTemplate.findById(conflicting.getId(), OrderEntity.class)
+        .getUserId());
+    assertNotNull(mongoTemplate.findById(fresh.getId(), OrderEntity.class));
+  }
+
+  @Test
+  void onlySummaryFieldsAreRead() {
+    OrderSummary newest =
+        orderRepositoryService.findOrderSummaries(USER_ID, null, 1).get(0);
+
+    Order placed = orders.get(ORDERS - 1);
+    assertEquals(placed.getId(), newest.getId());
+    assertEquals(placed.getRestaurantId(), newest.getRestaurantId());
+    assertEquals(placed.getTotal(), newest.getTotal());
+    assertEquals(placed.getPlacedAt(), newest.getPlacedAt());
+  }
+
+  @Test
+  void firstAndDeepPagesAreIndexRangesWithoutSort() {
+    List<OrderSummary> summaries = orderRepositoryService.findOrderSummaries(USER_ID, null,
+        ORDERS);
+    OrderCursor deep = OrderCursor.after(summaries.get(ORDERS - 3 * PAGE_SIZE));
+
+    for (OrderCursor after : new OrderCursor[] {null, deep}) {
+      Document explained = explain(OrderRepositoryServiceImpl.orderSummariesQuery(USER_ID, after,
+          PAGE_SIZE + 1));
+
+      Document winningPlan = (Document) ((Document) explained.get("queryPlanner"))
+          .get("winningPlan");
+      assertTrue(usesIndex(winningPlan, OrderEntity.USER_HISTORY_INDEX), winningPlan::toJson);
+      assertFalse(hasStage(winningPlan, "SORT"), winningPlan::toJson);
+
+      // The page, plus at most the two orders sharing the cursor's placedAt, whatever the depth.
+      Document executionStats = (Document) explained.get("executionStats");
+      assertEquals(PAGE_SIZE + 1, executionStats.getInteger("nReturned").intValue());
+      assertTrue(executionStats.getInteger("totalDocsExamined") <= PAGE_SIZE + 3,
+          executionStats::toJson);
+      assertTrue(executionStats.getInteger("totalKeysExamined") <= PAGE_SIZE + 4,
+          executionStats::toJson);
+    }
+  }
+
+  @Test
+  void emptyHistoryHasNoPages() {
+    assertTrue(orderRepositoryService.findOrderSummaries("no-orders", null, PAGE_SIZE)
+        .isEmpty());
+    // Past the only order of the user.
+    assertTrue(orderRepositoryService.findOrderSummaries("someone-else",
+        new OrderCursor(FIRST_PLACED_AT, "000000000000000000000000"), PAGE_SIZE).isEmpty());
+  }
+
+  private Document explain(Query query) {
+    MongoPersistentEntity<?> entity =
+        mongoTemplate.getConverter().getMappingContext().getPersistentEntity(OrderEntity.class);
+    QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+
+    Document find = new Document("find", mongoTemplate.getCollectionName(OrderEntity.class))
+        .append("filter", queryMapper.getMappedObject(query.getQueryObject(), entity))
+        .append("sort", queryMapper.getMappedObject(query.getSortObject(), entity))
+        .append("projection", query.getFieldsObject())
+        .append("limit", query.getLimit());
+    return mongoTemplate.executeCommand(new Document("explain", find)
+        .append("verbosity", "executionStats"));
+  }
+
+  private static boolean usesIndex(Document stage, String indexName) {
+    if ("IXSCAN".equals(stage.getString("stage"))) {
+      return indexName.equals(stage.getString("indexName"));
+    }
+    return inputStages(stage).stream().anyMatch(input -> usesIndex(input, indexName));
+  }
+
+  private static boolean hasStage(Document stage, String name) {
+    return name.equals(stage.getString("stage"))
+        || inputStages(stage).stream().anyMatch(input -> hasStage(input, name));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Document> inputStages(Document stage) {
+    List<Document> inputs = new ArrayList<>();
+    if (stage.get("inputStage") != null) {
+      inputs.add((Document) stage.get("inputStage"));
+    }
+    if (stage.get("inputStages") != null) {
+      inputs.addAll((List<Document>) stage.get("inputStages"));
+    }
+    return inputs;
+  }
+
+}
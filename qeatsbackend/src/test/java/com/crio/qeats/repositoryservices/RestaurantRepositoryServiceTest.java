@@ -9,6 +9,8 @@ package com.crio.qeats.repositoryservices;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
@@ -18,6 +20,7 @@ import static org.mockito.Mockito.when;
 import com.crio.qeats.QEatsApplication;
 import com.crio.qeats.configs.RedisConfiguration;
 import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.dto.RestaurantField;
 import com.crio.qeats.models.RestaurantEntity;
 import com.crio.qeats.repositories.RestaurantRepository;
 import com.crio.qeats.utils.FixtureHelpers;
@@ -26,6 +29,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import javax.inject.Provider;
@@ -106,6 +110,21 @@ public class RestaurantRepositoryServiceTest {
     assertEquals("12", allRestaurantsCloseBy.get(1).getRestaurantId());
   }
 
+  @Test
+  void projectedRestaurantsCloseByOnlyLoadTheRequestedFields() {
+    List<Restaurant> allRestaurantsCloseBy = restaurantRepositoryService
+        .findAllRestaurantsCloseBy(20.0, 30.0, LocalTime.of(18, 1), 3.0,
+            EnumSet.of(RestaurantField.RESTAURANT_ID, RestaurantField.NAME));
+
+    verify(restaurantRepository, times(0)).findAll();
+    assertEquals(2, allRestaurantsCloseBy.size());
+    assertEquals("11", allRestaurantsCloseBy.get(0).getRestaurantId());
+    assertNotNull(allRestaurantsCloseBy.get(0).getName());
+    assertNull(allRestaurantsCloseBy.get(0).getCity());
+    assertNull(allRestaurantsCloseBy.get(0).getImageUrl());
+    assertTrue(allRestaurantsCloseBy.get(0).getAttributes().isEmpty());
+  }
+
 
   @Test
   void noRestaurantsNearBy(@Autowired MongoTemplate mongoTemplate) {
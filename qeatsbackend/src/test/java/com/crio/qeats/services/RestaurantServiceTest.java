@@ -9,23 +9,30 @@ package com.crio.qeats.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import ch.hsr.geohash.BoundingBox;
+import ch.hsr.geohash.GeoHash;
 import com.crio.qeats.QEatsApplication;
 import com.crio.qeats.dto.Restaurant;
 import com.crio.qeats.exchanges.GetRestaurantsRequest;
 import com.crio.qeats.exchanges.GetRestaurantsResponse;
 import com.crio.qeats.repositoryservices.RestaurantRepositoryService;
 import com.crio.qeats.utils.FixtureHelpers;
+import com.crio.qeats.utils.GeoUtils;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -105,6 +112,57 @@ class RestaurantServiceTest {
   }
 
 
+  @Test
+  void batchReadsEveryDistinctCellOnceThroughTheCache() {
+    Restaurant restaurant = Restaurant.builder().restaurantId("1").name("A2B")
+        .latitude(20.0).longitude(30.0).opensAt("00:00").closesAt("23:59").build();
+    when(restaurantRepositoryServiceMock.findAllRestaurantsCloseToCell(anyString(),
+        any(LocalTime.class), anyDouble())).thenReturn(Collections.singletonList(restaurant));
+
+    List<GetRestaurantsResponse> responses = restaurantService.findAllRestaurantsCloseBy(
+        Arrays.asList(new GetRestaurantsRequest(20.0, 30.0), new GetRestaurantsRequest(20.0, 30.0),
+            new GetRestaurantsRequest(25.0, 35.0)), LocalTime.of(12, 0));
+
+    verify(restaurantRepositoryServiceMock, times(2)).findAllRestaurantsCloseToCell(anyString(),
+        any(LocalTime.class), eq(5.0));
+    assertEquals(3, responses.size());
+    assertEquals(Collections.singletonList(restaurant), responses.get(0).getRestaurants());
+    assertEquals(Collections.singletonList(restaurant), responses.get(1).getRestaurants());
+    // Whatever the cell holds, a location only gets what is within its own serving radius.
+    assertTrue(responses.get(2).getRestaurants().isEmpty());
+  }
+
+  @Test
+  void batchFindsWhatASingleLookupFindsNearTheEdgeOfACell() {
+    BoundingBox cell = GeoHash.fromGeohashString(GeoUtils.toGeoHashCell(20.0, 30.0))
+        .getBoundingBox();
+    double latitude = cell.getMinLat() + 0.0001;
+    double longitude = (cell.getMinLon() + cell.getMaxLon()) / 2;
+    // Just within 5 km of the location, but further than that from the center of its cell.
+    Restaurant restaurant = Restaurant.builder().restaurantId("1").name("A2B")
+        .latitude(latitude - 4.99 / 111.195).longitude(longitude)
+        .opensAt("00:00").closesAt("23:59").build();
+    when(restaurantRepositoryServiceMock.findAllRestaurantsCloseBy(anyDouble(), anyDouble(),
+        any(LocalTime.class), anyDouble())).thenAnswer(invocation -> {
+          double distance = GeoUtils.findDistanceInKm(invocation.<Double>getArgument(0),
+              invocation.<Double>getArgument(1), restaurant.getLatitude(),
+              restaurant.getLongitude());
+          return distance < invocation.<Double>getArgument(3)
+              ? Collections.singletonList(restaurant) : Collections.emptyList();
+        });
+    when(restaurantRepositoryServiceMock.findAllRestaurantsCloseToCell(anyString(),
+        any(LocalTime.class), anyDouble())).thenCallRealMethod();
+
+    GetRestaurantsRequest request = new GetRestaurantsRequest(latitude, longitude);
+    GetRestaurantsResponse single =
+        restaurantService.findAllRestaurantsCloseBy(request, LocalTime.of(12, 0));
+    List<GetRestaurantsResponse> batch = restaurantService.findAllRestaurantsCloseBy(
+        Collections.singletonList(request), LocalTime.of(12, 0));
+
+    assertEquals(Collections.singletonList(restaurant), single.getRestaurants());
+    assertEquals(single.getRestaurants(), batch.get(0).getRestaurants());
+  }
+
   @Test
   void normalHourFindRestaurantsSearchQuery() throws IOException {
     when(restaurantRepositoryServiceMock.findRestaurantsByName(any(Double.class),
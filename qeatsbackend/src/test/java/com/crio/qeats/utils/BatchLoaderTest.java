@@ -0,0 +1,131 @@
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchLoaderTest {
+
+  private ExecutorService dispatcher;
+  private MeterRegistry meterRegistry;
+  private List<List<Integer>> batches;
+
+  @BeforeEach
+  public void setup() {
+    dispatcher = Executors.newFixedThreadPool(2);
+    meterRegistry = new SimpleMeterRegistry();
+    batches = new CopyOnWriteArrayList<>();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    dispatcher.shutdownNow();
+  }
+
+  @Test
+  public void concurrentCallersShareOneDeduplicatedBatch() {
+    BatchLoader<Integer, String> loader = loader(TimeUnit.MILLISECONDS.toNanos(200), 100);
+
+    CompletableFuture<Map<Integer, String>> first = loader.loadAll(Arrays.asList(1, 2, 3));
+    CompletableFuture<Map<Integer, String>> second = loader.loadAll(Arrays.asList(3, 4));
+
+    assertEquals(values(1, 2, 3), first.join());
+    assertEquals(values(3, 4), second.join());
+    assertEquals(1, batches.size());
+    assertEquals(Arrays.asList(1, 2, 3, 4), batches.get(0));
+    assertEquals(2.0, meterRegistry.get("qeats.batchloader.batch.callers").summary().totalAmount());
+    assertEquals(4.0, meterRegistry.get("qeats.batchloader.batch.size").summary().totalAmount());
+    assertEquals(2, meterRegistry.get("qeats.batchloader.wait").timer().count());
+  }
+
+  @Test
+  public void fullBatchGoesOutWithoutWaiting() {
+    BatchLoader<Integer, String> loader = loader(TimeUnit.SECONDS.toNanos(60), 3);
+
+    loader.loadAll(Arrays.asList(1, 2));
+    Map<Integer, String> values = loader.getAll(Arrays.asList(2, 3));
+
+    assertEquals(values(2, 3), values);
+    assertEquals(Collections.singletonList(Arrays.asList(1, 2, 3)), batches);
+  }
+
+  @Test
+  public void batchPastTheMaximumIsSplit() {
+    BatchLoader<Integer, String> loader = loader(TimeUnit.SECONDS.toNanos(60), 3);
+
+    Map<Integer, String> values = loader.getAll(Arrays.asList(1, 2, 3, 4, 5));
+
+    assertEquals(values(1, 2, 3, 4, 5), values);
+    assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5)), batches);
+  }
+
+  @Test
+  public void shutdownFailsWaitingCallers() {
+    BatchLoader<Integer, String> loader = loader(TimeUnit.SECONDS.toNanos(60), 100);
+
+    CompletableFuture<Map<Integer, String>> waiting = loader.loadAll(Arrays.asList(1, 2));
+    loader.shutdown();
+
+    CompletionException e = assertThrows(CompletionException.class, waiting::join);
+    assertTrue(e.getCause() instanceof IllegalStateException);
+    assertThrows(IllegalStateException.class, () -> loader.getAll(Arrays.asList(3)));
+    assertTrue(batches.isEmpty());
+  }
+
+  @Test
+  public void missingKeysAreAbsentFromTheResult() {
+    BatchLoader<Integer, String> loader = loader(TimeUnit.MICROSECONDS.toNanos(200), 100);
+
+    assertEquals(values(1), loader.getAll(Arrays.asList(1, -1)));
+  }
+
+  @Test
+  public void failedBatchFailsEveryCaller() {
+    BatchLoader<Integer, String> loader = new BatchLoader<>("failing", keys -> {
+      throw new IllegalStateException("database down");
+    }, value -> 0, TimeUnit.MICROSECONDS.toNanos(200), 100, dispatcher, meterRegistry);
+
+    assertThrows(IllegalStateException.class, () -> loader.getAll(Arrays.asList(1, 2)));
+  }
+
+  private BatchLoader<Integer, String> loader(long maxWaitNanos, int maxBatchSize) {
+    return new BatchLoader<>("test", keys -> {
+      batches.add(new ArrayList<>(keys));
+      List<String> found = new ArrayList<>();
+      for (Integer key : keys) {
+        if (key > 0) {
+          found.add("value-" + key);
+        }
+      }
+      return found;
+    }, value -> Integer.valueOf(value.substring("value-".length())), maxWaitNanos, maxBatchSize,
+        dispatcher, meterRegistry);
+  }
+
+  private static Map<Integer, String> values(Integer... keys) {
+    Map<Integer, String> values = new HashMap<>();
+    for (Integer key : keys) {
+      values.put(key, "value-" + key);
+    }
+    return values;
+  }
+
+}
@@ -0,0 +1,98 @@
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChunkedLookupTest {
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setup() {
+    executor = Executors.newFixedThreadPool(8);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void looksUpEveryIdInBoundedChunksWithBoundedConcurrency() {
+    ChunkedLookup chunkedLookup = new ChunkedLookup(executor, 10, 3);
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ids.add(i);
+    }
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    AtomicInteger maxChunkSize = new AtomicInteger();
+
+    List<Integer> found = new ArrayList<>();
+    chunkedLookup.forEach(ids, chunk -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      maxChunkSize.accumulateAndGet(chunk.size(), Math::max);
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      inFlight.decrementAndGet();
+      return chunk;
+    }, id -> id, found::add);
+
+    assertEquals(1000, found.size());
+    assertEquals(1000, found.stream().distinct().count());
+    assertEquals(10, maxChunkSize.get());
+    assertTrue(maxInFlight.get() <= 3);
+  }
+
+  @Test
+  public void resultsFoundByManyChunksAreHandedOutOnce() {
+    ChunkedLookup chunkedLookup = new ChunkedLookup(executor, 2, 2);
+
+    List<String> found = new ArrayList<>();
+    chunkedLookup.forEach(Arrays.asList(1, 2, 3, 4, 5, 5), chunk -> Arrays.asList("odd", "even"),
+        result -> result, found::add);
+
+    Collections.sort(found);
+    assertEquals(Arrays.asList("even", "odd"), found);
+  }
+
+  @Test
+  public void smallLookupsRunOnTheCallingThread() {
+    ChunkedLookup chunkedLookup = new ChunkedLookup(executor, 10, 2);
+    Thread caller = Thread.currentThread();
+
+    chunkedLookup.forEach(Arrays.asList(1, 2, 3), chunk -> {
+      assertEquals(caller, Thread.currentThread());
+      return chunk;
+    }, id -> id, id -> { });
+  }
+
+  @Test
+  public void failingChunkFailsTheLookup() {
+    ChunkedLookup chunkedLookup = new ChunkedLookup(executor, 1, 2);
+
+    assertThrows(IllegalArgumentException.class, () -> chunkedLookup.forEach(
+        Arrays.asList(1, 2, 3), chunk -> {
+          if (chunk.contains(2)) {
+            throw new IllegalArgumentException("chunk " + chunk);
+          }
+          return chunk;
+        }, id -> id, id -> { }));
+  }
+
+}
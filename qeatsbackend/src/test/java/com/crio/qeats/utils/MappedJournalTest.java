@@ -0,0 +1,184 @@
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MappedJournalTest {
+
+  private static final int SEGMENT_BYTES = 4096;
+
+  private Path directory;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("journal");
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Test
+  public void concurrentAppendsShareForcesAndAreReadBackInOrder() throws Exception {
+    try (MappedJournal journal = open(SEGMENT_BYTES)) {
+      List<CompletableFuture<Long>> appends = new ArrayList<>();
+      for (int i = 1; i <= 100; i++) {
+        appends.add(journal.append(payload(i)));
+      }
+      CompletableFuture.allOf(appends.toArray(new CompletableFuture<?>[0])).join();
+
+      List<MappedJournal.Record> records = readAll(journal, 100);
+      assertEquals(100, records.size());
+      for (int i = 0; i < records.size(); i++) {
+        assertEquals(i + 1, records.get(i).getSequence());
+        assertEquals("order-" + (i + 1), text(records.get(i)));
+      }
+      assertTrue(meterRegistry.get("qeats.journal.force").timer().count() <= 100);
+    }
+  }
+
+  @Test
+  public void reopenedJournalReplaysWhatWasNotCommitted() throws Exception {
+    try (MappedJournal journal = open(SEGMENT_BYTES)) {
+      for (int i = 1; i <= 5; i++) {
+        journal.append(payload(i)).join();
+      }
+      List<MappedJournal.Record> records = journal.read(3, 1, TimeUnit.SECONDS);
+      journal.commit(records.get(2).getSequence());
+    }
+
+    try (MappedJournal journal = open(SEGMENT_BYTES)) {
+      List<MappedJournal.Record> records = readAll(journal, 2);
+      assertEquals(2, records.size());
+      assertEquals("order-4", text(records.get(0)));
+      assertEquals("order-5", text(records.get(1)));
+      assertEquals(6L, (long) journal.append(payload(6)).join());
+    }
+  }
+
+  @Test
+  public void recordTornByACrashIsDropped() throws Exception {
+    try (MappedJournal journal = open(SEGMENT_BYTES)) {
+      journal.append(payload(1)).join();
+      journal.append(payload(2)).join();
+    }
+    // Damages the last byte of the second record, as if the crash hit while it was written.
+    try (RandomAccessFile segment = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+      long lastByte = 2 * 16 + text(1).length() + text(2).length() - 1;
+      segment.seek(lastByte);
+      segment.write('X');
+    }
+
+    try (MappedJournal journal = open(SEGMENT_BYTES)) {
+      assertEquals(2L, (long) journal.append(payload(3)).join());
+      List<MappedJournal.Record> records = readAll(journal, 2);
+      assertEquals("order-1", text(records.get(0)));
+      assertEquals("order-3", text(records.get(1)));
+    }
+  }
+
+  @Test
+  public void tornTailOfAnEarlierSegmentCutsTheJournalThere() throws Exception {
+    try (MappedJournal journal = open(256)) {
+      for (int i = 1; i <= 30; i++) {
+        journal.append(payload(i)).join();
+      }
+    }
+    List<Path> written = segments();
+    assertTrue(written.size() > 2);
+    // Damages the first record of the second segment, as if the crash left it unforced while
+    // later segments made it to disk.
+    try (RandomAccessFile segment = new RandomAccessFile(written.get(1).toFile(), "rw")) {
+      segment.seek(16);
+      segment.write('X');
+    }
+    String secondSegment = written.get(1).getFileName().toString();
+    long firstLost = Long.parseLong(secondSegment.substring(0, secondSegment.indexOf('.')));
+
+    try (MappedJournal journal = open(256)) {
+      assertEquals(2, segments().size());
+      assertEquals(firstLost, (long) journal.append(payload(31)).join());
+      List<MappedJournal.Record> records = readAll(journal, 31);
+      assertEquals(firstLost, records.size());
+      assertEquals("order-31", text(records.get(records.size() - 1)));
+    }
+  }
+
+  @Test
+  public void consumedSegmentsAreDeleted() throws Exception {
+    try (MappedJournal journal = open(256)) {
+      for (int i = 1; i <= 50; i++) {
+        journal.append(payload(i)).join();
+      }
+      assertTrue(segments().size() > 1);
+
+      List<MappedJournal.Record> records = readAll(journal, 50);
+      assertEquals(50, records.size());
+      journal.commit(records.get(49).getSequence());
+
+      assertEquals(1, segments().size());
+    }
+  }
+
+  private MappedJournal open(int segmentBytes) throws IOException {
+    return new MappedJournal("test", directory, segmentBytes, meterRegistry);
+  }
+
+  private static List<MappedJournal.Record> readAll(MappedJournal journal, int count)
+      throws InterruptedException {
+    List<MappedJournal.Record> records = new ArrayList<>();
+    while (records.size() < count) {
+      List<MappedJournal.Record> read = journal.read(count, 1, TimeUnit.SECONDS);
+      if (read.isEmpty()) {
+        break;
+      }
+      records.addAll(read);
+    }
+    return records;
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> paths = Files.list(directory)) {
+      return paths.filter(path -> path.toString().endsWith(".segment")).sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static byte[] payload(int order) {
+    return text(order).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String text(int order) {
+    return "order-" + order;
+  }
+
+  private static String text(MappedJournal.Record record) {
+    return new String(record.getPayload(), StandardCharsets.UTF_8);
+  }
+
+}
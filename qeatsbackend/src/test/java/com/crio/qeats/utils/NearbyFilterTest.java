@@ -0,0 +1,65 @@
+
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.crio.qeats.dto.Restaurant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class NearbyFilterTest {
+
+  private static final double RADIUS_IN_KMS = 5.0;
+
+  @Test
+  public void findsTheSameRestaurantsAsGeoUtils() {
+    Random random = new Random(7);
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      restaurants.add(Restaurant.builder()
+          .restaurantId(String.valueOf(i))
+          .latitude(12.9 + (random.nextDouble() - 0.5) * 0.2)
+          .longitude(77.6 + (random.nextDouble() - 0.5) * 0.2)
+          .build());
+    }
+    NearbyFilter nearbyFilter = new NearbyFilter(restaurants);
+
+    for (int query = 0; query < 50; query++) {
+      double latitude = 12.9 + (random.nextDouble() - 0.5) * 0.2;
+      double longitude = 77.6 + (random.nextDouble() - 0.5) * 0.2;
+
+      int[] within = nearbyFilter.within(latitude, longitude, RADIUS_IN_KMS);
+
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < restaurants.size(); i++) {
+        if (GeoUtils.findDistanceInKm(latitude, longitude, restaurants.get(i).getLatitude(),
+            restaurants.get(i).getLongitude()) < RADIUS_IN_KMS) {
+          expected.add(i);
+        }
+      }
+      assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), within);
+    }
+  }
+
+  @Test
+  public void subsetKeepsTheSelectedRestaurants() {
+    List<Restaurant> restaurants = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      restaurants.add(Restaurant.builder()
+          .restaurantId(String.valueOf(i))
+          .latitude(12.9 + i * 0.1)
+          .longitude(77.6)
+          .build());
+    }
+
+    NearbyFilter subset = new NearbyFilter(restaurants).subset(new int[] {1, 3});
+
+    assertEquals(2, subset.size());
+    assertEquals("3", subset.restaurants(subset.within(13.2, 77.6, 1.0)).get(0)
+        .getRestaurantId());
+  }
+
+}
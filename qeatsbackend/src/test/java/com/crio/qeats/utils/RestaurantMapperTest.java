@@ -0,0 +1,41 @@
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.crio.qeats.dto.Restaurant;
+import com.crio.qeats.models.RestaurantEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class RestaurantMapperTest {
+
+  @Test
+  public void mapsEveryFieldAndSanitizesTheName() {
+    RestaurantEntity entity = new RestaurantEntity();
+    entity.setId("5eb6e6d0ab4f7a2a1c4b3d2e");
+    entity.setRestaurantId("10");
+    entity.setName("Café A2B");
+    entity.setCity("Hsr Layout");
+    entity.setImageUrl("www.google.com");
+    entity.setLatitude(20.027);
+    entity.setLongitude(30.0);
+    entity.setOpensAt("18:00");
+    entity.setClosesAt("23:00");
+    entity.setAttributes(new ArrayList<>(Arrays.asList("Tamil", "South Indian")));
+
+    Restaurant restaurant = RestaurantMapper.toRestaurant(entity);
+
+    assertEquals(new Restaurant("5eb6e6d0ab4f7a2a1c4b3d2e", "10", "Caf? A2B", "Hsr Layout",
+        "www.google.com", 20.027, 30.0, "18:00", "23:00", Arrays.asList("Tamil", "South Indian")),
+        restaurant);
+
+    // The snapshot does not follow later changes to the entity, nor can it be changed itself.
+    entity.getAttributes().add("Chettinad");
+    assertEquals(2, restaurant.getAttributes().size());
+    assertThrows(UnsupportedOperationException.class,
+        () -> restaurant.getAttributes().add("Chettinad"));
+  }
+
+}
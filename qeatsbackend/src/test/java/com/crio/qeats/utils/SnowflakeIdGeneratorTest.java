@@ -0,0 +1,151 @@
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class SnowflakeIdGeneratorTest {
+
+  private static final long NOW = 1562198500000L;
+  private static final long MAX_CLOCK_SKEW_MILLIS = 1000;
+
+  @Test
+  public void idsAreUniqueAcrossThreadsAndNodes() throws Exception {
+    int nodes = 8;
+    int threads = 32;
+    int idsPerThread = 50_000;
+    SnowflakeIdGenerator[] generators = new SnowflakeIdGenerator[nodes];
+    for (int node = 0; node < nodes; node++) {
+      // Spread over the node id range, including both ends.
+      generators[node] = new SnowflakeIdGenerator(
+          node * SnowflakeIdGenerator.MAX_NODE_ID / (nodes - 1), MAX_CLOCK_SKEW_MILLIS);
+    }
+
+    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<long[]>> results = new ArrayList<>();
+    try {
+      for (int thread = 0; thread < threads; thread++) {
+        SnowflakeIdGenerator generator = generators[thread % nodes];
+        results.add(executorService.submit(() -> {
+          long[] ids = new long[idsPerThread];
+          start.await();
+          for (int i = 0; i < idsPerThread; i++) {
+            ids[i] = generator.nextId();
+          }
+          return ids;
+        }));
+      }
+      start.countDown();
+
+      long[] all = new long[threads * idsPerThread];
+      for (int thread = 0; thread < threads; thread++) {
+        long[] ids = results.get(thread).get();
+        int nodeId = generators[thread % nodes].getNodeId();
+        for (int i = 0; i < ids.length; i++) {
+          assertEquals(nodeId, SnowflakeIdGenerator.nodeId(ids[i]));
+          assertTrue(i == 0 || ids[i] > ids[i - 1], "Ids of a thread must increase");
+        }
+        System.arraycopy(ids, 0, all, thread * idsPerThread, ids.length);
+      }
+
+      Arrays.sort(all);
+      for (int i = 1; i < all.length; i++) {
+        assertNotEquals(all[i - 1], all[i]);
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void idsCarryTheirTimeAndNode() {
+    SnowflakeIdGenerator generator =
+        new SnowflakeIdGenerator(513, MAX_CLOCK_SKEW_MILLIS, () -> NOW);
+
+    long first = generator.nextId();
+    long second = generator.nextId();
+
+    assertEquals(NOW, SnowflakeIdGenerator.timestampMillis(first));
+    assertEquals(513, SnowflakeIdGenerator.nodeId(first));
+    assertEquals(first + 1, second);
+  }
+
+  @Test
+  public void exhaustedMillisecondCarriesIntoTheNext() {
+    SnowflakeIdGenerator generator =
+        new SnowflakeIdGenerator(1, MAX_CLOCK_SKEW_MILLIS, () -> NOW);
+
+    long previous = generator.nextId();
+    for (int i = 1; i < 3 * 4096; i++) {
+      long id = generator.nextId();
+      assertTrue(id > previous);
+      previous = id;
+    }
+
+    assertEquals(NOW + 2, SnowflakeIdGenerator.timestampMillis(previous));
+  }
+
+  @Test
+  public void clockMovingBackWithinTheSkewKeepsIdsIncreasing() {
+    AtomicLong clock = new AtomicLong(NOW);
+    SnowflakeIdGenerator generator =
+        new SnowflakeIdGenerator(1, MAX_CLOCK_SKEW_MILLIS, clock::get);
+
+    long beforeJump = generator.nextId();
+    clock.addAndGet(-MAX_CLOCK_SKEW_MILLIS);
+    long afterJump = generator.nextId();
+    assertTrue(afterJump > beforeJump);
+    assertEquals(NOW, SnowflakeIdGenerator.timestampMillis(afterJump));
+
+    // Once the clock caught up, ids follow it again.
+    clock.set(NOW + 10);
+    assertEquals(NOW + 10, SnowflakeIdGenerator.timestampMillis(generator.nextId()));
+  }
+
+  @Test
+  public void clockMovingBackBeyondTheSkewFails() {
+    AtomicLong clock = new AtomicLong(NOW);
+    SnowflakeIdGenerator generator =
+        new SnowflakeIdGenerator(1, MAX_CLOCK_SKEW_MILLIS, clock::get);
+
+    long beforeJump = generator.nextId();
+    clock.addAndGet(-MAX_CLOCK_SKEW_MILLIS - 1);
+    assertThrows(IllegalStateException.class, generator::nextId);
+
+    clock.set(NOW);
+    assertTrue(generator.nextId() > beforeJump);
+  }
+
+  @Test
+  public void nodeIdMustFitItsBits() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new SnowflakeIdGenerator(-1, MAX_CLOCK_SKEW_MILLIS));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1,
+            MAX_CLOCK_SKEW_MILLIS));
+  }
+
+  @Test
+  public void formattedIdsSortLikeTheIds() {
+    long small = 1L << 22;
+    long large = Long.MAX_VALUE;
+
+    assertEquals("0000000000400000", SnowflakeIdGenerator.format(small));
+    assertEquals(16, SnowflakeIdGenerator.format(large).length());
+    assertTrue(SnowflakeIdGenerator.format(small)
+        .compareTo(SnowflakeIdGenerator.format(large)) < 0);
+  }
+
+}
@@ -0,0 +1,110 @@
+package com.crio.qeats.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StripedLockTest {
+
+  private MeterRegistry meterRegistry;
+  private ExecutorService executorService;
+
+  @BeforeEach
+  public void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    executorService = Executors.newFixedThreadPool(16);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void readModifyWritesOfTheSameKeyAreNotLost() throws Exception {
+    StripedLock stripedLock = new StripedLock("test", 4, meterRegistry);
+    int keys = 32;
+    int threads = 16;
+    int incrementsPerThread = 20_000;
+    // Plain longs, so that any increment done outside of its key's stripe can get lost.
+    long[] counts = new long[keys];
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    for (int thread = 0; thread < threads; thread++) {
+      int offset = thread;
+      results.add(executorService.submit(() -> {
+        start.await();
+        for (int i = 0; i < incrementsPerThread; i++) {
+          int key = (offset + i) % keys;
+          stripedLock.run("user-" + key, () -> counts[key] = counts[key] + 1);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> result : results) {
+      result.get();
+    }
+
+    long total = 0;
+    for (int key = 0; key < keys; key++) {
+      assertEquals((long) threads * incrementsPerThread / keys, counts[key]);
+      total += counts[key];
+    }
+    assertEquals(total, (long) meterRegistry.get("qeats.stripedlock.acquired")
+        .tag("lock", "test").counter().count());
+  }
+
+  @Test
+  public void waitingForAHeldStripeIsCountedAsContention() throws Exception {
+    StripedLock stripedLock = new StripedLock("test", 4, meterRegistry);
+    CountDownLatch held = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<?> holder = executorService.submit(() -> stripedLock.run("Bunny", () -> {
+      held.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }));
+    held.await();
+    Future<String> waiter = executorService.submit(() -> stripedLock.call("Bunny", () -> "done"));
+
+    // The waiter counts as contended before it blocks.
+    while (meterRegistry.get("qeats.stripedlock.contended").counter().count() == 0) {
+      Thread.sleep(1);
+    }
+    assertFalse(waiter.isDone());
+    release.countDown();
+
+    holder.get();
+    assertEquals("done", waiter.get(5, TimeUnit.SECONDS));
+    assertEquals(1, meterRegistry.get("qeats.stripedlock.wait").timer().count());
+    assertEquals(2.0, meterRegistry.get("qeats.stripedlock.acquired").counter().count());
+  }
+
+  @Test
+  public void stripesAreSizedToCoresByDefault() {
+    StripedLock stripedLock = new StripedLock("test", 0, meterRegistry);
+
+    assertTrue(stripedLock.size() >= 4 * Runtime.getRuntime().availableProcessors());
+    assertEquals(8, new StripedLock("eight", 5, meterRegistry).size());
+  }
+
+}